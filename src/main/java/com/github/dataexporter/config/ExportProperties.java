@@ -1,12 +1,21 @@
 package com.github.dataexporter.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Configuration properties for data export functionality.
@@ -35,11 +44,170 @@ public class ExportProperties {
     @Positive(message = "Batch size must be positive")
     private int batchSize = 100;
 
+    /**
+     * Whether each fetched page is written straight to the export file.
+     * When disabled, all items are collected in memory and written at the end.
+     */
+    private boolean streaming = true;
+
+    /**
+     * Whether to only fetch items updated since the last successful export
+     * and merge them into the previous snapshot.
+     */
+    private boolean incremental = false;
+
+    /**
+     * How a full crawl walks through a repository's items.
+     */
+    private CrawlMode crawlMode = CrawlMode.SERIAL;
+
+    /**
+     * Whether issues and pull requests are fetched together, one request per page of both.
+     * Only applies to full serial crawls without filters that require a pull request search; other
+     * exports fall back to separate pipelines. Combined crawls use a fixed page size and keep no
+     * checkpoint, so they require resume to be disabled.
+     */
+    private boolean combinedQuery = false;
+
+    /**
+     * Partitioned crawl configuration, used when the crawl mode is PARTITIONED.
+     */
+    @Valid
+    private Partitions partitions = new Partitions();
+
+    /**
+     * Maximum number of export pipelines (issues, pull requests) run concurrently.
+     * A value of 1 runs them one after the other.
+     */
+    @Positive(message = "Concurrency must be positive")
+    private int concurrency = 2;
+
     /**
      * Pagination configuration for data fetching.
      */
+    @Valid
     private Pagination pagination = new Pagination();
 
+    /**
+     * Checkpoint and resume configuration for streaming exports.
+     */
+    private Resume resume = new Resume();
+
+    /**
+     * Adaptive page size configuration, starting from the batch size.
+     */
+    @Valid
+    private PageSize pageSize = new PageSize();
+
+    /**
+     * Pre-flight cost planning configuration.
+     */
+    private Planner planner = new Planner();
+
+    /**
+     * Two-phase (skeleton then hydrate) crawl configuration.
+     */
+    @Valid
+    private TwoPhase twoPhase = new TwoPhase();
+
+    /**
+     * Follow-up pagination of connections nested in each item, e.g. the comments of an issue.
+     */
+    @Valid
+    private NestedConnections nestedConnections = new NestedConnections();
+
+    /**
+     * Filters selecting which issues and pull requests are exported, applied by GitHub.
+     */
+    @Valid
+    private Filters filters = new Filters();
+
+    /**
+     * Range of update times to export, overriding incremental exports when bounded.
+     */
+    private Window window = new Window();
+
+    /**
+     * Which fields of issues and pull requests are fetched and exported.
+     * Fields left out by a profile are never requested and stay null in the export.
+     */
+    private Profile profile = Profile.FULL;
+
+    /**
+     * How the CI checks of pull requests are fetched.
+     */
+    private CheckMode checkMode = CheckMode.ROLLUP;
+
+    /**
+     * Check contexts of the head commit's status check rollup fetched with each pull request;
+     * GitHub allows at most 100. The rest are fetched as a nested connection.
+     */
+    @Positive(message = "Check contexts must be positive")
+    @Max(value = 100, message = "Check contexts must not exceed 100")
+    private int checkContexts = 50;
+
+    /**
+     * Timeline pipeline configuration.
+     */
+    @Valid
+    private Timeline timeline = new Timeline();
+
+    /**
+     * Field projections selecting which fields of issues and pull requests are fetched.
+     */
+    public enum Profile {
+        /**
+         * Numbers, states, labels and timestamps only.
+         */
+        MINIMAL,
+
+        /**
+         * The minimal fields plus bodies, people, milestones, reactions and the first page of
+         * comments (issues) or reviews (pull requests), without URLs, avatars, projects or timelines.
+         */
+        STANDARD,
+
+        /**
+         * Every field the exporter knows about.
+         */
+        FULL
+    }
+
+    /**
+     * Strategies for walking through a repository's items in a full crawl.
+     */
+    public enum CrawlMode {
+        /**
+         * Follow the connection's cursor one page at a time.
+         */
+        SERIAL,
+
+        /**
+         * Search created windows of the repository's lifetime concurrently.
+         */
+        PARTITIONED,
+
+        /**
+         * Follow the cursor from both ends of the connection until the two crawls meet.
+         */
+        BIDIRECTIONAL
+    }
+
+    /**
+     * Strategies for fetching the CI checks of pull requests.
+     */
+    public enum CheckMode {
+        /**
+         * Only fetch the status check rollup of each pull request's head commit.
+         */
+        ROLLUP,
+
+        /**
+         * Also fetch the status contexts and check suites of every fetched commit.
+         */
+        EXHAUSTIVE
+    }
+
     /**
      * File names configuration for different export types.
      */
@@ -56,6 +224,18 @@ public class ExportProperties {
          */
         @NotBlank(message = "Pull requests filename must be provided")
         private String pullRequests = "pull-requests.json";
+
+        /**
+         * Filename for the export state kept between runs (e.g. incremental watermarks).
+         */
+        @NotBlank(message = "State filename must be provided")
+        private String state = "export-state.json";
+
+        /**
+         * Filename for exported timeline items, one JSON object per line.
+         */
+        @NotBlank(message = "Timeline filename must be provided")
+        private String timeline = "timeline.ndjson";
     }
 
     /**
@@ -64,15 +244,372 @@ public class ExportProperties {
     @Data
     public static class Pagination {
         /**
-         * Whether pagination is enabled.
+         * Number of items fetched in total when no maximum is configured and the export is bounded.
          */
-        private boolean enabled = true;
+        public static final int DEFAULT_MAX_ITEMS = 1000;
+
+        /**
+         * Whether to export every item of the repository. Unbounded exports always stream to disk,
+         * so memory use does not grow with the size of the repository.
+         */
+        private boolean unbounded = false;
 
         /**
-         * Maximum number of items to fetch in total.
+         * Maximum number of items to fetch in total (null for the default of bounded exports,
+         * or no cap in unbounded exports).
          */
         @Positive(message = "Maximum items must be positive")
-        private int maxItems = 1000;
+        private Integer maxItems;
+
+        /**
+         * Gets the maximum number of items to fetch in total.
+         *
+         * @return The configured maximum, or the default for the export mode
+         */
+        public int getItemLimit() {
+            if (maxItems != null) {
+                return maxItems;
+            }
+            return unbounded ? Integer.MAX_VALUE : DEFAULT_MAX_ITEMS;
+        }
+    }
+
+    /**
+     * Checkpoint and resume configuration for streaming exports.
+     */
+    @Data
+    public static class Resume {
+        /**
+         * Whether to checkpoint the cursor after each page and resume interrupted crawls.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of attempts made to complete a crawl within one run, each continuing
+         * from the last checkpoint.
+         */
+        @Positive(message = "Maximum attempts must be positive")
+        private int maxAttempts = 3;
+    }
+
+    /**
+     * Adaptive page size configuration.
+     */
+    @Data
+    public static class PageSize {
+        /**
+         * Whether the page size adapts to latency, cost and timeouts.
+         * When disabled, every request uses the batch size.
+         */
+        private boolean adaptive = true;
+
+        /**
+         * Pages answered faster than this may grow.
+         */
+        private Duration targetLatency = Duration.ofSeconds(5);
+
+        /**
+         * Pages costing at most this many rate limit points may grow.
+         */
+        @Positive(message = "Maximum cost must be positive")
+        private int maxCost = 5;
+
+        /**
+         * Page size bounds for issues.
+         */
+        @Valid
+        private Bounds issues = new Bounds(10, 100);
+
+        /**
+         * Page size bounds for pull requests, whose query is considerably heavier.
+         */
+        @Valid
+        private Bounds pullRequests = new Bounds(5, 100);
+
+        /**
+         * Lower and upper bound for a page size.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Bounds {
+            /**
+             * Smallest page size to shrink to.
+             */
+            @Positive(message = "Minimum page size must be positive")
+            private int min = 1;
+
+            /**
+             * Largest page size to grow to; GitHub allows at most 100.
+             */
+            @Positive(message = "Maximum page size must be positive")
+            @Max(value = 100, message = "Maximum page size must not exceed 100")
+            private int max = 100;
+        }
+    }
+
+    /**
+     * Partitioned crawl configuration.
+     */
+    @Data
+    public static class Partitions {
+        /**
+         * Number of equal created windows the repository's lifetime is split into.
+         * Windows exceeding the search result limit are split further.
+         */
+        @Positive(message = "Partition count must be positive")
+        private int count = 8;
+
+        /**
+         * Maximum number of windows crawled at the same time.
+         */
+        @Positive(message = "Partition concurrency must be positive")
+        private int concurrency = 4;
+    }
+
+    /**
+     * Two-phase crawl configuration.
+     */
+    @Data
+    public static class TwoPhase {
+        /**
+         * Whether to crawl minimal skeletons first and fetch the full details by id afterwards.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Page size of the skeleton crawl; GitHub allows at most 100.
+         */
+        @Positive(message = "Skeleton page size must be positive")
+        @Max(value = 100, message = "Skeleton page size must not exceed 100")
+        private int skeletonPageSize = 100;
+
+        /**
+         * Number of ids hydrated per request.
+         */
+        @Positive(message = "Hydration batch size must be positive")
+        @Max(value = 100, message = "Hydration batch size must not exceed 100")
+        private int batchSize = 20;
+
+        /**
+         * Maximum number of hydration requests in flight at the same time.
+         */
+        @Positive(message = "Hydration concurrency must be positive")
+        private int concurrency = 4;
+
+        /**
+         * Whether incremental exports skip hydrating items whose update time matches the previous snapshot.
+         */
+        private boolean skipUnchanged = true;
+    }
+
+    /**
+     * Timeline pipeline configuration.
+     */
+    @Data
+    public static class Timeline {
+        /**
+         * Whether to stream the full timeline of every issue and pull request to the timeline file
+         * instead of embedding the first timeline items in each record.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Timeline items fetched per request; GitHub allows at most 100.
+         */
+        @Positive(message = "Timeline page size must be positive")
+        @Max(value = 100, message = "Timeline page size must not exceed 100")
+        private int pageSize = 100;
+
+        /**
+         * Maximum number of timelines crawled at the same time.
+         */
+        @Positive(message = "Timeline concurrency must be positive")
+        private int concurrency = 4;
+
+        /**
+         * Issue timeline item types to export.
+         */
+        private List<String> issueItemTypes = List.of(
+                "ASSIGNED_EVENT", "CLOSED_EVENT", "LABELED_EVENT", "MILESTONED_EVENT", "RENAMED_TITLE_EVENT");
+
+        /**
+         * Pull request timeline item types to export.
+         */
+        private List<String> pullRequestItemTypes = List.of(
+                "ASSIGNED_EVENT", "CLOSED_EVENT", "MERGED_EVENT", "REVIEW_REQUESTED_EVENT");
+    }
+
+    /**
+     * Filters pushed into the GitHub queries, so items that do not match are never downloaded.
+     * Issues support all filters. The pull requests connection can only filter by state and label,
+     * so pull requests are crawled through the search API, as in partitioned crawls, when any other
+     * filter is set.
+     */
+    @Data
+    public static class Filters {
+        /**
+         * Issue states to export.
+         */
+        @NotEmpty(message = "At least one issue state must be exported")
+        private List<String> issueStates = List.of("OPEN", "CLOSED");
+
+        /**
+         * Pull request states to export.
+         */
+        @NotEmpty(message = "At least one pull request state must be exported")
+        private List<String> pullRequestStates = List.of("OPEN", "CLOSED", "MERGED");
+
+        /**
+         * Only export items with any of these labels (empty for all items).
+         */
+        private List<String> labels = List.of();
+
+        /**
+         * Only export items assigned to this user ("*" for any assignee, "none" for unassigned).
+         */
+        private String assignee;
+
+        /**
+         * Only export items opened by this user.
+         */
+        private String creator;
+
+        /**
+         * Only export items mentioning this user.
+         */
+        private String mentioned;
+
+        /**
+         * Only export items in the milestone with this number ("*" for any milestone, "none" for none).
+         */
+        private String milestone;
+
+        /**
+         * Checks whether a filter is set that the pull requests connection cannot apply.
+         *
+         * @return true if an assignee, creator, mention or milestone filter is set
+         */
+        public boolean requiresPullRequestSearch() {
+            return isSet(assignee) || isSet(creator) || isSet(mentioned) || isSet(milestone);
+        }
+
+        private static boolean isSet(String value) {
+            return value != null && !value.isBlank();
+        }
+    }
+
+    /**
+     * Range of update times an export is limited to.
+     * Issues are filtered by GitHub from the start of the window, pull requests are crawled most
+     * recently updated first and the crawl stops once it leaves the window.
+     */
+    @Data
+    public static class Window {
+        /**
+         * Only export items updated at or after this time (null for no lower bound).
+         */
+        private Instant since;
+
+        /**
+         * Only export items updated at or before this time (null for no upper bound).
+         */
+        private Instant until;
+    }
+
+    /**
+     * Nested connection pagination configuration.
+     */
+    @Data
+    public static class NestedConnections {
+        /**
+         * Whether to fetch the remainder of nested connections truncated by the main query.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Nested items fetched per item and request; GitHub allows at most 100.
+         */
+        @Positive(message = "Nested page size must be positive")
+        @Max(value = 100, message = "Nested page size must not exceed 100")
+        private int pageSize = 100;
+
+        /**
+         * Number of items whose nested connections are continued in a single aliased request.
+         */
+        @Positive(message = "Nested batch size must be positive")
+        private int batchSize = 10;
+
+        /**
+         * Maximum number of pages whose nested connections are completed at the same time.
+         */
+        @Positive(message = "Nested concurrency must be positive")
+        private int concurrency = 2;
+
+        /**
+         * Whether to also page through all commits and changed files of pull requests with more than
+         * the query returns; release pull requests can have thousands of them.
+         */
+        private boolean deepFetch = false;
+    }
+
+    /**
+     * Pre-flight cost planning configuration.
+     */
+    @Data
+    public static class Planner {
+        /**
+         * Whether to plan and log the cost of each crawl before an export starts.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Page sizes sent as dry runs to find the cheapest one per item.
+         */
+        private List<Integer> candidatePageSizes = List.of(25, 50, 100);
+
+        /**
+         * Expected time GitHub takes to answer a page, used to estimate crawl durations.
+         */
+        private Duration pageLatency = Duration.ofSeconds(2);
+    }
+
+    /**
+     * Checks whether exports are written to disk page by page as they are fetched.
+     * Unbounded exports always stream, so memory use does not grow with the size of the repository.
+     *
+     * @return true if items are streamed to the export files
+     */
+    public boolean isStreamingExport() {
+        return streaming || pagination.isUnbounded();
+    }
+
+    /**
+     * Checks that unbounded exports only use crawls whose memory use does not grow with the repository.
+     * Incremental exports collect the changed items before merging them, and partitioned and
+     * bidirectional crawls remember the id of every item to drop duplicates, so neither is
+     * supported without an item limit. Filters that send pull requests through search de-duplicate
+     * the same way.
+     *
+     * @return true unless unbounded mode is combined with incremental exports or a de-duplicating crawl
+     */
+    @AssertTrue(message = "Unbounded exports require incremental=false, crawl-mode=serial "
+            + "and no assignee, creator, mentioned or milestone filter")
+    public boolean isUnboundedModeSupported() {
+        return !pagination.isUnbounded()
+                || (!incremental && crawlMode == CrawlMode.SERIAL && !filters.requiresPullRequestSearch());
+    }
+
+    /**
+     * Checks that combined queries are not expected to resume.
+     * A combined crawl pages through two connections with each request and keeps no checkpoint, so an
+     * interrupted run could not continue where it stopped.
+     *
+     * @return true unless combined queries are enabled together with resume
+     */
+    @AssertTrue(message = "Combined queries require resume.enabled=false")
+    public boolean isCombinedQuerySupported() {
+        return !combinedQuery || !resume.isEnabled();
     }
 
     /**
@@ -92,4 +629,22 @@ public class ExportProperties {
     public Path getPullRequestsFilePath() {
         return Path.of(directory, files.getPullRequests());
     }
+
+    /**
+     * Get the full path for the export state file.
+     *
+     * @return Path to the export state file
+     */
+    public Path getStateFilePath() {
+        return Path.of(directory, files.getState());
+    }
+
+    /**
+     * Get the full path for the timeline export file.
+     *
+     * @return Path object representing the timeline export file
+     */
+    public Path getTimelineFilePath() {
+        return Path.of(directory, files.getTimeline());
+    }
 }
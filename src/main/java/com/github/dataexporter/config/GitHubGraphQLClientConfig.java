@@ -1,9 +1,9 @@
 package com.github.dataexporter.config;
 
+import com.github.dataexporter.service.RateLimitScheduler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
@@ -12,8 +12,6 @@ import org.springframework.web.reactive.function.client.WebClient;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-
 /**
  * Configuration class for setting up the GitHub GraphQL client.
  * Configures authentication and connection parameters for interacting with GitHub's GraphQL API.
@@ -28,17 +26,18 @@ public class GitHubGraphQLClientConfig {
     @Value("${spring.graphql.client.url}")
     private String graphqlUrl;
 
-    @Value("${spring.graphql.client.timeout:30s}")
-    private Duration timeout;
-
     /**
      * Creates a WebClient configured for GitHub GraphQL API access.
      * Includes authentication via personal access token and appropriate headers.
+     * Rate limit headers of every response are fed to the shared scheduler.
+     * GraphQL responses are read as a stream of buffers by {@link com.github.dataexporter.service.GraphQlResponseDecoder},
+     * so the default in-memory codec limit does not cap the size of a page.
      *
+     * @param rateLimitScheduler The scheduler pacing requests against the rate limit
      * @return WebClient instance configured for GitHub API
      */
     @Bean
-    public WebClient githubWebClient() {
+    public WebClient githubWebClient(RateLimitScheduler rateLimitScheduler) {
         return WebClient.builder()
                 .baseUrl(graphqlUrl)
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + githubToken)
@@ -46,20 +45,7 @@ public class GitHubGraphQLClientConfig {
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader("User-Agent", "GitHub-Data-Exporter")
                 .filter(logRequest())
-                .build();
-    }
-
-    /**
-     * Creates an HttpGraphQlClient using the configured WebClient.
-     * This client provides GraphQL-specific functionality on top of the WebClient.
-     *
-     * @param webClient The preconfigured WebClient for GitHub
-     * @return HttpGraphQlClient for executing GraphQL operations
-     */
-    @Bean
-    public HttpGraphQlClient githubGraphQlClient(WebClient githubWebClient) {
-        return HttpGraphQlClient.builder(githubWebClient)
-                .timeout(timeout)
+                .filter(recordRateLimit(rateLimitScheduler))
                 .build();
     }
 
@@ -84,4 +70,17 @@ public class GitHubGraphQLClientConfig {
             return Mono.just(clientRequest);
         });
     }
+
+    /**
+     * Creates a filter function that records the x-ratelimit-* headers of each response.
+     *
+     * @param rateLimitScheduler The scheduler to update
+     * @return ExchangeFilterFunction for tracking the rate limit budget
+     */
+    private ExchangeFilterFunction recordRateLimit(RateLimitScheduler rateLimitScheduler) {
+        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
+            rateLimitScheduler.recordHeaders(clientResponse.headers().asHttpHeaders());
+            return Mono.just(clientResponse);
+        });
+    }
 }
@@ -6,6 +6,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for GitHub API access.
  * Maps to the "github" section in application.yml.
@@ -69,6 +71,38 @@ public class GitHubProperties {
             @Positive
             private int perHour = 3600;
         }
+
+        /**
+         * Retry configuration for transient API failures.
+         */
+        private Retry retry = new Retry();
+
+        /**
+         * Retry configuration properties.
+         */
+        @Data
+        public static class Retry {
+            /**
+             * Whether transient failures are retried.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of retries for a single request.
+             */
+            @Positive
+            private int maxRetries = 5;
+
+            /**
+             * Backoff before the first retry, doubled on each further retry.
+             */
+            private Duration initialBackoff = Duration.ofSeconds(1);
+
+            /**
+             * Upper bound for the backoff between retries.
+             */
+            private Duration maxBackoff = Duration.ofSeconds(60);
+        }
     }
 
     /**
@@ -1,18 +1,22 @@
 package com.github.dataexporter.controller;
 
 import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.export.ExportDispatcher;
+import com.github.dataexporter.export.ExportResult;
 import com.github.dataexporter.export.JsonExporter;
-import com.github.dataexporter.model.Issue;
-import com.github.dataexporter.model.PullRequest;
-import com.github.dataexporter.service.IssueService;
-import com.github.dataexporter.service.PullRequestService;
+import com.github.dataexporter.service.NestedConnectionFetcher;
+import com.github.dataexporter.service.QueryPlan;
+import com.github.dataexporter.service.QueryPlanner;
+import com.github.dataexporter.service.RateLimitScheduler;
+import com.github.dataexporter.service.RetryPolicy;
+import com.github.dataexporter.service.TimeWindow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
@@ -32,10 +36,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Slf4j
 public class ExportController {
 
-    private final IssueService issueService;
-    private final PullRequestService pullRequestService;
     private final JsonExporter jsonExporter;
+    private final ExportDispatcher exportDispatcher;
     private final ExportProperties exportProperties;
+    private final RateLimitScheduler rateLimitScheduler;
+    private final RetryPolicy retryPolicy;
+    private final QueryPlanner queryPlanner;
+    private final NestedConnectionFetcher nestedConnectionFetcher;
 
     // Track export status
     private final AtomicBoolean exportInProgress = new AtomicBoolean(false);
@@ -103,12 +110,22 @@ public class ExportController {
     }
 
     /**
-     * Endpoint to export both issues and pull requests.
+     * Endpoint to export both issues and pull requests, followed by their timelines when enabled.
+     * Runs the same export modes as the command line runner.
      *
+     * @param since Only export items updated at or after this time (defaults to the configured window)
+     * @param until Only export items updated at or before this time (defaults to the configured window)
      * @return Response with export status information
      */
     @PostMapping
-    public ResponseEntity<?> exportAll() {
+    public ResponseEntity<?> exportAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until) {
+        TimeWindow window = resolveWindow(since, until);
+        if (window.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "since must not be after until"));
+        }
+
         if (exportInProgress.getAndSet(true)) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(Map.of("error", "Export already in progress"));
@@ -131,21 +148,36 @@ public class ExportController {
             ExportStatus prsStatus = new ExportStatus(prsExportId, "pull_requests");
             exportStatuses.put(issuesExportId, issuesStatus);
             exportStatuses.put(prsExportId, prsStatus);
-
-            // Start async export tasks
-            CompletableFuture<Void> issuesFuture = CompletableFuture.runAsync(() -> exportIssues(issuesStatus));
-            CompletableFuture<Void> prsFuture = CompletableFuture.runAsync(() -> exportPullRequests(prsStatus));
-
-            // When both exports are done, reset the in-progress flag
-            CompletableFuture.allOf(issuesFuture, prsFuture)
-                    .thenRun(() -> exportInProgress.set(false));
-
-            // Return the export IDs for status tracking
-            return ResponseEntity.accepted().body(Map.of(
+            Map<String, Object> response = new HashMap<>(Map.of(
                     "message", "Export started",
                     "issuesExportId", issuesExportId,
                     "pullRequestsExportId", prsExportId
             ));
+
+            // Start async export tasks, from a single crawl when the combined query applies
+            CompletableFuture<Void> exportsFuture;
+            if (exportDispatcher.isCombinedExport(window)) {
+                exportsFuture = CompletableFuture.runAsync(() -> exportCombined(issuesStatus, prsStatus));
+            } else {
+                exportsFuture = CompletableFuture.allOf(
+                        CompletableFuture.runAsync(() -> exportIssues(issuesStatus, window)),
+                        CompletableFuture.runAsync(() -> exportPullRequests(prsStatus, window)));
+            }
+
+            // Timelines are exported once issues and pull requests are done, as on the command line
+            if (exportProperties.getTimeline().isEnabled()) {
+                String timelineExportId = "timeline-" + Instant.now().toEpochMilli();
+                ExportStatus timelineStatus = new ExportStatus(timelineExportId, "timeline");
+                exportStatuses.put(timelineExportId, timelineStatus);
+                response.put("timelineExportId", timelineExportId);
+                exportsFuture = exportsFuture.thenRun(() -> exportTimelines(timelineStatus));
+            }
+
+            // When all exports are done, reset the in-progress flag
+            exportsFuture.whenComplete((result, error) -> exportInProgress.set(false));
+
+            // Return the export IDs for status tracking
+            return ResponseEntity.accepted().body(response);
         } catch (Exception e) {
             exportInProgress.set(false);
             log.error("Failed to start export: {}", e.getMessage(), e);
@@ -157,10 +189,19 @@ public class ExportController {
     /**
      * Endpoint to export only GitHub issues.
      *
+     * @param since Only export items updated at or after this time (defaults to the configured window)
+     * @param until Only export items updated at or before this time (defaults to the configured window)
      * @return Response with export status information
      */
     @PostMapping("/issues")
-    public ResponseEntity<?> exportIssuesOnly() {
+    public ResponseEntity<?> exportIssuesOnly(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until) {
+        TimeWindow window = resolveWindow(since, until);
+        if (window.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "since must not be after until"));
+        }
+
         if (exportInProgress.getAndSet(true)) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(Map.of("error", "Export already in progress"));
@@ -184,7 +225,7 @@ public class ExportController {
             // Start async export task
             CompletableFuture.runAsync(() -> {
                 try {
-                    exportIssues(status);
+                    exportIssues(status, window);
                 } finally {
                     exportInProgress.set(false);
                 }
@@ -206,10 +247,19 @@ public class ExportController {
     /**
      * Endpoint to export only GitHub pull requests.
      *
+     * @param since Only export items updated at or after this time (defaults to the configured window)
+     * @param until Only export items updated at or before this time (defaults to the configured window)
      * @return Response with export status information
      */
     @PostMapping("/pull-requests")
-    public ResponseEntity<?> exportPullRequestsOnly() {
+    public ResponseEntity<?> exportPullRequestsOnly(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until) {
+        TimeWindow window = resolveWindow(since, until);
+        if (window.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "since must not be after until"));
+        }
+
         if (exportInProgress.getAndSet(true)) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(Map.of("error", "Export already in progress"));
@@ -233,7 +283,7 @@ public class ExportController {
             // Start async export task
             CompletableFuture.runAsync(() -> {
                 try {
-                    exportPullRequests(status);
+                    exportPullRequests(status, window);
                 } finally {
                     exportInProgress.set(false);
                 }
@@ -283,36 +333,64 @@ public class ExportController {
     }
 
     /**
-     * Exports GitHub issues and updates the export status.
+     * Endpoint to check the GitHub API rate limit budget shared by all exports.
+     *
+     * @return Response with rate limit information
+     */
+    @GetMapping("/rate-limit")
+    public ResponseEntity<?> getRateLimit() {
+        return ResponseEntity.ok(rateLimitScheduler.getStatus());
+    }
+
+    /**
+     * Endpoint to plan the issues and pull requests crawls without running them.
+     * Reports the recommended page size, estimated cost and duration of each crawl. The plan is
+     * advisory; exports start at the configured page size regardless.
+     *
+     * @return Response with the crawl plans
+     */
+    @GetMapping("/plan")
+    public ResponseEntity<?> getPlan() {
+        Map<String, QueryPlan> plans = queryPlanner.plan();
+        if (plans == null) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to plan crawls"));
+        }
+        return ResponseEntity.ok(plans);
+    }
+
+    /**
+     * Endpoint to check how many GitHub API requests were retried and how long was spent backing off,
+     * and what completing nested connections has cost.
+     *
+     * @return Response with retry and nested connection metrics
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>(retryPolicy.getMetrics());
+        metrics.put("nestedConnections", nestedConnectionFetcher.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * Exports GitHub issues with the configured export mode and updates the export status.
      *
      * @param status Export status object to update
+     * @param window Window of update times to export
      */
-    private void exportIssues(ExportStatus status) {
+    private void exportIssues(ExportStatus status, TimeWindow window) {
         try {
             log.info("Starting issues export (ID: {})", status.id);
-            
-            // Fetch issues from GitHub
-            List<Issue> issues = issueService.fetchAllIssues();
-            
-            if (issues.isEmpty()) {
-                status.fail("No issues found to export");
-                log.warn("No issues found to export (ID: {})", status.id);
-                return;
-            }
-            
-            // Export issues to JSON file
-            Path exportPath = jsonExporter.exportIssues(issues);
-            
-            if (exportPath == null) {
-                status.fail("Failed to write issues to file");
-                log.error("Failed to write issues to file (ID: {})", status.id);
+            ExportResult result = exportDispatcher.exportIssues(window);
+            if (result == null) {
+                status.fail("Issues export did not complete");
+                log.error("Issues export did not complete (ID: {})", status.id);
                 return;
             }
-            
-            // Update export status
-            status.complete(issues.size(), exportPath.toString());
-            log.info("Issues export completed successfully (ID: {}): {} issues exported to {}", 
-                    status.id, issues.size(), exportPath);
+
+            status.complete(result.getItemCount(), result.getFilePath().toString());
+            log.info("Issues export completed successfully (ID: {}): {} issues exported to {}",
+                    status.id, result.getItemCount(), result.getFilePath());
         } catch (Exception e) {
             status.fail(e.getMessage());
             log.error("Error during issues export (ID: {}): {}", status.id, e.getMessage(), e);
@@ -320,39 +398,95 @@ public class ExportController {
     }
 
     /**
-     * Exports GitHub pull requests and updates the export status.
+     * Exports GitHub pull requests with the configured export mode and updates the export status.
      *
      * @param status Export status object to update
+     * @param window Window of update times to export
      */
-    private void exportPullRequests(ExportStatus status) {
+    private void exportPullRequests(ExportStatus status, TimeWindow window) {
         try {
             log.info("Starting pull requests export (ID: {})", status.id);
-            
-            // Fetch pull requests from GitHub
-            List<PullRequest> pullRequests = pullRequestService.fetchAllPullRequests();
-            
-            if (pullRequests.isEmpty()) {
-                status.fail("No pull requests found to export");
-                log.warn("No pull requests found to export (ID: {})", status.id);
+            ExportResult result = exportDispatcher.exportPullRequests(window);
+            if (result == null) {
+                status.fail("Pull requests export did not complete");
+                log.error("Pull requests export did not complete (ID: {})", status.id);
                 return;
             }
-            
-            // Export pull requests to JSON file
-            Path exportPath = jsonExporter.exportPullRequests(pullRequests);
-            
-            if (exportPath == null) {
-                status.fail("Failed to write pull requests to file");
-                log.error("Failed to write pull requests to file (ID: {})", status.id);
-                return;
-            }
-            
-            // Update export status
-            status.complete(pullRequests.size(), exportPath.toString());
-            log.info("Pull requests export completed successfully (ID: {}): {} pull requests exported to {}", 
-                    status.id, pullRequests.size(), exportPath);
+
+            status.complete(result.getItemCount(), result.getFilePath().toString());
+            log.info("Pull requests export completed successfully (ID: {}): {} pull requests exported to {}",
+                    status.id, result.getItemCount(), result.getFilePath());
         } catch (Exception e) {
             status.fail(e.getMessage());
             log.error("Error during pull requests export (ID: {}): {}", status.id, e.getMessage(), e);
         }
     }
+
+    /**
+     * Exports GitHub issues and pull requests from a single combined crawl and updates both export statuses.
+     *
+     * @param issuesStatus Export status object of the issues
+     * @param prsStatus    Export status object of the pull requests
+     */
+    private void exportCombined(ExportStatus issuesStatus, ExportStatus prsStatus) {
+        try {
+            log.info("Starting combined export (IDs: {}, {})", issuesStatus.id, prsStatus.id);
+            List<ExportResult> results = exportDispatcher.exportCombined();
+            completeOrFail(issuesStatus, results.get(0), "Issues export did not complete");
+            completeOrFail(prsStatus, results.get(1), "Pull requests export did not complete");
+            log.info("Combined export finished (IDs: {}, {})", issuesStatus.id, prsStatus.id);
+        } catch (Exception e) {
+            issuesStatus.fail(e.getMessage());
+            prsStatus.fail(e.getMessage());
+            log.error("Error during combined export (IDs: {}, {}): {}", issuesStatus.id, prsStatus.id,
+                    e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams the timelines of all GitHub issues and pull requests and updates the export status.
+     *
+     * @param status Export status object to update
+     */
+    private void exportTimelines(ExportStatus status) {
+        try {
+            log.info("Starting timeline export (ID: {})", status.id);
+            ExportResult result = exportDispatcher.exportTimelines();
+            status.complete(result.getItemCount(), result.getFilePath().toString());
+            log.info("Timeline export completed successfully (ID: {}): {} timeline items exported to {}",
+                    status.id, result.getItemCount(), result.getFilePath());
+        } catch (Exception e) {
+            status.fail(e.getMessage());
+            log.error("Error during timeline export (ID: {}): {}", status.id, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Completes an export status with its result, or fails it if there is none.
+     *
+     * @param status       Export status object to update
+     * @param result       Result of the export, may be null
+     * @param errorMessage Message recorded when there is no result
+     */
+    private void completeOrFail(ExportStatus status, ExportResult result, String errorMessage) {
+        if (result == null) {
+            status.fail(errorMessage);
+            log.error("{} (ID: {})", errorMessage, status.id);
+            return;
+        }
+        status.complete(result.getItemCount(), result.getFilePath().toString());
+    }
+
+    /**
+     * Resolves the window of update times to export, falling back to the configured window
+     * for bounds the request leaves out.
+     *
+     * @param since Requested lower bound, may be null
+     * @param until Requested upper bound, may be null
+     * @return The window to export
+     */
+    private TimeWindow resolveWindow(Instant since, Instant until) {
+        return new TimeWindow(since != null ? since : exportProperties.getWindow().getSince(),
+                until != null ? until : exportProperties.getWindow().getUntil());
+    }
 }
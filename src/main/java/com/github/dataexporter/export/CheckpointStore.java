@@ -0,0 +1,87 @@
+package com.github.dataexporter.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores crawl checkpoints next to the export file they belong to,
+ * e.g. {@code issues.json.checkpoint} for {@code issues.json}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CheckpointStore {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Loads the checkpoint of a partially written export file.
+     *
+     * @param exportPath Path of the export file
+     * @return The checkpoint, or empty if there is none or it cannot be read
+     */
+    public Optional<CrawlCheckpoint> load(Path exportPath) {
+        Path checkpointPath = checkpointPath(exportPath);
+        if (!Files.exists(checkpointPath) || !Files.exists(exportPath)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(checkpointPath.toFile(), CrawlCheckpoint.class));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable checkpoint {}: {}", checkpointPath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Durably writes the checkpoint of an export file, replacing any previous one atomically.
+     *
+     * @param exportPath Path of the export file
+     * @param checkpoint The checkpoint to write
+     * @throws UncheckedIOException if the checkpoint could not be written
+     */
+    public void save(Path exportPath, CrawlCheckpoint checkpoint) {
+        Path checkpointPath = checkpointPath(exportPath);
+        Path tempPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try {
+            objectMapper.writeValue(tempPath.toFile(), checkpoint);
+            Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write checkpoint " + checkpointPath, e);
+        }
+    }
+
+    /**
+     * Removes the checkpoint of an export file once the export has completed.
+     *
+     * @param exportPath Path of the export file
+     */
+    public void delete(Path exportPath) {
+        try {
+            Files.deleteIfExists(checkpointPath(exportPath));
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint for {}: {}", exportPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the checkpoint path belonging to an export file.
+     *
+     * @param exportPath Path of the export file
+     * @return Path of the checkpoint file
+     */
+    private Path checkpointPath(Path exportPath) {
+        return exportPath.resolveSibling(exportPath.getFileName() + CHECKPOINT_SUFFIX);
+    }
+}
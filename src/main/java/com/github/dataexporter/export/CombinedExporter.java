@@ -0,0 +1,80 @@
+package com.github.dataexporter.export;
+
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.service.CombinedCrawler;
+import com.github.dataexporter.service.CombinedPage;
+import com.github.dataexporter.service.Page;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Service responsible for exporting issues and pull requests from a single combined crawl.
+ * Each combined page is split between the issues and the pull requests export files as soon as it is fetched.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CombinedExporter {
+
+    private final CombinedCrawler combinedCrawler;
+    private final JsonExporter jsonExporter;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Streams all issues and pull requests to their export files.
+     *
+     * @return Results of the issues export and the pull requests export, in that order,
+     *         or null if the crawl could not be completed
+     * @throws IOException if an export file could not be written
+     */
+    public List<ExportResult> exportIssuesAndPullRequests() throws IOException {
+        try (JsonArrayWriter<Issue> issuesWriter = jsonExporter.openIssuesWriter();
+             JsonArrayWriter<PullRequest> pullRequestsWriter = jsonExporter.openPullRequestsWriter()) {
+            CombinedPage lastPage = combinedCrawler.crawl()
+                    .publishOn(Schedulers.boundedElastic(), 1)
+                    .doOnNext(page -> {
+                        if (page.getIssues() != null) {
+                            issuesWriter.writeAll(page.getIssues().getItems());
+                            log.info("Exported {} issues", page.getIssues().progress());
+                        }
+                        if (page.getPullRequests() != null) {
+                            pullRequestsWriter.writeAll(page.getPullRequests().getItems());
+                            log.info("Exported {} pull requests", page.getPullRequests().progress());
+                        }
+                    })
+                    .blockLast();
+
+            int maxItems = exportProperties.getPagination().getItemLimit();
+            if (lastPage == null || !isFinal(lastPage.getIssues(), maxItems)
+                    || !isFinal(lastPage.getPullRequests(), maxItems)) {
+                log.error("Combined crawl ended early after {} issues and {} pull requests",
+                        issuesWriter.getItemCount(), pullRequestsWriter.getItemCount());
+                return null;
+            }
+
+            log.info("Completed combined export. Issues written: {}, pull requests written: {}",
+                    issuesWriter.getItemCount(), pullRequestsWriter.getItemCount());
+            return List.of(
+                    new ExportResult(issuesWriter.getFilePath(), issuesWriter.getItemCount()),
+                    new ExportResult(pullRequestsWriter.getFilePath(), pullRequestsWriter.getItemCount()));
+        }
+    }
+
+    /**
+     * Checks whether a connection was crawled to its end by the last combined page.
+     *
+     * @param page     The connection's page of the last combined page, or null if it ended earlier
+     * @param maxItems Maximum number of items to fetch in total
+     * @return true if no further page of the connection needed to be fetched
+     */
+    private boolean isFinal(Page<?> page, int maxItems) {
+        return page == null || page.isFinal(maxItems);
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.dataexporter.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.dataexporter.service.ResumePoint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Durable progress of a streaming crawl, written after each page so that an interrupted
+ * export can continue from the last page that reached the output file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CrawlCheckpoint {
+
+    /**
+     * Fingerprint of the crawl that produced the cursor (repository, query, variables and crawl settings)
+     */
+    private String fingerprint;
+
+    /**
+     * End cursor of the last page written to the output file
+     */
+    private String endCursor;
+
+    /**
+     * Number of the last page written to the output file
+     */
+    private int pageNumber;
+
+    /**
+     * Number of items written to the output file so far
+     */
+    private int itemsWritten;
+
+    /**
+     * Byte offset in the output file just after the last written item
+     */
+    private long byteOffset;
+
+    /**
+     * When the checkpoint was written
+     */
+    private Instant updatedAt;
+
+    /**
+     * Gets the position from which pagination continues.
+     *
+     * @return Resume point matching this checkpoint
+     */
+    public ResumePoint toResumePoint() {
+        return new ResumePoint(endCursor, pageNumber, itemsWritten);
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.dataexporter.export;
+
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.service.IssueService;
+import com.github.dataexporter.service.PullRequestService;
+import com.github.dataexporter.service.QueryFilters;
+import com.github.dataexporter.service.TimeWindow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service choosing how each export runs from the configuration, so the command line runner and the
+ * REST endpoints export the same way. Issues and pull requests are exported from a combined crawl,
+ * incrementally, streamed to disk or collected in memory; timelines are streamed separately.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportDispatcher {
+
+    private final IssueService issueService;
+    private final PullRequestService pullRequestService;
+    private final JsonExporter jsonExporter;
+    private final IncrementalExporter incrementalExporter;
+    private final StreamingExporter streamingExporter;
+    private final CombinedExporter combinedExporter;
+    private final TimelineExporter timelineExporter;
+    private final QueryFilters queryFilters;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Checks whether issues and pull requests are exported from a single combined crawl.
+     * The combined crawl only covers full serial crawls over the pull requests connection, so other
+     * configurations keep separate pipelines.
+     *
+     * @param window Window of update times to export
+     * @return true if the combined crawl is enabled and applies to the configured export
+     */
+    public boolean isCombinedExport(TimeWindow window) {
+        if (!exportProperties.isCombinedQuery()) {
+            return false;
+        }
+        if (exportProperties.isIncremental() || window.isBounded() || exportProperties.getTwoPhase().isEnabled()
+                || exportProperties.getCrawlMode() != ExportProperties.CrawlMode.SERIAL) {
+            log.warn("Combined query only applies to full serial crawls; running separate export pipelines");
+            return false;
+        }
+        if (queryFilters.requiresPullRequestSearch()) {
+            log.warn("Combined query cannot filter pull requests by assignee, creator, mention or milestone; "
+                    + "running separate export pipelines");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Streams all issues and pull requests to their export files from a single combined crawl.
+     *
+     * @return Results of the issues and the pull requests export, in that order; an entry is null
+     *         if its export failed or found nothing to export
+     * @throws IOException if an export file could not be written
+     */
+    public List<ExportResult> exportCombined() throws IOException {
+        List<ExportResult> results = combinedExporter.exportIssuesAndPullRequests();
+        if (results == null) {
+            return Arrays.asList(null, null);
+        }
+        return Arrays.asList(requireItems(results.get(0), "issues"), requireItems(results.get(1), "pull requests"));
+    }
+
+    /**
+     * Exports the issues with the configured export mode.
+     * A bounded window takes precedence over incremental exports, since it selects its own range;
+     * it is written to its own file, so the incremental snapshot and watermark are left untouched.
+     *
+     * @param window Window of update times to export
+     * @return Result of the export, or null if it failed or found no issues to export
+     * @throws IOException if the export file could not be written
+     */
+    public ExportResult exportIssues(TimeWindow window) throws IOException {
+        Path filePath = window.fileFor(exportProperties.getIssuesFilePath());
+        if (exportProperties.isIncremental() && window.isBounded()) {
+            log.warn("Export window {} overrides the incremental issues export; writing to {} and leaving the snapshot untouched",
+                    window, filePath);
+        } else if (exportProperties.isIncremental()) {
+            return incrementalExporter.exportIssues();
+        }
+
+        if (exportProperties.isStreamingExport()) {
+            return requireItems(streamingExporter.exportIssues(window), "issues");
+        }
+
+        List<Issue> issues = issueService.fetchAllIssues(window);
+        if (issues.isEmpty()) {
+            return requireItems(new ExportResult(filePath, 0), "issues");
+        }
+        Path exportPath = jsonExporter.exportToJson(issues, filePath);
+        return exportPath != null ? new ExportResult(exportPath, issues.size()) : null;
+    }
+
+    /**
+     * Exports the pull requests with the configured export mode.
+     * A bounded window takes precedence over incremental exports, since it selects its own range;
+     * it is written to its own file, so the incremental snapshot and watermark are left untouched.
+     *
+     * @param window Window of update times to export
+     * @return Result of the export, or null if it failed or found no pull requests to export
+     * @throws IOException if the export file could not be written
+     */
+    public ExportResult exportPullRequests(TimeWindow window) throws IOException {
+        Path filePath = window.fileFor(exportProperties.getPullRequestsFilePath());
+        if (exportProperties.isIncremental() && window.isBounded()) {
+            log.warn("Export window {} overrides the incremental pull requests export; writing to {} and leaving the snapshot untouched",
+                    window, filePath);
+        } else if (exportProperties.isIncremental()) {
+            return incrementalExporter.exportPullRequests();
+        }
+
+        if (exportProperties.isStreamingExport()) {
+            return requireItems(streamingExporter.exportPullRequests(window), "pull requests");
+        }
+
+        List<PullRequest> pullRequests = pullRequestService.fetchAllPullRequests(window);
+        if (pullRequests.isEmpty()) {
+            return requireItems(new ExportResult(filePath, 0), "pull requests");
+        }
+        Path exportPath = jsonExporter.exportToJson(pullRequests, filePath);
+        return exportPath != null ? new ExportResult(exportPath, pullRequests.size()) : null;
+    }
+
+    /**
+     * Streams the timelines of all issues and pull requests to the timeline export file.
+     *
+     * @return Result of the export
+     * @throws IOException if the export file could not be written
+     * @throws IllegalStateException if a timeline or the crawl of the items could not be fetched to its end
+     */
+    public ExportResult exportTimelines() throws IOException {
+        return timelineExporter.exportTimelines();
+    }
+
+    /**
+     * Treats an export that found no items as failed.
+     *
+     * @param result Result of the export, may be null
+     * @param name   Name of the items, used for logging
+     * @return The result, or null if it is missing or holds no items
+     */
+    private ExportResult requireItems(ExportResult result, String name) {
+        if (result != null && result.getItemCount() == 0) {
+            log.warn("No {} found to export", name);
+            return null;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.dataexporter.export;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a single export pipeline.
+ */
+@Value
+public class ExportResult {
+
+    /**
+     * Path to the exported file
+     */
+    Path filePath;
+
+    /**
+     * Number of items fetched from GitHub during this run
+     */
+    int itemCount;
+}
@@ -0,0 +1,105 @@
+package com.github.dataexporter.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persists export state between runs, such as the high-water mark of the last successful
+ * incremental export. State is kept per repository in a JSON file in the export directory.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExportStateStore {
+
+    public static final String ISSUES = "issues";
+    public static final String PULL_REQUESTS = "pullRequests";
+
+    private static final String WATERMARK = "watermark";
+
+    private final ExportProperties exportProperties;
+    private final GitHubProperties gitHubProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Gets the max updatedAt seen by the last successful export of the given type.
+     *
+     * @param type Export type, e.g. {@link #ISSUES}
+     * @return The watermark, or empty if no export has completed yet
+     */
+    public synchronized Optional<Instant> getWatermark(String type) {
+        JsonNode watermark = load().path(repositoryKey()).path(type).path(WATERMARK);
+        return watermark.isTextual() ? Optional.of(Instant.parse(watermark.asText())) : Optional.empty();
+    }
+
+    /**
+     * Persists the max updatedAt seen by a successful export of the given type.
+     *
+     * @param type      Export type, e.g. {@link #ISSUES}
+     * @param watermark The new watermark
+     * @throws IOException if the state file could not be written
+     */
+    public synchronized void updateWatermark(String type, Instant watermark) throws IOException {
+        ObjectNode state = load();
+        state.withObjectProperty(repositoryKey())
+                .withObjectProperty(type)
+                .put(WATERMARK, watermark.toString());
+        save(state);
+        log.info("Updated {} watermark for {} to {}", type, repositoryKey(), watermark);
+    }
+
+    /**
+     * Loads the state file, or an empty state if it does not exist.
+     *
+     * @return The state as a mutable tree
+     */
+    private ObjectNode load() {
+        Path filePath = exportProperties.getStateFilePath();
+        if (!Files.exists(filePath)) {
+            return objectMapper.createObjectNode();
+        }
+        try {
+            JsonNode state = objectMapper.readTree(filePath.toFile());
+            return state instanceof ObjectNode objectNode ? objectNode : objectMapper.createObjectNode();
+        } catch (IOException e) {
+            log.error("Failed to read export state from {}: {}", filePath, e.getMessage(), e);
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    /**
+     * Writes the state file atomically.
+     *
+     * @param state The state to write
+     * @throws IOException if the file could not be written
+     */
+    private void save(ObjectNode state) throws IOException {
+        Path filePath = exportProperties.getStateFilePath();
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        Files.createDirectories(filePath.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempPath.toFile(), state);
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gets the key under which state for the configured repository is kept.
+     *
+     * @return The repository key in owner/name form
+     */
+    private String repositoryKey() {
+        return gitHubProperties.getRepository().getOwner() + "/" + gitHubProperties.getRepository().getName();
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.dataexporter.export;
+
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.service.IssueService;
+import com.github.dataexporter.service.Page;
+import com.github.dataexporter.service.PullRequestService;
+import com.github.dataexporter.service.TimeWindow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Service responsible for incremental exports.
+ * Only items updated since the persisted watermark are fetched, and they are merged into the
+ * previous snapshot. The watermark is advanced after each successful run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IncrementalExporter {
+
+    private final IssueService issueService;
+    private final PullRequestService pullRequestService;
+    private final JsonExporter jsonExporter;
+    private final ExportStateStore stateStore;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Exports the issues changed since the last successful run and merges them into the snapshot.
+     * Falls back to a full export when there is no watermark or no previous snapshot.
+     *
+     * @return Result of the export, or null if the snapshot could not be written
+     * @throws IOException if the export file or state could not be written
+     */
+    public ExportResult exportIssues() throws IOException {
+        Path snapshotPath = exportProperties.getIssuesFilePath();
+        Optional<Instant> since = Files.exists(snapshotPath)
+                ? stateStore.getWatermark(ExportStateStore.ISSUES)
+                : Optional.empty();
+        AtomicReference<Instant> watermark = new AtomicReference<>(since.orElse(null));
+
+        ExportResult result;
+        if (since.isEmpty()) {
+            log.info("No issues watermark found, running a full export");
+            try (JsonArrayWriter<Issue> writer = jsonExporter.openIssuesWriter()) {
+                int count = issueService.fetchAllIssues(TimeWindow.ALL, page -> {
+                    writer.writeAll(page);
+                    page.forEach(issue -> advance(watermark, issue.getUpdatedAt()));
+                });
+                result = new ExportResult(writer.getFilePath(), count);
+            }
+        } else {
+            log.info("Exporting issues updated since {}", since.get());
+            List<Issue> changed = new ArrayList<>();
+            issueService.fetchIssuePages(TimeWindow.since(since.get()), null,
+                            changedSinceSnapshot(snapshotPath, Issue::getId, Issue::getUpdatedAt))
+                    .publishOn(Schedulers.boundedElastic(), 1)
+                    .doOnNext(page -> {
+                        changed.addAll(page.getItems());
+                        page.getItems().forEach(issue -> advance(watermark, issue.getUpdatedAt()));
+                    })
+                    .blockLast();
+            Path mergedPath = jsonExporter.mergeIntoJson(changed, Issue::getId, snapshotPath);
+            if (mergedPath == null) {
+                return null;
+            }
+            result = new ExportResult(mergedPath, changed.size());
+        }
+
+        if (watermark.get() != null) {
+            stateStore.updateWatermark(ExportStateStore.ISSUES, watermark.get());
+        }
+        return result;
+    }
+
+    /**
+     * Exports the pull requests changed since the last successful run and upserts them into the snapshot.
+     * Pull requests are crawled most recently updated first, and the crawl stops as soon as it reaches
+     * one that is older than the watermark. The watermark is only advanced when the crawl got that far
+     * or ran out of pull requests, so a run that was interrupted or cut off by the item limit is picked
+     * up again on the next one. A first run cut off by the item limit starts the watermark at the newest
+     * pull request written, as long as the crawl returns them newest first.
+     *
+     * @return Result of the export, or null if the snapshot could not be written
+     * @throws IOException if the export file or state could not be written
+     */
+    public ExportResult exportPullRequests() throws IOException {
+        Path snapshotPath = exportProperties.getPullRequestsFilePath();
+        Optional<Instant> since = Files.exists(snapshotPath)
+                ? stateStore.getWatermark(ExportStateStore.PULL_REQUESTS)
+                : Optional.empty();
+        AtomicReference<Instant> watermark = new AtomicReference<>(since.orElse(null));
+
+        ExportResult result;
+        Page<PullRequest> lastPage;
+        if (since.isEmpty()) {
+            log.info("No pull requests watermark found, running a full export");
+            try (JsonArrayWriter<PullRequest> writer = jsonExporter.openPullRequestsWriter()) {
+                lastPage = pullRequestService.fetchPullRequestPages(TimeWindow.ALL)
+                        .publishOn(Schedulers.boundedElastic(), 1)
+                        .doOnNext(page -> {
+                            writer.writeAll(page.getItems());
+                            page.getItems().forEach(pr -> advance(watermark, pr.getUpdatedAt()));
+                        })
+                        .blockLast();
+                result = new ExportResult(writer.getFilePath(), writer.getItemCount());
+            }
+        } else {
+            log.info("Exporting pull requests updated since {}", since.get());
+            List<PullRequest> changed = new ArrayList<>();
+            lastPage = pullRequestService.fetchPullRequestPages(TimeWindow.since(since.get()), null,
+                            changedSinceSnapshot(snapshotPath, PullRequest::getId, PullRequest::getUpdatedAt))
+                    .publishOn(Schedulers.boundedElastic(), 1)
+                    .doOnNext(page -> {
+                        changed.addAll(page.getItems());
+                        page.getItems().forEach(pr -> advance(watermark, pr.getUpdatedAt()));
+                    })
+                    .blockLast();
+            Path mergedPath = jsonExporter.mergeIntoJson(changed, PullRequest::getId, snapshotPath);
+            if (mergedPath == null) {
+                return null;
+            }
+            result = new ExportResult(mergedPath, changed.size());
+        }
+
+        // Pages are newest first, so a crawl cut off by the item limit has not reached the previous
+        // watermark; advancing past the pull requests it left out would skip them for good. A first
+        // run has no previous watermark to reach: its snapshot holds the newest pull requests, and
+        // later runs continue from the newest one written.
+        int maxItems = exportProperties.getPagination().getItemLimit();
+        if (since.isEmpty() && lastPage != null && lastPage.isFinal(maxItems) && lastPage.isHasNextPage()
+                && pullRequestService.crawlsNewestFirst() && watermark.get() != null) {
+            log.warn("Full pull requests export stopped at the limit of {} items; the snapshot holds the most "
+                    + "recently updated ones and later runs continue from {}", maxItems, watermark.get());
+            stateStore.updateWatermark(ExportStateStore.PULL_REQUESTS, watermark.get());
+        } else if (lastPage == null || lastPage.isHasNextPage()) {
+            log.warn("Pull requests crawl ended at page {} before reaching {}, keeping the previous watermark{}",
+                    lastPage != null ? lastPage.getNumber() : 0,
+                    since.map(Instant::toString).orElse("the last pull request"),
+                    lastPage != null ? "; raise pagination.max-items or enable pagination.unbounded" : "");
+        } else if (watermark.get() != null) {
+            stateStore.updateWatermark(ExportStateStore.PULL_REQUESTS, watermark.get());
+        }
+        return result;
+    }
+
+    /**
+     * Creates the filter deciding which skeletons of a two-phase crawl are hydrated.
+     * When unchanged items are skipped, an item is only hydrated if its update time differs from the
+     * one recorded in the snapshot, e.g. items updated exactly at the watermark are not fetched again.
+     *
+     * @param snapshotPath Path of the previous snapshot
+     * @param idOf         Function returning the id of an item
+     * @param updatedAtOf  Function returning the update time of an item
+     * @param <T>          Type of the items
+     * @return The filter
+     */
+    private <T> Predicate<T> changedSinceSnapshot(Path snapshotPath, Function<T, String> idOf,
+                                                  Function<T, ZonedDateTime> updatedAtOf) {
+        ExportProperties.TwoPhase twoPhase = exportProperties.getTwoPhase();
+        if (!twoPhase.isEnabled() || !twoPhase.isSkipUnchanged()) {
+            return item -> true;
+        }
+        Map<String, Instant> snapshot = jsonExporter.readUpdatedAt(snapshotPath);
+        return item -> {
+            ZonedDateTime updatedAt = updatedAtOf.apply(item);
+            return updatedAt == null || !updatedAt.toInstant().equals(snapshot.get(idOf.apply(item)));
+        };
+    }
+
+    /**
+     * Moves the watermark forward if the given update time is newer.
+     *
+     * @param watermark The watermark to advance
+     * @param updatedAt Update time of a fetched item, may be null
+     */
+    private void advance(AtomicReference<Instant> watermark, ZonedDateTime updatedAt) {
+        if (updatedAt != null) {
+            Instant instant = updatedAt.toInstant();
+            watermark.accumulateAndGet(instant, (current, candidate) ->
+                    current == null || candidate.isAfter(current) ? candidate : current);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.dataexporter.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Incrementally writes items to a JSON array file using a Jackson {@link JsonGenerator}.
+ * Each page of items is serialized and flushed as soon as it is written, so callers
+ * never need to hold more than one page in memory.
+ * <p>
+ * The array brackets and separators are written explicitly, which allows a writer to be
+ * reopened at the byte offset recorded after a page and continue appending items.
+ *
+ * @param <T> Type of the items written to the array
+ */
+@Slf4j
+public class JsonArrayWriter<T> implements Closeable {
+
+    private final Path filePath;
+    private final FileChannel channel;
+    private final JsonGenerator generator;
+    private int itemCount;
+
+    /**
+     * Creates a writer positioned at the end of the channel.
+     *
+     * @param filePath  Path of the file being written
+     * @param channel   Channel of the file, positioned where writing continues
+     * @param generator Generator writing to the channel, with an ObjectMapper as codec
+     * @param itemCount Number of items already in the array (0 to start a new array)
+     * @throws IOException if the array could not be started
+     */
+    JsonArrayWriter(Path filePath, FileChannel channel, JsonGenerator generator, int itemCount) throws IOException {
+        this.filePath = filePath;
+        this.channel = channel;
+        this.generator = generator;
+        this.itemCount = itemCount;
+        if (channel.position() == 0) {
+            this.generator.writeRaw('[');
+        }
+    }
+
+    /**
+     * Writes a single item to the array.
+     *
+     * @param item Item to serialize
+     * @throws IOException if the item could not be written
+     */
+    public void write(T item) throws IOException {
+        generator.writeRaw(itemCount == 0 ? "\n" : ",\n");
+        generator.writeObject(item);
+        itemCount++;
+    }
+
+    /**
+     * Writes a page of items to the array and flushes it to disk.
+     * Suitable as a page consumer for the fetching services.
+     *
+     * @param items Items to serialize
+     * @throws UncheckedIOException if any item could not be written
+     */
+    public void writeAll(List<? extends T> items) {
+        try {
+            for (T item : items) {
+                write(item);
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write items to " + filePath, e);
+        }
+    }
+
+    /**
+     * Gets the number of items written so far, including items present before a resume.
+     *
+     * @return Number of items written
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the byte offset just after the last flushed item.
+     * A writer reopened at this offset continues the array seamlessly.
+     *
+     * @return Byte offset within the file
+     * @throws UncheckedIOException if the position could not be determined
+     */
+    public long getByteOffset() {
+        try {
+            generator.flush();
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to determine position in " + filePath, e);
+        }
+    }
+
+    /**
+     * Gets the path of the file being written.
+     *
+     * @return Path to the output file
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Closes the JSON array and the underlying file.
+     *
+     * @throws IOException if the array could not be completed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            generator.writeRaw("\n]\n");
+        } finally {
+            generator.close();
+        }
+        log.debug("Closed {} after writing {} items", filePath, itemCount);
+    }
+}
@@ -1,18 +1,39 @@
 package com.github.dataexporter.export;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.dataexporter.config.ExportProperties;
 import com.github.dataexporter.model.Issue;
 import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.model.TimelineEntry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for exporting data to JSON files.
@@ -84,6 +105,209 @@ public class JsonExporter {
         }
     }
 
+    /**
+     * Opens a streaming writer for the issues export file.
+     * The file path is determined from the export properties.
+     *
+     * @return Writer that appends issues to the export file page by page
+     * @throws IOException if the file could not be opened
+     */
+    public JsonArrayWriter<Issue> openIssuesWriter() throws IOException {
+        Path filePath = exportProperties.getIssuesFilePath();
+        log.info("Streaming issues to {}", filePath);
+        return openJsonArrayWriter(filePath);
+    }
+
+    /**
+     * Opens a streaming writer for the pull requests export file.
+     * The file path is determined from the export properties.
+     *
+     * @return Writer that appends pull requests to the export file page by page
+     * @throws IOException if the file could not be opened
+     */
+    public JsonArrayWriter<PullRequest> openPullRequestsWriter() throws IOException {
+        Path filePath = exportProperties.getPullRequestsFilePath();
+        log.info("Streaming pull requests to {}", filePath);
+        return openJsonArrayWriter(filePath);
+    }
+
+    /**
+     * Generic method to open a streaming JSON array writer.
+     * Creates the directory if it doesn't exist.
+     *
+     * @param filePath Path where the JSON file should be written
+     * @param <T>      Type of the items to be written
+     * @return Writer for the JSON array
+     * @throws IOException if the file could not be opened
+     */
+    public <T> JsonArrayWriter<T> openJsonArrayWriter(Path filePath) throws IOException {
+        Path directory = filePath.getParent();
+        if (directory != null && !Files.exists(directory)) {
+            log.info("Creating export directory: {}", directory);
+            Files.createDirectories(directory);
+        }
+
+        FileChannel channel = FileChannel.open(filePath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new JsonArrayWriter<>(filePath, channel, createGenerator(channel), 0);
+    }
+
+    /**
+     * Opens a streaming writer for the timeline export file.
+     * The file path is determined from the export properties.
+     *
+     * @return Writer that appends timeline entries to the export file line by line
+     * @throws IOException if the file could not be opened
+     */
+    public NdjsonWriter<TimelineEntry> openTimelineWriter() throws IOException {
+        Path filePath = exportProperties.getTimelineFilePath();
+        log.info("Streaming timelines to {}", filePath);
+        return openNdjsonWriter(filePath);
+    }
+
+    /**
+     * Generic method to open a streaming newline-delimited JSON writer.
+     * Creates the directory if it doesn't exist.
+     *
+     * @param filePath Path where the file should be written
+     * @param <T>      Type of the items to be written
+     * @return Writer for the file
+     * @throws IOException if the file could not be opened
+     */
+    public <T> NdjsonWriter<T> openNdjsonWriter(Path filePath) throws IOException {
+        Path directory = filePath.getParent();
+        if (directory != null && !Files.exists(directory)) {
+            log.info("Creating export directory: {}", directory);
+            Files.createDirectories(directory);
+        }
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(filePath.toFile(), JsonEncoding.UTF8);
+        generator.setCodec(objectMapper);
+        // Each item is written compactly on its own line
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        return new NdjsonWriter<>(filePath, generator);
+    }
+
+    /**
+     * Reopens a partially written JSON array so that more items can be appended.
+     * Anything after the given offset, such as the closing bracket, is discarded.
+     *
+     * @param filePath   Path of the partially written JSON file
+     * @param byteOffset Offset just after the last item to keep, as reported by {@link JsonArrayWriter#getByteOffset()}
+     * @param itemCount  Number of items in the file up to that offset
+     * @param <T>        Type of the items to be written
+     * @return Writer continuing the JSON array
+     * @throws IOException if the file is missing, shorter than the offset, or could not be opened
+     */
+    public <T> JsonArrayWriter<T> resumeJsonArrayWriter(Path filePath, long byteOffset, int itemCount)
+            throws IOException {
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE);
+        if (channel.size() < byteOffset) {
+            channel.close();
+            throw new IOException("File " + filePath + " is shorter than checkpoint offset " + byteOffset);
+        }
+
+        channel.truncate(byteOffset);
+        channel.position(byteOffset);
+        log.info("Resuming {} after {} items", filePath, itemCount);
+        return new JsonArrayWriter<>(filePath, channel, createGenerator(channel), itemCount);
+    }
+
+    /**
+     * Creates a pretty-printing generator writing to the given channel.
+     * Items are written as consecutive root values, so no root separator is used.
+     *
+     * @param channel Channel to write to
+     * @return Generator with the ObjectMapper as codec
+     * @throws IOException if the generator could not be created
+     */
+    private JsonGenerator createGenerator(FileChannel channel) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(Channels.newOutputStream(channel), JsonEncoding.UTF8);
+        generator.setCodec(objectMapper);
+        generator.setPrettyPrinter(new DefaultPrettyPrinter()
+                .withSeparators(Separators.createDefaultInstance().withRootSeparator(null)));
+        return generator;
+    }
+
+    /**
+     * Merges changed items into an existing JSON array snapshot.
+     * Changed items are written first, followed by every item of the previous snapshot whose id
+     * was not changed. The previous snapshot is streamed item by item rather than loaded whole,
+     * and the result replaces it atomically.
+     *
+     * @param changed  Items that are new or have changed since the snapshot was written
+     * @param idOf     Function returning the unique id of an item
+     * @param filePath Path of the snapshot to merge into
+     * @param <T>      Type of the items
+     * @return Path to the merged file, or null if the merge failed
+     */
+    public <T> Path mergeIntoJson(List<T> changed, Function<T, String> idOf, Path filePath) {
+        Set<String> changedIds = changed.stream().map(idOf).collect(Collectors.toSet());
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        int kept = 0;
+
+        try (JsonArrayWriter<Object> writer = openJsonArrayWriter(tempPath)) {
+            writer.writeAll(changed);
+            if (Files.exists(filePath)) {
+                try (JsonParser parser = objectMapper.getFactory().createParser(filePath.toFile())) {
+                    if (parser.nextToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            JsonNode item = objectMapper.readTree(parser);
+                            if (!changedIds.contains(item.path("id").asText())) {
+                                writer.write(item);
+                                kept++;
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to merge data into {}: {}", filePath, e.getMessage(), e);
+            return null;
+        }
+
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to replace {} with merged data: {}", filePath, e.getMessage(), e);
+            return null;
+        }
+
+        log.info("Merged {} changed items into {} ({} unchanged items kept)", changed.size(), filePath, kept);
+        return filePath;
+    }
+
+    /**
+     * Reads the update time of every item of a JSON array snapshot, keyed by item id.
+     * The snapshot is streamed item by item rather than loaded whole.
+     *
+     * @param filePath Path of the snapshot
+     * @return Update times by id, empty if the snapshot does not exist or could not be read
+     */
+    public Map<String, Instant> readUpdatedAt(Path filePath) {
+        Map<String, Instant> updatedAt = new HashMap<>();
+        if (!Files.exists(filePath)) {
+            return updatedAt;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(filePath.toFile())) {
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode item = objectMapper.readTree(parser);
+                    JsonNode time = item.path("updatedAt");
+                    if (item.hasNonNull("id") && !time.isMissingNode() && !time.isNull()) {
+                        updatedAt.put(item.get("id").asText(),
+                                objectMapper.convertValue(time, ZonedDateTime.class).toInstant());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to read update times from {}: {}", filePath, e.getMessage(), e);
+            return new HashMap<>();
+        }
+        return updatedAt;
+    }
+
     /**
      * Gets the configured export directory path.
      *
@@ -0,0 +1,80 @@
+package com.github.dataexporter.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Incrementally writes items to a newline-delimited JSON file, one compact JSON object per line.
+ * Unlike {@link JsonArrayWriter}, the file is valid after every line, so readers can process it
+ * while it is still being written.
+ *
+ * @param <T> Type of the items written to the file
+ */
+@Slf4j
+public class NdjsonWriter<T> implements Closeable {
+
+    private final Path filePath;
+    private final JsonGenerator generator;
+    private int itemCount;
+
+    /**
+     * Creates a writer.
+     *
+     * @param filePath  Path of the file being written
+     * @param generator Generator writing to the file, with an ObjectMapper as codec
+     */
+    NdjsonWriter(Path filePath, JsonGenerator generator) {
+        this.filePath = filePath;
+        this.generator = generator;
+    }
+
+    /**
+     * Writes a single item as one line.
+     *
+     * @param item Item to serialize
+     * @throws UncheckedIOException if the item could not be written
+     */
+    public void write(T item) {
+        try {
+            generator.writeObject(item);
+            generator.writeRaw('\n');
+            itemCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write item to " + filePath, e);
+        }
+    }
+
+    /**
+     * Gets the number of items written so far.
+     *
+     * @return Number of items written
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the path of the file being written.
+     *
+     * @return Path to the output file
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Flushes and closes the underlying file.
+     *
+     * @throws IOException if the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        log.debug("Closed {} after writing {} items", filePath, itemCount);
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.dataexporter.export;
+
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.service.IssueService;
+import com.github.dataexporter.service.Page;
+import com.github.dataexporter.service.PullRequestService;
+import com.github.dataexporter.service.ResumePoint;
+import com.github.dataexporter.service.TimeWindow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Service responsible for streaming full exports to disk with durable progress.
+ * Each page is appended to the export file as soon as it is fetched, after which the cursor,
+ * page number and byte offset are checkpointed. A crawl that ends early or fails is retried from the
+ * last checkpoint, and a checkpoint left behind by a previous run is picked up on the next one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingExporter {
+
+    private final IssueService issueService;
+    private final PullRequestService pullRequestService;
+    private final JsonExporter jsonExporter;
+    private final CheckpointStore checkpointStore;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Streams all issues to the issues export file.
+     *
+     * @return Result of the export, or null if the crawl could not be completed
+     * @throws IOException if the export file could not be written
+     */
+    public ExportResult exportIssues() throws IOException {
+        return exportIssues(TimeWindow.ALL);
+    }
+
+    /**
+     * Streams the issues updated within the given window to the issues export file.
+     * A bounded window is written to its own file and checkpoint, leaving the full export untouched.
+     *
+     * @param window Window of update times to export
+     * @return Result of the export, or null if the crawl could not be completed
+     * @throws IOException if the export file could not be written
+     */
+    public ExportResult exportIssues(TimeWindow window) throws IOException {
+        return export("issues", window.fileFor(exportProperties.getIssuesFilePath()),
+                issueService.crawlFingerprint(window),
+                resumeFrom -> issueService.fetchIssuePages(window, resumeFrom));
+    }
+
+    /**
+     * Streams all pull requests to the pull requests export file.
+     *
+     * @return Result of the export, or null if the crawl could not be completed
+     * @throws IOException if the export file could not be written
+     */
+    public ExportResult exportPullRequests() throws IOException {
+        return exportPullRequests(TimeWindow.ALL);
+    }
+
+    /**
+     * Streams the pull requests updated within the given window to the pull requests export file.
+     * A bounded window is written to its own file and checkpoint, leaving the full export untouched.
+     *
+     * @param window Window of update times to export
+     * @return Result of the export, or null if the crawl could not be completed
+     * @throws IOException if the export file could not be written
+     */
+    public ExportResult exportPullRequests(TimeWindow window) throws IOException {
+        return export("pull requests", window.fileFor(exportProperties.getPullRequestsFilePath()),
+                pullRequestService.crawlFingerprint(window),
+                resumeFrom -> pullRequestService.fetchPullRequestPages(window, resumeFrom));
+    }
+
+    /**
+     * Streams pages to the export file, retrying from the last checkpoint until the crawl completes
+     * or the configured number of attempts is used up.
+     * A checkpoint written by a different crawl, e.g. for another repository or with other filters,
+     * is discarded, since its cursor cannot be continued by this one.
+     *
+     * @param name        Name of the items, used for logging
+     * @param filePath    Path of the export file
+     * @param fingerprint Fingerprint of the crawl, stored with each checkpoint
+     * @param pages       Function returning the pages to write, continuing from the given resume point
+     * @param <T>         Type of the items
+     * @return Result of the export, or null if the crawl could not be completed
+     * @throws IOException if the export file could not be written
+     */
+    private <T> ExportResult export(String name, Path filePath, String fingerprint,
+                                    Function<ResumePoint, Flux<Page<T>>> pages) throws IOException {
+        boolean resumeEnabled = exportProperties.getResume().isEnabled();
+        int maxAttempts = resumeEnabled ? exportProperties.getResume().getMaxAttempts() : 1;
+        int maxItems = exportProperties.getPagination().getItemLimit();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            CrawlCheckpoint checkpoint = resumeEnabled ? checkpointStore.load(filePath).orElse(null) : null;
+            JsonArrayWriter<T> writer = null;
+            if (checkpoint != null && !fingerprint.equals(checkpoint.getFingerprint())) {
+                log.warn("Discarding checkpoint of {}, which was written by a different crawl configuration", filePath);
+                checkpointStore.delete(filePath);
+                checkpoint = null;
+            }
+            if (checkpoint != null) {
+                log.info("Resuming {} export from page {} ({} items already written)",
+                        name, checkpoint.getPageNumber(), checkpoint.getItemsWritten());
+                try {
+                    writer = jsonExporter.resumeJsonArrayWriter(filePath,
+                            checkpoint.getByteOffset(), checkpoint.getItemsWritten());
+                } catch (IOException e) {
+                    log.warn("Cannot resume {}, starting over: {}", filePath, e.getMessage());
+                    checkpointStore.delete(filePath);
+                    checkpoint = null;
+                }
+            }
+            if (writer == null) {
+                writer = jsonExporter.openJsonArrayWriter(filePath);
+            }
+            ResumePoint resumeFrom = checkpoint != null ? checkpoint.toResumePoint() : null;
+
+            Page<T> lastPage;
+            int itemCount;
+            try (JsonArrayWriter<T> pageWriter = writer) {
+                lastPage = pages.apply(resumeFrom)
+                        .onErrorResume(e -> {
+                            log.error("{} crawl failed: {}", name, e.getMessage(), e);
+                            return Flux.empty();
+                        })
+                        .publishOn(Schedulers.boundedElastic(), 1)
+                        .doOnNext(page -> {
+                            pageWriter.writeAll(page.getItems());
+                            log.info("Exported {} {}", page.progress(), name);
+                            if (resumeEnabled && page.getEndCursor() != null) {
+                                checkpointStore.save(filePath, new CrawlCheckpoint(fingerprint, page.getEndCursor(),
+                                        page.getNumber(), pageWriter.getItemCount(), pageWriter.getByteOffset(),
+                                        Instant.now()));
+                            }
+                        })
+                        .blockLast();
+                itemCount = pageWriter.getItemCount();
+            }
+
+            if (lastPage != null && lastPage.isFinal(maxItems)) {
+                checkpointStore.delete(filePath);
+                return new ExportResult(filePath, itemCount);
+            }
+
+            log.warn("{} crawl ended early after {} items (attempt {}/{})", name, itemCount, attempt, maxAttempts);
+        }
+
+        log.error("Giving up on {} export; {}", name, resumeEnabled
+                ? "the next run will resume from the last checkpoint"
+                : "resume is disabled");
+        return null;
+    }
+}
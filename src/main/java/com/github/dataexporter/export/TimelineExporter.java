@@ -0,0 +1,79 @@
+package com.github.dataexporter.export;
+
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.TimelineEntry;
+import com.github.dataexporter.service.IssueService;
+import com.github.dataexporter.service.Page;
+import com.github.dataexporter.service.PullRequestService;
+import com.github.dataexporter.service.TimelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service responsible for exporting the timelines of all issues and pull requests.
+ * The issues and pull requests are crawled as skeletons, and their timeline items are written
+ * to a newline-delimited JSON file as they arrive, one entry per line keyed by item number.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineExporter {
+
+    private final IssueService issueService;
+    private final PullRequestService pullRequestService;
+    private final TimelineService timelineService;
+    private final JsonExporter jsonExporter;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Streams the timelines of all issues and pull requests to the timeline export file.
+     *
+     * @return Result of the export
+     * @throws IOException if the export file could not be written
+     * @throws IllegalStateException if a timeline or the crawl of the items could not be fetched to its end
+     */
+    public ExportResult exportTimelines() throws IOException {
+        try (NdjsonWriter<TimelineEntry> writer = jsonExporter.openTimelineWriter()) {
+            Flux.concat(
+                            timelineService.streamIssueTimelines(
+                                    requireFinal(issueService.fetchIssueSkeletonPages(), "issues")),
+                            timelineService.streamPullRequestTimelines(
+                                    requireFinal(pullRequestService.fetchPullRequestSkeletonPages(), "pull requests")))
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(writer::write)
+                    .blockLast();
+
+            log.info("Completed exporting timelines. Total timeline items written: {}", writer.getItemCount());
+            return new ExportResult(writer.getFilePath(), writer.getItemCount());
+        }
+    }
+
+    /**
+     * Fails the skeleton crawl unless its last page is final, as checked for streamed exports,
+     * so the timelines of items the crawl never reached are not silently left out.
+     *
+     * @param skeletons Pages of the skeleton crawl
+     * @param name      Name of the items, used in the error
+     * @param <T>       Type of the items
+     * @return Flux of the same pages, ending with an error if the crawl ended early
+     */
+    private <T> Flux<Page<T>> requireFinal(Flux<Page<T>> skeletons, String name) {
+        int maxItems = exportProperties.getPagination().getItemLimit();
+        return Flux.defer(() -> {
+            AtomicReference<Page<T>> lastPage = new AtomicReference<>();
+            return skeletons
+                    .doOnNext(lastPage::set)
+                    .concatWith(Mono.defer(() -> lastPage.get() != null && lastPage.get().isFinal(maxItems)
+                            ? Mono.empty()
+                            : Mono.error(new IllegalStateException("Crawl of " + name + " ended early after page "
+                                    + (lastPage.get() != null ? lastPage.get().getNumber() : 0)))));
+        });
+    }
+}
@@ -51,7 +51,7 @@ public class Issue {
     /**
      * Whether the issue is locked
      */
-    private boolean locked;
+    private Boolean locked;
     
     /**
      * The reason the issue was locked, if it is locked
@@ -103,6 +103,12 @@ public class Issue {
      */
     private Integer commentCount;
     
+    /**
+     * Cursor to continue the comments from when the query returned only some of them; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String commentsEndCursor;
+    
     /**
      * Reactions to this issue
      */
@@ -111,19 +117,19 @@ public class Issue {
     /**
      * When the issue was created
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime createdAt;
     
     /**
      * When the issue was last updated
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime updatedAt;
     
     /**
      * When the issue was closed, if it is closed
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime closedAt;
     
     /**
@@ -154,12 +160,12 @@ public class Issue {
     /**
      * Whether the viewer can subscribe to this issue
      */
-    private boolean viewerCanSubscribe;
+    private Boolean viewerCanSubscribe;
     
     /**
      * Whether the viewer can update this issue
      */
-    private boolean viewerCanUpdate;
+    private Boolean viewerCanUpdate;
     
     /**
      * Custom metadata fields associated with this issue
@@ -169,7 +175,7 @@ public class Issue {
     /**
      * The last time the issue was edited
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime lastEditedAt;
     
     /**
@@ -51,7 +51,7 @@ public class PullRequest {
     /**
      * Whether the pull request is locked
      */
-    private boolean locked;
+    private Boolean locked;
     
     /**
      * The reason the pull request was locked, if it is locked
@@ -66,12 +66,12 @@ public class PullRequest {
     /**
      * Whether the pull request has been merged
      */
-    private boolean merged;
+    private Boolean merged;
     
     /**
      * Whether the pull request can be merged (no conflicts)
      */
-    private boolean mergeable;
+    private Boolean mergeable;
     
     /**
      * The merge state (MERGEABLE, CONFLICTING, UNKNOWN)
@@ -148,6 +148,18 @@ public class PullRequest {
      */
     private Integer reviewCommentCount;
     
+    /**
+     * Cursor to continue the review threads from when the query returned only some of them; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String reviewThreadsEndCursor;
+    
+    /**
+     * Cursors to continue truncated review threads' comments from, by thread id; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Map<String, String> reviewThreadCommentsEndCursors;
+    
     /**
      * Reviews on this pull request
      */
@@ -158,6 +170,12 @@ public class PullRequest {
      */
     private Integer reviewCount;
     
+    /**
+     * Cursor to continue the reviews from when the query returned only some of them; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String reviewsEndCursor;
+    
     /**
      * Commits in this pull request
      */
@@ -168,6 +186,12 @@ public class PullRequest {
      */
     private Integer commitCount;
     
+    /**
+     * Cursor to continue the commits from when the query returned only some of them; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String commitsEndCursor;
+    
     /**
      * Files changed in this pull request
      */
@@ -178,6 +202,12 @@ public class PullRequest {
      */
     private Integer changedFileCount;
     
+    /**
+     * Cursor to continue the changed files from when the query returned only some of them; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String filesEndCursor;
+    
     /**
      * Total number of additions in this pull request
      */
@@ -203,6 +233,23 @@ public class PullRequest {
      */
     private List<StatusCheck> statusChecks;
     
+    /**
+     * Combined state of the checks on the latest commit (EXPECTED, ERROR, FAILURE, PENDING, SUCCESS)
+     */
+    private String checksState;
+    
+    /**
+     * Id of the head commit's status check rollup when the query returned only some of its checks; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String checkRollupId;
+    
+    /**
+     * Cursor to continue the checks of the status check rollup from; not exported
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String checkContextsEndCursor;
+    
     /**
      * Auto-merge settings, if enabled
      */
@@ -211,12 +258,12 @@ public class PullRequest {
     /**
      * Whether the pull request can be rebased
      */
-    private boolean canBeRebased;
+    private Boolean canBeRebased;
     
     /**
      * Whether the pull request can be automatically merged by GitHub
      */
-    private boolean canBeAutomaticallyMerged;
+    private Boolean canBeAutomaticallyMerged;
     
     /**
      * The method used to merge the pull request, if it was merged
@@ -236,25 +283,25 @@ public class PullRequest {
     /**
      * When the pull request was created
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime createdAt;
     
     /**
      * When the pull request was last updated
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime updatedAt;
     
     /**
      * When the pull request was closed, if it is closed
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime closedAt;
     
     /**
      * When the pull request was merged, if it is merged
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime mergedAt;
     
     /**
@@ -290,12 +337,12 @@ public class PullRequest {
     /**
      * Whether the viewer can subscribe to this pull request
      */
-    private boolean viewerCanSubscribe;
+    private Boolean viewerCanSubscribe;
     
     /**
      * Whether the viewer can update this pull request
      */
-    private boolean viewerCanUpdate;
+    private Boolean viewerCanUpdate;
     
     /**
      * Whether the pull request is a suggested change
@@ -305,12 +352,12 @@ public class PullRequest {
     /**
      * Whether maintainer modifications are allowed
      */
-    private boolean maintainerCanModify;
+    private Boolean maintainerCanModify;
     
     /**
      * The last time the pull request was edited
      */
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private ZonedDateTime lastEditedAt;
     
     /**
@@ -0,0 +1,59 @@
+package com.github.dataexporter.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+/**
+ * Model class representing a single timeline item of an issue or pull request.
+ * Timeline entries are exported one per line, keyed by the number of the item they belong to.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TimelineEntry {
+
+    /**
+     * Kind of item the timeline belongs to (issue, pullRequest)
+     */
+    private String kind;
+
+    /**
+     * Number of the issue or pull request the timeline belongs to
+     */
+    private Integer number;
+
+    /**
+     * The unique identifier for the timeline item (GitHub node ID)
+     */
+    private String id;
+
+    /**
+     * GraphQL type of the timeline item (e.g. LabeledEvent)
+     */
+    private String type;
+
+    /**
+     * When the event happened
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+    private ZonedDateTime createdAt;
+
+    /**
+     * Login of the user who triggered the event
+     */
+    private String actor;
+
+    /**
+     * Remaining fields of the event, which depend on its type
+     */
+    private Map<String, Object> data;
+}
@@ -2,11 +2,11 @@ package com.github.dataexporter.runner;
 
 import com.github.dataexporter.config.ExportProperties;
 import com.github.dataexporter.config.GitHubProperties;
+import com.github.dataexporter.export.ExportDispatcher;
+import com.github.dataexporter.export.ExportResult;
 import com.github.dataexporter.export.JsonExporter;
-import com.github.dataexporter.model.Issue;
-import com.github.dataexporter.model.PullRequest;
-import com.github.dataexporter.service.IssueService;
-import com.github.dataexporter.service.PullRequestService;
+import com.github.dataexporter.service.QueryPlanner;
+import com.github.dataexporter.service.TimeWindow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -18,7 +18,11 @@ import org.springframework.stereotype.Component;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Command line runner that orchestrates the GitHub data export process.
@@ -30,13 +34,15 @@ import java.util.List;
 @Slf4j
 public class ExportRunner implements CommandLineRunner {
 
-    private final IssueService issueService;
-    private final PullRequestService pullRequestService;
     private final JsonExporter jsonExporter;
+    private final ExportDispatcher exportDispatcher;
+    private final QueryPlanner queryPlanner;
     private final GitHubProperties gitHubProperties;
     private final ExportProperties exportProperties;
     private final ApplicationContext applicationContext;
 
+    private static final int PIPELINE_COUNT = 2;
+
     @Override
     public void run(String... args) {
         log.info("Starting GitHub data export process");
@@ -57,24 +63,80 @@ public class ExportRunner implements CommandLineRunner {
                 return;
             }
 
-            // Export issues
-            Path issuesPath = exportIssues();
+            TimeWindow window = resolveWindow(args);
+            if (window.isEmpty()) {
+                log.error("Export window {} starts after it ends. Aborting export process.", window);
+                exitWithError(1);
+                return;
+            }
+            if (window.isBounded()) {
+                log.info("Exporting items updated within {}", window);
+            }
+            if (exportProperties.getPagination().isUnbounded()) {
+                log.info("Exporting without an item limit{}", exportProperties.getPagination().getMaxItems() != null
+                        ? ", capped at " + exportProperties.getPagination().getMaxItems() + " items per crawl" : "");
+                if (!exportProperties.isStreaming()) {
+                    log.warn("Unbounded exports always stream to disk; ignoring streaming=false");
+                }
+            }
+
+            // Log the estimated cost of the crawls up front; the plan is advisory and does not change them
+            if (exportProperties.getPlanner().isEnabled()) {
+                queryPlanner.plan();
+            }
+
+            Path issuesPath;
+            Path pullRequestsPath;
+            if (exportDispatcher.isCombinedExport(window)) {
+                // Export issues and pull requests from a single crawl
+                List<Path> paths = exportCombined();
+                issuesPath = paths.get(0);
+                pullRequestsPath = paths.get(1);
+            } else {
+                // Export issues and pull requests concurrently, up to the configured cap
+                int concurrency = Math.min(exportProperties.getConcurrency(), PIPELINE_COUNT);
+                ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+                try {
+                    log.info("Running {} export pipelines with concurrency {}", PIPELINE_COUNT, concurrency);
+                    CompletableFuture<Path> issuesFuture =
+                            CompletableFuture.supplyAsync(() -> exportIssues(window), executor);
+                    CompletableFuture<Path> pullRequestsFuture =
+                            CompletableFuture.supplyAsync(() -> exportPullRequests(window), executor);
+                    issuesPath = issuesFuture.join();
+                    pullRequestsPath = pullRequestsFuture.join();
+                } finally {
+                    executor.shutdown();
+                }
+            }
+
             if (issuesPath == null) {
+                log.error("Issues export failed");
                 success = false;
             }
 
-            // Export pull requests
-            Path pullRequestsPath = exportPullRequests();
             if (pullRequestsPath == null) {
+                log.error("Pull requests export failed");
                 success = false;
             }
 
+            Path timelinePath = null;
+            if (exportProperties.getTimeline().isEnabled()) {
+                timelinePath = exportTimelines();
+                if (timelinePath == null) {
+                    log.error("Timeline export failed");
+                    success = false;
+                }
+            }
+
             // Report results
             if (success) {
                 Duration duration = Duration.between(startTime, Instant.now());
                 log.info("GitHub data export completed successfully in {}s", duration.getSeconds());
                 log.info("Issues exported to: {}", issuesPath);
                 log.info("Pull requests exported to: {}", pullRequestsPath);
+                if (timelinePath != null) {
+                    log.info("Timelines exported to: {}", timelinePath);
+                }
             } else {
                 log.error("GitHub data export completed with errors");
                 exitCode = 1;
@@ -91,30 +153,72 @@ public class ExportRunner implements CommandLineRunner {
     }
 
     /**
-     * Exports GitHub issues to a JSON file.
+     * Resolves the window of update times to export.
+     * The {@code --since=} and {@code --until=} arguments take precedence over the configured window.
      *
-     * @return Path to the exported file, or null if export failed
+     * @param args Command line arguments
+     * @return The window to export
+     * @throws java.time.format.DateTimeParseException if a bound is not an ISO-8601 instant
+     */
+    private TimeWindow resolveWindow(String[] args) {
+        Instant since = exportProperties.getWindow().getSince();
+        Instant until = exportProperties.getWindow().getUntil();
+        for (String arg : args) {
+            if (arg.startsWith("--since=")) {
+                since = Instant.parse(arg.substring("--since=".length()));
+            } else if (arg.startsWith("--until=")) {
+                until = Instant.parse(arg.substring("--until=".length()));
+            }
+        }
+        return new TimeWindow(since, until);
+    }
+
+    /**
+     * Streams GitHub issues and pull requests to their JSON files from a single combined crawl.
+     *
+     * @return Paths to the issues and pull requests files, in that order; null for a failed export
      */
-    private Path exportIssues() {
+    private List<Path> exportCombined() {
         try {
-            log.info("Fetching issues from GitHub...");
+            log.info("Streaming issues and pull requests from GitHub to JSON with combined requests...");
             Instant startTime = Instant.now();
-            List<Issue> issues = issueService.fetchAllIssues();
-            Duration fetchDuration = Duration.between(startTime, Instant.now());
-            log.info("Fetched {} issues in {}s", issues.size(), fetchDuration.getSeconds());
+            List<ExportResult> results = exportDispatcher.exportCombined();
 
-            if (issues.isEmpty()) {
-                log.warn("No issues found to export");
-                return null;
+            Duration duration = Duration.between(startTime, Instant.now());
+            ExportResult issues = results.get(0);
+            ExportResult pullRequests = results.get(1);
+            if (issues != null && pullRequests != null) {
+                log.info("Exported {} issues to {} and {} pull requests to {} in {}s",
+                        issues.getItemCount(), issues.getFilePath(),
+                        pullRequests.getItemCount(), pullRequests.getFilePath(), duration.getSeconds());
             }
+            return Arrays.asList(
+                    issues != null ? issues.getFilePath() : null,
+                    pullRequests != null ? pullRequests.getFilePath() : null);
+        } catch (Exception e) {
+            log.error("Failed to export issues and pull requests: {}", e.getMessage(), e);
+            return Arrays.asList(null, null);
+        }
+    }
 
-            log.info("Exporting issues to JSON...");
-            startTime = Instant.now();
-            Path exportPath = jsonExporter.exportIssues(issues);
-            Duration exportDuration = Duration.between(startTime, Instant.now());
-            log.info("Exported {} issues to {} in {}s", issues.size(), exportPath, exportDuration.getSeconds());
+    /**
+     * Exports GitHub issues to a JSON file with the configured export mode.
+     *
+     * @param window Window of update times to export
+     * @return Path to the exported file, or null if export failed
+     */
+    private Path exportIssues(TimeWindow window) {
+        try {
+            log.info("Exporting issues from GitHub to JSON...");
+            Instant startTime = Instant.now();
+            ExportResult result = exportDispatcher.exportIssues(window);
+            if (result == null) {
+                return null;
+            }
 
-            return exportPath;
+            Duration duration = Duration.between(startTime, Instant.now());
+            log.info("Exported {} issues to {} in {}s", result.getItemCount(), result.getFilePath(), duration.getSeconds());
+            return result.getFilePath();
         } catch (Exception e) {
             log.error("Failed to export issues: {}", e.getMessage(), e);
             return null;
@@ -122,36 +226,50 @@ public class ExportRunner implements CommandLineRunner {
     }
 
     /**
-     * Exports GitHub pull requests to a JSON file.
+     * Exports GitHub pull requests to a JSON file with the configured export mode.
      *
+     * @param window Window of update times to export
      * @return Path to the exported file, or null if export failed
      */
-    private Path exportPullRequests() {
+    private Path exportPullRequests(TimeWindow window) {
         try {
-            log.info("Fetching pull requests from GitHub...");
+            log.info("Exporting pull requests from GitHub to JSON...");
             Instant startTime = Instant.now();
-            List<PullRequest> pullRequests = pullRequestService.fetchAllPullRequests();
-            Duration fetchDuration = Duration.between(startTime, Instant.now());
-            log.info("Fetched {} pull requests in {}s", pullRequests.size(), fetchDuration.getSeconds());
-
-            if (pullRequests.isEmpty()) {
-                log.warn("No pull requests found to export");
+            ExportResult result = exportDispatcher.exportPullRequests(window);
+            if (result == null) {
                 return null;
             }
 
-            log.info("Exporting pull requests to JSON...");
-            startTime = Instant.now();
-            Path exportPath = jsonExporter.exportPullRequests(pullRequests);
-            Duration exportDuration = Duration.between(startTime, Instant.now());
-            log.info("Exported {} pull requests to {} in {}s", pullRequests.size(), exportPath, exportDuration.getSeconds());
-
-            return exportPath;
+            Duration duration = Duration.between(startTime, Instant.now());
+            log.info("Exported {} pull requests to {} in {}s", result.getItemCount(), result.getFilePath(), duration.getSeconds());
+            return result.getFilePath();
         } catch (Exception e) {
             log.error("Failed to export pull requests: {}", e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Streams the timelines of all GitHub issues and pull requests to a newline-delimited JSON file.
+     *
+     * @return Path to the exported file, or null if export failed
+     */
+    private Path exportTimelines() {
+        try {
+            log.info("Streaming timelines from GitHub to NDJSON...");
+            Instant startTime = Instant.now();
+            ExportResult result = exportDispatcher.exportTimelines();
+
+            Duration duration = Duration.between(startTime, Instant.now());
+            log.info("Exported {} timeline items to {} in {}s",
+                    result.getItemCount(), result.getFilePath(), duration.getSeconds());
+            return result.getFilePath();
+        } catch (Exception e) {
+            log.error("Failed to export timelines: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Determines if the application should exit after completing the export.
      * This allows the runner to be used both as a command-line application and as a component in a larger application.
@@ -0,0 +1,97 @@
+package com.github.dataexporter.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Adjusts the page size of a crawl to how well GitHub copes with it.
+ * The size is halved when a page times out or GitHub gives up on it, and grown again
+ * by half when pages come back quickly and cheaply, always staying within the bounds.
+ * One instance tracks a single crawl.
+ */
+@Slf4j
+public class AdaptivePageSize {
+
+    private final String name;
+    private final int minSize;
+    private final int maxSize;
+    private final Duration targetLatency;
+    private final int maxCost;
+    private int current;
+
+    /**
+     * Creates a page size controller.
+     *
+     * @param name          Name of the items being crawled, used for logging
+     * @param initialSize   Page size of the first request, clamped to the bounds
+     * @param minSize       Smallest page size to shrink to
+     * @param maxSize       Largest page size to grow to
+     * @param targetLatency Pages answered faster than this may grow
+     * @param maxCost       Pages costing at most this many rate limit points may grow
+     */
+    public AdaptivePageSize(String name, int initialSize, int minSize, int maxSize, Duration targetLatency, int maxCost) {
+        this.name = name;
+        this.minSize = Math.min(minSize, maxSize);
+        this.maxSize = maxSize;
+        this.targetLatency = targetLatency;
+        this.maxCost = maxCost;
+        this.current = clamp(initialSize);
+    }
+
+    /**
+     * Creates a controller that always uses the same page size.
+     *
+     * @param name     Name of the items being crawled, used for logging
+     * @param pageSize The page size
+     * @return The controller
+     */
+    public static AdaptivePageSize fixed(String name, int pageSize) {
+        return new AdaptivePageSize(name, pageSize, pageSize, pageSize, Duration.ZERO, 0);
+    }
+
+    /**
+     * Gets the page size for the next request.
+     *
+     * @return The page size
+     */
+    public synchronized int current() {
+        return current;
+    }
+
+    /**
+     * Records a successful page, growing the page size if it was fast and cheap.
+     *
+     * @param latency Time GitHub took to answer
+     * @param cost    Rate limit cost of the request, 0 if unknown
+     */
+    public synchronized void onSuccess(Duration latency, int cost) {
+        if (current < maxSize && latency.compareTo(targetLatency) < 0 && cost <= maxCost) {
+            int previous = current;
+            current = clamp(current + Math.max(1, current / 2));
+            log.debug("Growing {} page size from {} to {} (latency {} ms, cost {})",
+                    name, previous, current, latency.toMillis(), cost);
+        }
+    }
+
+    /**
+     * Records a page that GitHub could not serve in time, halving the page size.
+     */
+    public synchronized void onOverload() {
+        if (current > minSize) {
+            int previous = current;
+            current = clamp(current / 2);
+            log.warn("Shrinking {} page size from {} to {}", name, previous, current);
+        }
+    }
+
+    /**
+     * Restricts a page size to the bounds.
+     *
+     * @param size The page size
+     * @return The page size within the bounds
+     */
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.dataexporter.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Crawls a connection from both ends at once: one crawl pages forward with first/after while a
+ * second pages backward with last/before. Both stop once they meet, i.e. once one of them fetches an
+ * item the other already has, or together they have fetched the connection's total count.
+ * Pages of both crawls are merged by a {@link PageMerger}, which drops the items fetched twice and
+ * applies the item limit to the merged count.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BidirectionalCrawler {
+
+    private final GraphQlPaginator paginator;
+
+    /**
+     * Crawls all items of the connection described by the forward query.
+     *
+     * @param query The forward query; its backward counterpart is derived from it
+     * @param idOf  Function returning the id of an item, used to detect the meeting point and drop duplicates
+     * @param <T>   Type of the items
+     * @return Flux of merged pages
+     */
+    public <T> Flux<Page<T>> crawl(PageQuery<T> query, Function<T, String> idOf) {
+        return Flux.defer(() -> {
+            Meeting<T> meeting = new Meeting<>(idOf);
+            PageMerger<T> merger = new PageMerger<>(idOf, query.getMaxItems());
+            AtomicInteger totalCount = new AtomicInteger();
+            AtomicBoolean reachedEnd = new AtomicBoolean();
+
+            Flux<Page<T>> pages = Flux.merge(
+                    crawlSide(query, meeting, totalCount, reachedEnd),
+                    crawlSide(query.reversed(), meeting, totalCount, reachedEnd));
+            return merger.merge(pages, totalCount::get, () -> meeting.isMet() || reachedEnd.get());
+        });
+    }
+
+    /**
+     * Paginates one direction until it meets the other one or reaches the end of the connection.
+     *
+     * @param query      The query for this direction
+     * @param meeting    Shared progress of both directions
+     * @param totalCount Set to the connection's total count
+     * @param reachedEnd Set if this direction paginated the whole connection on its own
+     * @param <T>        Type of the items
+     * @return Flux of this direction's pages
+     */
+    private <T> Flux<Page<T>> crawlSide(PageQuery<T> query, Meeting<T> meeting, AtomicInteger totalCount,
+                                        AtomicBoolean reachedEnd) {
+        boolean backward = query.isBackward();
+        // The merger caps the items of both directions together, so neither is capped on its own
+        PageQuery<T> side = query.toBuilder()
+                .name(query.getName() + (backward ? " (backward)" : " (forward)"))
+                .maxItems(Integer.MAX_VALUE)
+                .stopWhen(page -> meeting.record(page, backward))
+                .build();
+
+        AtomicReference<Page<T>> lastPage = new AtomicReference<>();
+        return paginator.paginate(side)
+                .doOnNext(page -> {
+                    totalCount.set(page.getTotalCount());
+                    meeting.record(page, backward);
+                    lastPage.set(page);
+                })
+                .doOnComplete(() -> {
+                    if (lastPage.get() != null && !lastPage.get().isHasNextPage()) {
+                        reachedEnd.set(true);
+                    }
+                });
+    }
+
+    /**
+     * Tracks which direction fetched which item, to detect when the two crawls meet.
+     *
+     * @param <T> Type of the items
+     */
+    private static class Meeting<T> {
+
+        private final Function<T, String> idOf;
+        private final Map<String, Boolean> fetchedBackward = new HashMap<>();
+        private final int[] fetched = new int[2];
+        private boolean met;
+
+        Meeting(Function<T, String> idOf) {
+            this.idOf = idOf;
+        }
+
+        /**
+         * Records a page; recording the same page again has no effect.
+         *
+         * @param page     The page
+         * @param backward Whether the page was fetched by the backward crawl
+         * @return true if the crawls have met
+         */
+        synchronized boolean record(Page<T> page, boolean backward) {
+            for (T item : page.getItems()) {
+                Boolean previous = fetchedBackward.putIfAbsent(idOf.apply(item), backward);
+                if (previous != null && previous != backward) {
+                    met = true;
+                }
+            }
+            fetched[backward ? 1 : 0] = page.getTotalFetched();
+            if (page.getTotalCount() > 0 && fetched[0] + fetched[1] >= page.getTotalCount()) {
+                met = true;
+            }
+            if (met) {
+                log.debug("Forward and backward crawls met after {} and {} items", fetched[0], fetched[1]);
+            }
+            return met;
+        }
+
+        /**
+         * Checks whether the crawls have met.
+         *
+         * @return true if the crawls have met
+         */
+        synchronized boolean isMet() {
+            return met;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Crawls the issues and the pull requests of the repository together, fetching a page of each
+ * connection with a single request. Both connections keep their own cursor, and a connection is
+ * dropped from the request once it is exhausted while the other one is paginated to its end.
+ * This halves the number of round trips of a full export for repositories whose issues and pull
+ * requests fit in a similar number of pages.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CombinedCrawler {
+
+    private final GraphQlPaginator paginator;
+    private final IssueService issueService;
+    private final PullRequestService pullRequestService;
+    private final GitHubProperties gitHubProperties;
+    private final ExportProperties exportProperties;
+    private final QueryLoader queryLoader;
+
+    private static final String COMBINED_QUERY_FILE = "graphql/combined-query.graphql";
+    private static final String ISSUES_PREFIX = "issues";
+    private static final String PULL_REQUESTS_PREFIX = "pullRequests";
+    private static final Set<String> SHARED_VARIABLES = Set.of("owner", "name");
+
+    /**
+     * Crawls all issues and pull requests of the configured GitHub repository.
+     * The nested connections of each page are completed before the page is emitted.
+     *
+     * @return Flux of combined pages in cursor order
+     */
+    public Flux<CombinedPage> crawl() {
+        return Flux.defer(() -> {
+            log.info("Fetching issues and pull requests for repository {}/{} with combined requests",
+                    gitHubProperties.getRepository().getOwner(),
+                    gitHubProperties.getRepository().getName());
+
+            PageQuery<Issue> issues = issueService.createPageQuery(TimeWindow.ALL, null);
+            PageQuery<PullRequest> pullRequests = pullRequestService.createPageQuery(TimeWindow.ALL, null);
+            String document = queryLoader.load(COMBINED_QUERY_FILE) + "\n"
+                    + issueService.loadFragments(false) + "\n"
+                    + pullRequestService.loadFragments(false);
+
+            return fetchPage(document, issues, pullRequests, null, null, 1)
+                    .expand(page -> {
+                        Page<Issue> issuesPage = hasMore(page.getIssues(), issues) ? page.getIssues() : null;
+                        Page<PullRequest> pullRequestsPage =
+                                hasMore(page.getPullRequests(), pullRequests) ? page.getPullRequests() : null;
+                        if (issuesPage == null && pullRequestsPage == null) {
+                            return Mono.empty();
+                        }
+                        return fetchPage(document, issues, pullRequests, issuesPage, pullRequestsPage,
+                                page.getNumber() + 1);
+                    })
+                    .flatMapSequential(this::complete, exportProperties.getNestedConnections().getConcurrency(), 1);
+        });
+    }
+
+    /**
+     * Checks whether a connection has more pages to fetch after the given one.
+     *
+     * @param page  The last page of the connection, or null if it was already exhausted
+     * @param query The query of the connection
+     * @return true if the connection has to be included in the next request
+     */
+    private boolean hasMore(Page<?> page, PageQuery<?> query) {
+        return page != null && !page.isFinal(query.getMaxItems());
+    }
+
+    /**
+     * Fetches the next page of both connections with a single request.
+     * On the first request both connections are included; after that, only the ones with a previous page.
+     *
+     * @param document          The combined query
+     * @param issues            The issues query, supplying the variables and mapper of the issues connection
+     * @param pullRequests      The pull requests query, supplying those of the pull requests connection
+     * @param lastIssues        The previous page of issues, or null
+     * @param lastPullRequests  The previous page of pull requests, or null
+     * @param number            Number of the request within the crawl
+     * @return Mono of the combined page, or empty if the request failed
+     */
+    private Mono<CombinedPage> fetchPage(String document, PageQuery<Issue> issues, PageQuery<PullRequest> pullRequests,
+                                         Page<Issue> lastIssues, Page<PullRequest> lastPullRequests, int number) {
+        boolean includeIssues = number == 1 || lastIssues != null;
+        boolean includePullRequests = number == 1 || lastPullRequests != null;
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("includeIssues", includeIssues);
+        variables.put("includePullRequests", includePullRequests);
+        if (includeIssues) {
+            variables.putAll(prefixed(ISSUES_PREFIX, issues, lastIssues));
+        }
+        if (includePullRequests) {
+            variables.putAll(prefixed(PULL_REQUESTS_PREFIX, pullRequests, lastPullRequests));
+        }
+
+        Map<String, Function<JsonNode, ?>> mappers = Map.of(
+                issues.getField(), issues.getMapper(),
+                pullRequests.getField(), pullRequests.getMapper());
+        return paginator.query("issues and pull requests page " + number, document, variables, mappers)
+                .map(response -> new CombinedPage(number,
+                        includeIssues ? toPage(issues, response, lastIssues) : null,
+                        includePullRequests ? toPage(pullRequests, response, lastPullRequests) : null))
+                .onErrorResume(e -> {
+                    log.error("Error fetching issues and pull requests page {}: {}", number, e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Builds the variables of one connection, prefixing all but the repository's owner and name
+     * with the connection's name (e.g. {@code first} becomes {@code issuesFirst}).
+     *
+     * @param prefix   Name of the connection
+     * @param query    The query of the connection
+     * @param lastPage The previous page of the connection, or null for its first page
+     * @return Map of prefixed query variables
+     */
+    private Map<String, Object> prefixed(String prefix, PageQuery<?> query, Page<?> lastPage) {
+        int totalFetched = lastPage != null ? lastPage.getTotalFetched() : 0;
+        int limit = Math.min(query.getPageSize(), query.getMaxItems() - totalFetched);
+        Map<String, Object> variables = new HashMap<>();
+        query.getVariables().apply(limit, lastPage != null ? lastPage.getEndCursor() : null).forEach((key, value) ->
+                variables.put(SHARED_VARIABLES.contains(key)
+                        ? key
+                        : prefix + Character.toUpperCase(key.charAt(0)) + key.substring(1), value));
+        return variables;
+    }
+
+    /**
+     * Converts the response into the next page of one connection.
+     *
+     * @param query    The query of the connection
+     * @param response The response, with the nodes of both connections converted to items
+     * @param lastPage The previous page of the connection, or null for its first page
+     * @param <T>      Type of the items
+     * @return The page
+     */
+    private <T> Page<T> toPage(PageQuery<T> query, GraphQlResponse response, Page<T> lastPage) {
+        List<T> items = response.items(query.getField());
+        JsonNode connection = query.getConnection().apply(response.getData());
+        JsonNode pageInfo = connection.path("pageInfo");
+        Page<T> page = new Page<>(
+                lastPage != null ? lastPage.getNumber() + 1 : 1,
+                items,
+                pageInfo.path("endCursor").asText(null),
+                // An empty page ends the crawl of the connection
+                !items.isEmpty() && pageInfo.path("hasNextPage").asBoolean(false),
+                connection.path("totalCount").asInt(0),
+                (lastPage != null ? lastPage.getTotalFetched() : 0) + items.size());
+
+        log.info("Fetched {} {}, total: {}, hasNextPage: {}",
+                items.size(), query.getName(), page.getTotalFetched(), page.isHasNextPage());
+        return page;
+    }
+
+    /**
+     * Completes the nested connections of the items of a combined page.
+     *
+     * @param page The combined page
+     * @return Mono of the combined page, emitted once its items are complete
+     */
+    private Mono<CombinedPage> complete(CombinedPage page) {
+        return Mono.just(page)
+                .flatMap(combined -> combined.getIssues() == null
+                        ? Mono.just(combined)
+                        : issueService.completeIssuePages(Flux.just(combined.getIssues())).next()
+                                .map(combined::withIssues))
+                .flatMap(combined -> combined.getPullRequests() == null
+                        ? Mono.just(combined)
+                        : pullRequestService.completePullRequestPages(Flux.just(combined.getPullRequests())).next()
+                                .map(combined::withPullRequests));
+    }
+}
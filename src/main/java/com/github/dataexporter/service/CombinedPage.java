@@ -0,0 +1,30 @@
+package com.github.dataexporter.service;
+
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * A page of issues and a page of pull requests fetched together by a single combined request.
+ * A connection that was exhausted by an earlier request is left out of the request, and its page is null.
+ */
+@Value
+@With
+public class CombinedPage {
+
+    /**
+     * The 1-based number of the request within the crawl
+     */
+    int number;
+
+    /**
+     * The page of issues, or null if all issues had already been fetched
+     */
+    Page<Issue> issues;
+
+    /**
+     * The page of pull requests, or null if all pull requests had already been fetched
+     */
+    Page<PullRequest> pullRequests;
+}
@@ -0,0 +1,348 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reshapes GitHub GraphQL nodes into the structure expected by the Issue and PullRequest models.
+ * Connections ({@code { totalCount nodes }}) become plain lists, their totals are copied into the
+ * matching count fields, and reaction groups become per-type counters. When a connection
+ * was truncated, its end cursor is kept in a {@code <field>EndCursor} field so it can be continued.
+ */
+@Component
+public class GitHubNodeNormalizer {
+
+    private static final Map<String, String> COUNT_FIELDS = Map.of(
+            "comments", "commentCount",
+            "reviews", "reviewCount",
+            "commits", "commitCount",
+            "files", "changedFileCount");
+
+    /**
+     * Normalizes an issue node in place.
+     *
+     * @param issueNode JsonNode containing issue data
+     * @return The normalized node
+     */
+    public JsonNode normalizeIssue(JsonNode issueNode) {
+        if (issueNode instanceof ObjectNode issue) {
+            unwrapNodes(issue, "projects", "project");
+            unwrapNodes(issue, "linkedPullRequests", "source");
+            normalizeObject(issue);
+        }
+        return issueNode;
+    }
+
+    /**
+     * Normalizes a pull request node in place.
+     *
+     * @param prNode JsonNode containing pull request data
+     * @return The normalized node
+     */
+    public JsonNode normalizePullRequest(JsonNode prNode) {
+        if (prNode instanceof ObjectNode pullRequest) {
+            unwrapNodes(pullRequest, "projects", "project");
+            unwrapNodes(pullRequest, "commits", "commit");
+            pullRequest.path("commits").path("nodes").forEach(this::moveCommitChecks);
+            moveCheckRollup(pullRequest);
+            splitReviewRequests(pullRequest);
+            JsonNode reviewThreads = pullRequest.remove("reviewThreads");
+
+            // GitHub reports mergeability as an enum rather than a flag
+            JsonNode mergeable = pullRequest.get("mergeable");
+            if (mergeable != null && mergeable.isTextual()) {
+                pullRequest.put("mergeableState", mergeable.asText());
+                pullRequest.put("mergeable", "MERGEABLE".equals(mergeable.asText()));
+            }
+            normalizeObject(pullRequest);
+
+            // The model has no review threads, only the comments they hold
+            if (reviewThreads != null) {
+                ArrayNode comments = pullRequest.arrayNode();
+                ObjectNode cursors = pullRequest.objectNode();
+                pullRequest.put("reviewCommentCount", flattenReviewThreads(reviewThreads.path("nodes"), comments, cursors));
+                pullRequest.set("reviewComments", comments);
+                pullRequest.set("reviewThreadCommentsEndCursors", cursors);
+                JsonNode pageInfo = reviewThreads.path("pageInfo");
+                if (pageInfo.path("hasNextPage").asBoolean(false)) {
+                    pullRequest.put("reviewThreadsEndCursor", pageInfo.path("endCursor").asText());
+                }
+            }
+        }
+        return prNode;
+    }
+
+    /**
+     * Moves the status contexts and check runs fetched for a commit in exhaustive check mode into its
+     * status checks and check runs, in place.
+     *
+     * @param commitNode The commit node
+     * @return The commit node
+     */
+    public JsonNode moveCommitChecks(JsonNode commitNode) {
+        if (!(commitNode instanceof ObjectNode commit)) {
+            return commitNode;
+        }
+        JsonNode status = commit.remove("status");
+        if (status != null && status.path("contexts").isArray()) {
+            commit.set("statusChecks", status.get("contexts"));
+        }
+        JsonNode checkSuites = commit.remove("checkSuites");
+        if (checkSuites != null) {
+            ArrayNode checkRuns = commit.arrayNode();
+            for (JsonNode checkSuite : checkSuites.path("nodes")) {
+                checkSuite.path("checkRuns").path("nodes").forEach(checkRuns::add);
+            }
+            commit.set("checkRuns", checkRuns);
+        }
+        return commit;
+    }
+
+    /**
+     * Moves the status check rollup of a pull request's head commit into the pull request's check runs
+     * and status checks. If the rollup holds more checks than were fetched, its id and end cursor are
+     * kept so the rest can be fetched.
+     *
+     * @param pullRequest The pull request node
+     */
+    private void moveCheckRollup(ObjectNode pullRequest) {
+        JsonNode headCommit = pullRequest.remove("headCommit");
+        JsonNode rollup = headCommit != null
+                ? headCommit.path("nodes").path(0).path("commit").path("statusCheckRollup")
+                : null;
+        if (rollup == null || !rollup.isObject()) {
+            return;
+        }
+        pullRequest.put("checksState", rollup.path("state").asText(null));
+        // Slimmer profiles only select the overall state
+        if (rollup.has("contexts")) {
+            ArrayNode checkRuns = pullRequest.arrayNode();
+            ArrayNode statusChecks = pullRequest.arrayNode();
+            splitCheckContexts(rollup.path("contexts").path("nodes"), checkRuns, statusChecks);
+            pullRequest.set("checkRuns", checkRuns);
+            pullRequest.set("statusChecks", statusChecks);
+            JsonNode pageInfo = rollup.path("contexts").path("pageInfo");
+            if (pageInfo.path("hasNextPage").asBoolean(false)) {
+                pullRequest.put("checkRollupId", rollup.path("id").asText());
+                pullRequest.put("checkContextsEndCursor", pageInfo.path("endCursor").asText());
+            }
+        }
+    }
+
+    /**
+     * Splits the contexts of a status check rollup into check runs and status checks.
+     * The rollup mixes both kinds of checks, told apart by their type name.
+     *
+     * @param contexts     JsonNode array of rollup contexts
+     * @param checkRuns    Array the check runs are added to
+     * @param statusChecks Array the status checks are added to
+     */
+    public void splitCheckContexts(JsonNode contexts, ArrayNode checkRuns, ArrayNode statusChecks) {
+        for (JsonNode context : contexts) {
+            JsonNode typeName = ((ObjectNode) context).remove("__typename");
+            if (typeName != null && "CheckRun".equals(typeName.asText())) {
+                checkRuns.add(context);
+            } else if (typeName != null && "StatusContext".equals(typeName.asText())) {
+                statusChecks.add(context);
+            }
+        }
+    }
+
+    /**
+     * Flattens review threads into the review comments they hold.
+     * The end cursor of every thread whose comments were truncated is kept, by thread id.
+     *
+     * @param threads  JsonNode array of review thread nodes
+     * @param comments Receives the normalized review comments of the threads
+     * @param cursors  Receives the end cursors of the truncated threads
+     * @return Total number of comments in the threads
+     */
+    public int flattenReviewThreads(JsonNode threads, ArrayNode comments, ObjectNode cursors) {
+        int total = 0;
+        for (JsonNode thread : threads) {
+            JsonNode threadComments = thread.path("comments");
+            threadComments.path("nodes").forEach(comment -> comments.add(normalizeNode(comment)));
+            total += threadComments.path("totalCount").asInt(threadComments.path("nodes").size());
+            JsonNode pageInfo = threadComments.path("pageInfo");
+            if (pageInfo.path("hasNextPage").asBoolean(false)) {
+                cursors.put(thread.path("id").asText(), pageInfo.path("endCursor").asText());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Normalizes a node fetched on its own, such as a comment from a nested connection, in place.
+     *
+     * @param node JsonNode containing the node data
+     * @return The normalized node
+     */
+    public JsonNode normalizeNode(JsonNode node) {
+        normalizeElement(node);
+        return node;
+    }
+
+    /**
+     * Recursively flattens connections and reactions within an object.
+     *
+     * @param object The object to normalize
+     */
+    private void normalizeObject(ObjectNode object) {
+        List<String> fieldNames = new ArrayList<>();
+        object.fieldNames().forEachRemaining(fieldNames::add);
+
+        for (String fieldName : fieldNames) {
+            JsonNode value = object.get(fieldName);
+            if ("reactionGroups".equals(fieldName) && value.isArray()) {
+                object.remove(fieldName);
+                object.set("reactions", toReactions(value));
+            } else if (isConnection(value)) {
+                if (COUNT_FIELDS.containsKey(fieldName) && value.has("totalCount")) {
+                    object.put(COUNT_FIELDS.get(fieldName), value.get("totalCount").asInt());
+                }
+                if (value.path("pageInfo").path("hasNextPage").asBoolean(false)) {
+                    object.put(fieldName + "EndCursor", value.path("pageInfo").path("endCursor").asText());
+                }
+                ArrayNode nodes = value.has("nodes") ? (ArrayNode) value.get("nodes") : object.arrayNode();
+                nodes.forEach(this::normalizeElement);
+                object.set(fieldName, nodes);
+            } else {
+                normalizeElement(value);
+            }
+        }
+
+        // Timeline items carry their GraphQL type name, which the model calls "type"
+        if (object.has("__typename")) {
+            object.set("type", object.remove("__typename"));
+        }
+    }
+
+    /**
+     * Normalizes a nested value if it is an object or an array of objects.
+     *
+     * @param value The value to normalize
+     */
+    private void normalizeElement(JsonNode value) {
+        if (value instanceof ObjectNode object) {
+            normalizeObject(object);
+        } else if (value.isArray()) {
+            value.forEach(this::normalizeElement);
+        }
+    }
+
+    /**
+     * Checks whether a value has the shape of a GraphQL connection.
+     *
+     * @param value The value to check
+     * @return true if the value is an object holding only totalCount, pageInfo and/or nodes
+     */
+    private boolean isConnection(JsonNode value) {
+        if (!value.isObject() || value.isEmpty()) {
+            return false;
+        }
+        Iterator<String> names = value.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!"nodes".equals(name) && !"totalCount".equals(name) && !"pageInfo".equals(name)) {
+                return false;
+            }
+        }
+        return !value.has("nodes") || value.get("nodes").isArray();
+    }
+
+    /**
+     * Replaces each node of a connection with one of its fields, e.g. a project card with its project.
+     *
+     * @param object    The object holding the connection
+     * @param fieldName The connection field
+     * @param innerName The field of each node to keep
+     */
+    private void unwrapNodes(ObjectNode object, String fieldName, String innerName) {
+        JsonNode connection = object.get(fieldName);
+        if (connection == null || !connection.path("nodes").isArray()) {
+            return;
+        }
+        ArrayNode unwrapped = object.arrayNode();
+        for (JsonNode node : connection.get("nodes")) {
+            JsonNode inner = node.path(innerName);
+            if (inner.isObject() && !inner.isEmpty()) {
+                unwrapped.add(inner);
+            }
+        }
+        ((ObjectNode) connection).set("nodes", unwrapped);
+    }
+
+    /**
+     * Splits requested reviewers into users and teams.
+     *
+     * @param pullRequest The pull request node
+     */
+    private void splitReviewRequests(ObjectNode pullRequest) {
+        JsonNode requests = pullRequest.remove("reviewRequests");
+        if (requests == null) {
+            return;
+        }
+        ArrayNode users = pullRequest.arrayNode();
+        ArrayNode teams = pullRequest.arrayNode();
+        for (JsonNode request : requests.path("nodes")) {
+            JsonNode reviewer = request.path("requestedReviewer");
+            if (reviewer.has("slug")) {
+                teams.add(reviewer);
+            } else if (reviewer.has("login")) {
+                users.add(reviewer);
+            }
+        }
+        pullRequest.set("requestedReviewers", users);
+        pullRequest.set("requestedTeams", teams);
+    }
+
+    /**
+     * Converts reaction groups into per-type counters.
+     *
+     * @param reactionGroups JsonNode array of reaction groups, each with its content and number of reactors
+     * @return Object matching the Reactions model
+     */
+    private ObjectNode toReactions(JsonNode reactionGroups) {
+        ObjectNode counters = JsonNodeFactory.instance.objectNode();
+        int totalCount = 0;
+        for (JsonNode group : reactionGroups) {
+            int count = group.path("reactors").path("totalCount").asInt(0);
+            String field = reactionField(group.path("content").asText(""));
+            if (field != null) {
+                counters.put(field, count);
+            }
+            totalCount += count;
+        }
+        counters.put("totalCount", totalCount);
+        return counters;
+    }
+
+    /**
+     * Maps a GraphQL ReactionContent value to the name of its Reactions counter.
+     *
+     * @param content The reaction content, e.g. THUMBS_UP
+     * @return The counter field name, or null if unknown
+     */
+    static String reactionField(String content) {
+        return switch (content.toUpperCase(Locale.ROOT)) {
+            case "THUMBS_UP" -> "thumbsUp";
+            case "THUMBS_DOWN" -> "thumbsDown";
+            case "LAUGH" -> "laugh";
+            case "HOORAY" -> "hooray";
+            case "CONFUSED" -> "confused";
+            case "HEART" -> "heart";
+            case "ROCKET" -> "rocket";
+            case "EYES" -> "eyes";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Non-blocking cursor pagination engine for GitHub GraphQL connections.
+ * Pages are expanded lazily from each page's end cursor, so the next request
+ * is only issued once downstream has demand for it. The page size of each crawl
+ * adapts to GitHub's latency and query cost within the query's bounds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GraphQlPaginator {
+
+    private final WebClient githubWebClient;
+    private final RateLimitScheduler rateLimitScheduler;
+    private final RetryPolicy retryPolicy;
+    private final ExportProperties exportProperties;
+    private final GraphQlResponseDecoder responseDecoder;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Paginates through the connection described by the query.
+     * The crawl stops at the last page, at the configured maximum, on an empty page,
+     * when the query's stop condition matches, or on the first failed request.
+     * A crawl that ran to completion always ends with a page that is {@link Page#isFinal final};
+     * an empty page is emitted for that purpose when the connection runs out of items.
+     *
+     * @param query The query to paginate
+     * @param <T>   Type of the items produced by the query
+     * @return Flux of pages in cursor order
+     */
+    public <T> Flux<Page<T>> paginate(PageQuery<T> query) {
+        ResumePoint resumeFrom = query.getResumeFrom();
+        AdaptivePageSize pageSize = createPageSize(query);
+        Mono<Page<T>> firstPage = resumeFrom == null
+                ? fetchPage(query, pageSize, null, 0, 1)
+                : fetchPage(query, pageSize, resumeFrom.getCursor(), resumeFrom.getTotalFetched(),
+                        resumeFrom.getPageNumber() + 1);
+
+        return firstPage
+                .expand(page -> {
+                    if (page.isFinal(query.getMaxItems())) {
+                        return Mono.empty();
+                    }
+                    if (query.getStopWhen() != null && query.getStopWhen().test(page)) {
+                        log.info("Stopping {} crawl after page {}", query.getName(), page.getNumber());
+                        return Mono.empty();
+                    }
+                    return fetchPage(query, pageSize, page.getEndCursor(), page.getTotalFetched(), page.getNumber() + 1);
+                });
+    }
+
+    /**
+     * Creates the page size controller for a crawl.
+     *
+     * @param query The query being paginated
+     * @return A controller within the query's bounds, or a fixed page size if adaptation is disabled
+     */
+    private AdaptivePageSize createPageSize(PageQuery<?> query) {
+        ExportProperties.PageSize properties = exportProperties.getPageSize();
+        if (!properties.isAdaptive() || query.getMinPageSize() <= 0 || query.getMaxPageSize() <= 0) {
+            return AdaptivePageSize.fixed(query.getName(), query.getPageSize());
+        }
+        return new AdaptivePageSize(query.getName(), query.getPageSize(), query.getMinPageSize(),
+                query.getMaxPageSize(), properties.getTargetLatency(), properties.getMaxCost());
+    }
+
+    /**
+     * Fetches a single page of the connection.
+     *
+     * @param query        The query being paginated
+     * @param pageSize     Page size controller of the crawl
+     * @param cursor       Cursor to start after (null for the first page)
+     * @param totalFetched Number of items fetched before this page
+     * @param pageNumber   Number of the page being fetched
+     * @param <T>          Type of the items produced by the query
+     * @return Mono of the page, or empty if the page could not be fetched
+     */
+    private <T> Mono<Page<T>> fetchPage(PageQuery<T> query, AdaptivePageSize pageSize, String cursor,
+                                        int totalFetched, int pageNumber) {
+        // Wait for a slot in the shared rate limit budget before sending the request.
+        // Transient failures resend the request from the same cursor, with a smaller page if GitHub timed out.
+        Mono<GraphQlResponse> request = rateLimitScheduler.acquire()
+                .then(Mono.defer(() -> {
+                    int size = Math.min(pageSize.current(), query.getMaxItems() - totalFetched);
+                    Map<String, Object> variables = query.getVariables().apply(size, cursor);
+                    long start = System.nanoTime();
+                    return executeGraphQLQuery(query.getDocument(), variables,
+                                    Map.of(query.getField(), query.getMapper()))
+                            .timeout(REQUEST_TIMEOUT)
+                            .doOnNext(response -> pageSize.onSuccess(Duration.ofNanos(System.nanoTime() - start),
+                                    response.getData().path("rateLimit").path("cost").asInt(0)))
+                            .doOnError(error -> {
+                                if (retryPolicy.isOverload(error)) {
+                                    pageSize.onOverload();
+                                }
+                            });
+                }));
+        return retryPolicy.withRetries(request, query.getName() + " page " + pageNumber)
+                .map(response -> toPage(query, response, pageNumber, totalFetched))
+                .onErrorResume(e -> {
+                    log.error("Error fetching {} at cursor {}: {}", query.getName(), cursor, e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Executes a single, non-paginated GraphQL query under the shared rate limit and retry policy.
+     *
+     * @param name      Description of the query, used for logging
+     * @param document  The GraphQL query
+     * @param variables The query variables
+     * @return Mono of JsonNode containing the response data
+     */
+    public Mono<JsonNode> query(String name, String document, Map<String, Object> variables) {
+        return query(name, document, variables, Map.of()).map(GraphQlResponse::getData);
+    }
+
+    /**
+     * Executes a single, non-paginated GraphQL query under the shared rate limit and retry policy,
+     * converting the nodes of the given connections into items while the response is read.
+     *
+     * @param name      Description of the query, used for logging
+     * @param document  The GraphQL query
+     * @param variables The query variables
+     * @param mappers   Converters from a node to an item, by the field name of the connection
+     * @return Mono of the response
+     */
+    public Mono<GraphQlResponse> query(String name, String document, Map<String, Object> variables,
+                                       Map<String, Function<JsonNode, ?>> mappers) {
+        Mono<GraphQlResponse> request = rateLimitScheduler.acquire()
+                .then(Mono.defer(() -> executeGraphQLQuery(document, variables, mappers).timeout(REQUEST_TIMEOUT)));
+        return retryPolicy.withRetries(request, name);
+    }
+
+    /**
+     * Executes the GraphQL query with the given variables.
+     * The response body is decoded as it arrives, without being buffered as a whole.
+     *
+     * @param document  The GraphQL query
+     * @param variables The query variables
+     * @param mappers   Converters from a node to an item, by the field name of the connection
+     * @return Mono of the response
+     */
+    private Mono<GraphQlResponse> executeGraphQLQuery(String document, Map<String, Object> variables,
+                                                      Map<String, Function<JsonNode, ?>> mappers) {
+        return githubWebClient.post()
+                .bodyValue(Map.of("query", document, "variables", variables))
+                .exchangeToMono(response -> response.statusCode().isError()
+                        ? response.createError()
+                        : responseDecoder.decode(response.bodyToFlux(DataBuffer.class), mappers))
+                .doOnNext(response -> checkResponse(response.getRoot(), Boolean.TRUE.equals(variables.get("dryRun"))))
+                .doOnError(error -> log.debug("GraphQL query execution failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Checks the data section of a GraphQL response.
+     * GitHub may return partial data alongside errors, which is accepted with a warning.
+     *
+     * @param response The root of the GraphQL response
+     * @param dryRun   Whether the query was a dry run, whose cost is not recorded
+     * @throws RetryPolicy.RateLimitedException if GitHub rejected the query because the rate limit is exhausted
+     * @throws IllegalStateException if the response has no data
+     */
+    private void checkResponse(JsonNode response, boolean dryRun) {
+        JsonNode errors = response.path("errors");
+        if (isRateLimited(errors)) {
+            throw new RetryPolicy.RateLimitedException("GraphQL rate limit exceeded: " + errors,
+                    rateLimitScheduler.getResetAt());
+        }
+        if (!errors.isEmpty()) {
+            log.warn("GraphQL response contained errors: {}", errors);
+        }
+        JsonNode data = response.path("data");
+        if (data.isMissingNode() || data.isNull()) {
+            throw new IllegalStateException("No data in GraphQL response: " + errors);
+        }
+        // A dry run reports the cost the query would have had, not what was spent
+        if (!dryRun) {
+            rateLimitScheduler.recordRateLimit(data.path("rateLimit"));
+        }
+    }
+
+    /**
+     * Checks whether GitHub rejected the query because the rate limit is exhausted.
+     * GitHub reports this with a top-level {@code type} of RATE_LIMITED on the error, which is not part
+     * of the standard error format.
+     *
+     * @param errors The errors of the GraphQL response
+     * @return true if any error is a rate limit error
+     */
+    private boolean isRateLimited(JsonNode errors) {
+        for (JsonNode error : errors) {
+            if ("RATE_LIMITED".equals(error.path("type").asText())
+                    || "RATE_LIMITED".equals(error.path("extensions").path("type").asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts the response into a page.
+     *
+     * @param query        The query being paginated
+     * @param response     The response, with the nodes of the connection converted to items
+     * @param pageNumber   Number of the page
+     * @param totalFetched Number of items fetched before this page
+     * @param <T>          Type of the items produced by the query
+     * @return The page
+     */
+    private <T> Page<T> toPage(PageQuery<T> query, GraphQlResponse response, int pageNumber, int totalFetched) {
+        List<T> items = response.items(query.getField());
+        JsonNode connection = query.getConnection().apply(response.getData());
+        JsonNode pageInfo = connection.path("pageInfo");
+        Page<T> page = new Page<>(
+                pageNumber,
+                items,
+                pageInfo.path(query.isBackward() ? "startCursor" : "endCursor").asText(null),
+                // An empty page ends the crawl
+                !items.isEmpty() && pageInfo.path(query.isBackward() ? "hasPreviousPage" : "hasNextPage").asBoolean(false),
+                connection.path("totalCount").asInt(0),
+                totalFetched + items.size());
+
+        log.info("Fetched {} {}, total: {}, hasNextPage: {}",
+                items.size(), query.getName(), page.getTotalFetched(), page.isHasNextPage());
+        return page;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A GraphQL response as read by the {@link GraphQlResponseDecoder}.
+ * The nodes of streamed connections are not part of the tree; they are held as the items they were
+ * converted to while the response was read.
+ */
+@Value
+public class GraphQlResponse {
+
+    /**
+     * Root of the response (with data, errors and extensions), without the nodes of streamed connections
+     */
+    JsonNode root;
+
+    /**
+     * Items converted from the nodes of each streamed connection, by the connection's field name
+     */
+    Map<String, List<Object>> items;
+
+    /**
+     * Gets the data section of the response.
+     *
+     * @return JsonNode containing the response data, or a missing node if there is none
+     */
+    public JsonNode getData() {
+        return root.path("data");
+    }
+
+    /**
+     * Gets the items converted from the nodes of a streamed connection.
+     *
+     * @param field Field name of the connection (e.g. "issues")
+     * @param <T>   Type of the items produced by the connection's mapper
+     * @return List of items in response order, empty if the connection was not part of the response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> items(String field) {
+        return (List<T>) items.getOrDefault(field, List.of());
+    }
+}
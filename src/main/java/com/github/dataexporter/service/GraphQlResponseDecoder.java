@@ -0,0 +1,262 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Decodes GraphQL response bodies as they arrive over the network.
+ * Each chunk of the body is fed to a non-blocking Jackson parser and released right away,
+ * so the raw body is never aggregated in memory and is not subject to WebClient's in-memory
+ * buffer limit. The nodes of the paginated connections are converted to items one at a time
+ * as the parser completes them, so a page is never held as a whole tree; only the rest of the
+ * response, such as pageInfo, totalCount, rateLimit and errors, is read into a tree.
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQlResponseDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Decodes a response body, streaming the nodes of the given connections into items.
+     * A connection is streamed if its field name has a mapper and it is not nested in a list,
+     * so the nested connections of each node stay part of that node.
+     *
+     * @param body    Chunks of the response body, in order
+     * @param mappers Converters from a node to an item, by the field name of the connection
+     *                (e.g. "issues"); a converter may return null to skip a node
+     * @return Mono of the decoded response
+     * @throws DecodingException (as error signal) if the body is empty or not valid JSON
+     */
+    public Mono<GraphQlResponse> decode(Flux<DataBuffer> body, Map<String, Function<JsonNode, ?>> mappers) {
+        return Mono.defer(() -> {
+            JsonParser parser;
+            try {
+                parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                return Mono.error(new DecodingException("Failed to create JSON parser", e));
+            }
+            ResponseReader reader = new ResponseReader(mappers);
+            return body
+                    .doOnNext(buffer -> {
+                        try {
+                            feed(parser, reader, buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(() -> finish(parser, reader)))
+                    .doFinally(signal -> close(parser));
+        });
+    }
+
+    /**
+     * Feeds a chunk of the body to the parser and reads every token it completes.
+     *
+     * @param parser Non-blocking parser of the response
+     * @param reader Reader of the response so far
+     * @param buffer The chunk of the body
+     * @throws DecodingException if the chunk is not valid JSON
+     */
+    private void feed(JsonParser parser, ResponseReader reader, DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+            readTokens(parser, reader);
+        } catch (IOException e) {
+            throw new DecodingException("Invalid JSON in GraphQL response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ends the input and completes the response.
+     *
+     * @param parser Non-blocking parser of the response
+     * @param reader Reader of the response so far
+     * @return The decoded response
+     * @throws DecodingException if the body was empty or ended in the middle of a value
+     */
+    private GraphQlResponse finish(JsonParser parser, ResponseReader reader) {
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+            readTokens(parser, reader);
+        } catch (IOException e) {
+            throw new DecodingException("Invalid JSON in GraphQL response: " + e.getMessage(), e);
+        }
+        if (reader.root == null) {
+            throw new DecodingException("Empty GraphQL response");
+        }
+        if (!reader.containers.isEmpty()) {
+            throw new DecodingException("Truncated GraphQL response");
+        }
+        return new GraphQlResponse(reader.root, reader.items);
+    }
+
+    /**
+     * Reads the tokens the parser can complete from the input fed so far.
+     *
+     * @param parser Non-blocking parser of the response
+     * @param reader Reader of the response so far
+     * @throws IOException if the input is not valid JSON
+     */
+    private void readTokens(JsonParser parser, ResponseReader reader) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            reader.read(token, parser);
+        }
+    }
+
+    /**
+     * Closes the parser, ignoring failures since the response has been decoded or abandoned.
+     *
+     * @param parser The parser to close
+     */
+    private void close(JsonParser parser) {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // Nothing left to read
+        }
+    }
+
+    /**
+     * Builds the response from parser tokens, handing each node of a streamed connection to its
+     * mapper as soon as the node is complete instead of adding it to the tree.
+     */
+    private static class ResponseReader {
+
+        private final JsonNodeFactory nodes = JsonNodeFactory.instance;
+        private final Map<String, Function<JsonNode, ?>> mappers;
+        private final Map<String, List<Object>> items = new HashMap<>();
+
+        // Open objects and lists, innermost first, with the field name each was opened under ("" in a list)
+        private final Deque<ContainerNode<?>> containers = new ArrayDeque<>();
+        private final Deque<String> fields = new ArrayDeque<>();
+
+        private JsonNode root;
+        private String fieldName;
+        private int openLists;
+
+        // The nodes list being streamed, identified by its depth (0 if none)
+        private int streamedDepth;
+        private Function<JsonNode, ?> mapper;
+        private List<Object> streamed;
+
+        ResponseReader(Map<String, Function<JsonNode, ?>> mappers) {
+            this.mappers = mappers;
+        }
+
+        /**
+         * Reads the parser's current token into the response.
+         *
+         * @param token  The current token
+         * @param parser The parser positioned at the token
+         * @throws IOException if the token's value cannot be read
+         */
+        void read(JsonToken token, JsonParser parser) throws IOException {
+            switch (token) {
+                case FIELD_NAME -> fieldName = parser.currentName();
+                case START_OBJECT -> open(nodes.objectNode());
+                case START_ARRAY -> {
+                    String connection = fields.peek();
+                    if (streamedDepth == 0 && openLists == 0 && "nodes".equals(fieldName)
+                            && connection != null && mappers.containsKey(connection)) {
+                        mapper = mappers.get(connection);
+                        streamed = items.computeIfAbsent(connection, field -> new ArrayList<>());
+                        open(nodes.arrayNode());
+                        streamedDepth = containers.size();
+                    } else {
+                        open(nodes.arrayNode());
+                    }
+                }
+                case END_OBJECT, END_ARRAY -> close();
+                case VALUE_STRING -> value(nodes.textNode(parser.getText()));
+                case VALUE_NUMBER_INT -> value(switch (parser.getNumberType()) {
+                    case INT -> nodes.numberNode(parser.getIntValue());
+                    case LONG -> nodes.numberNode(parser.getLongValue());
+                    default -> nodes.numberNode(parser.getBigIntegerValue());
+                });
+                case VALUE_NUMBER_FLOAT -> value(nodes.numberNode(parser.getDoubleValue()));
+                case VALUE_TRUE, VALUE_FALSE -> value(nodes.booleanNode(token == JsonToken.VALUE_TRUE));
+                case VALUE_NULL -> value(nodes.nullNode());
+                default -> throw new DecodingException("Unexpected token in GraphQL response: " + token);
+            }
+        }
+
+        private void open(ContainerNode<?> container) {
+            String field = containers.peek() instanceof ObjectNode ? fieldName : "";
+            attach(container);
+            containers.push(container);
+            fields.push(field);
+            if (container instanceof ArrayNode) {
+                openLists++;
+            }
+        }
+
+        private void close() {
+            ContainerNode<?> container = containers.pop();
+            fields.pop();
+            if (container instanceof ArrayNode) {
+                openLists--;
+            }
+            if (streamedDepth > 0 && containers.size() == streamedDepth) {
+                emit(container);
+            } else if (containers.size() < streamedDepth) {
+                streamedDepth = 0;
+                mapper = null;
+                streamed = null;
+            }
+        }
+
+        private void value(JsonNode value) {
+            if (streamedDepth > 0 && containers.size() == streamedDepth) {
+                emit(value);
+            } else {
+                attach(value);
+            }
+        }
+
+        private void emit(JsonNode node) {
+            Object item = mapper.apply(node);
+            if (item != null) {
+                streamed.add(item);
+            }
+        }
+
+        // Adds a value to the innermost open container; the nodes of a streamed list are kept apart
+        private void attach(JsonNode value) {
+            ContainerNode<?> parent = containers.peek();
+            if (parent == null) {
+                root = value;
+            } else if (parent instanceof ObjectNode object) {
+                object.set(fieldName, value);
+            } else if (streamedDepth == 0 || containers.size() != streamedDepth) {
+                ((ArrayNode) parent).add(value);
+            }
+        }
+    }
+}
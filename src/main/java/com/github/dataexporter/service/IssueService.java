@@ -9,16 +9,13 @@ import com.github.dataexporter.config.GitHubProperties;
 import com.github.dataexporter.model.Issue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service for fetching GitHub issues using the GraphQL API.
@@ -29,13 +26,29 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class IssueService {
 
-    private final HttpGraphQlClient graphQlClient;
+    private final GraphQlPaginator paginator;
     private final GitHubProperties gitHubProperties;
     private final ExportProperties exportProperties;
     private final ObjectMapper objectMapper;
+    private final GitHubNodeNormalizer nodeNormalizer;
+    private final PartitionedCrawler partitionedCrawler;
+    private final BidirectionalCrawler bidirectionalCrawler;
+    private final NodeHydrator nodeHydrator;
+    private final NestedConnectionFetcher nestedConnectionFetcher;
+    private final QueryFilters queryFilters;
+    private final QueryLoader queryLoader;
 
     private static final String ISSUE_QUERY_FILE = "graphql/issue-query.graphql";
-    private static final String ISSUE_STATES_ALL = "[OPEN, CLOSED]";
+    private static final String ISSUE_SEARCH_QUERY_FILE = "graphql/issue-search-query.graphql";
+    private static final String ISSUE_FIELDS_FILE = "graphql/issue-fields.graphql";
+    private static final String ISSUE_MINIMAL_FIELDS_FILE = "graphql/issue-minimal-fields.graphql";
+    private static final String ISSUE_STANDARD_FIELDS_FILE = "graphql/issue-standard-fields.graphql";
+    private static final String ISSUE_COMMENT_FIELDS_FILE = "graphql/issue-comment-fields.graphql";
+    private static final String ISSUE_TIMELINE_FIELDS_FILE = "graphql/issue-timeline-fields.graphql";
+    private static final String ISSUE_TIMELINE_ITEM_FIELDS_FILE = "graphql/issue-timeline-item-fields.graphql";
+    private static final String ISSUE_TIMELINE_EXCLUDED_FIELDS_FILE = "graphql/issue-timeline-excluded-fields.graphql";
+    private static final String ISSUE_SKELETON_FIELDS_FILE = "graphql/issue-skeleton-fields.graphql";
+    private static final String ISSUE_NODES_QUERY_FILE = "graphql/issue-nodes-query.graphql";
 
     /**
      * Fetches all issues from the configured GitHub repository.
@@ -44,82 +57,341 @@ public class IssueService {
      * @return List of Issue objects representing GitHub issues
      */
     public List<Issue> fetchAllIssues() {
-        log.info("Fetching issues for repository {}/{}",
-                gitHubProperties.getRepository().getOwner(),
-                gitHubProperties.getRepository().getName());
+        return fetchAllIssues(TimeWindow.ALL);
+    }
 
-        String query = loadQueryFromFile();
+    /**
+     * Fetches the issues updated within the given window from the configured GitHub repository.
+     *
+     * @param window Window of update times to fetch
+     * @return List of Issue objects representing GitHub issues
+     */
+    public List<Issue> fetchAllIssues(TimeWindow window) {
         List<Issue> allIssues = new ArrayList<>();
-        String cursor = null;
-        boolean hasNextPage = true;
-        AtomicInteger totalFetched = new AtomicInteger(0);
-        int maxItems = exportProperties.getPagination().getMaxItems();
-        int batchSize = exportProperties.getBatchSize();
-
-        while (hasNextPage && totalFetched.get() < maxItems) {
-            int remainingItems = maxItems - totalFetched.get();
-            int currentBatchSize = Math.min(batchSize, remainingItems);
-            
-            Map<String, Object> variables = createQueryVariables(currentBatchSize, cursor);
-            
-            try {
-                JsonNode response = executeGraphQLQuery(query, variables)
-                        .block(Duration.ofSeconds(30));
-                
-                if (response == null) {
-                    log.error("Null response received from GitHub API");
-                    break;
-                }
+        fetchAllIssues(window, allIssues::addAll);
+        return allIssues;
+    }
 
-                List<Issue> issues = extractIssuesFromResponse(response);
-                if (issues.isEmpty()) {
-                    break;
-                }
-                
-                allIssues.addAll(issues);
-                totalFetched.addAndGet(issues.size());
-                
-                JsonNode pageInfo = response.path("data").path("repository").path("issues").path("pageInfo");
-                hasNextPage = pageInfo.path("hasNextPage").asBoolean(false);
-                cursor = pageInfo.path("endCursor").asText(null);
-                
-                log.info("Fetched {} issues, total: {}, hasNextPage: {}", 
-                        issues.size(), totalFetched.get(), hasNextPage);
-                
-                // Respect GitHub's rate limits with a small delay between requests
-                if (hasNextPage) {
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        log.warn("Interrupted while waiting between API requests", e);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error fetching issues at cursor {}: {}", cursor, e.getMessage(), e);
-                break;
+    /**
+     * Fetches all issues from the configured GitHub repository, handing each page
+     * to the given consumer as soon as it has been converted.
+     * The page is not retained afterwards, so memory use is bounded by a single page.
+     *
+     * @param pageConsumer Consumer receiving each page of issues
+     * @return Total number of issues fetched
+     */
+    public int fetchAllIssues(Consumer<List<Issue>> pageConsumer) {
+        return fetchAllIssues(TimeWindow.ALL, pageConsumer);
+    }
+
+    /**
+     * Fetches the issues updated within the given window, handing each page to the consumer.
+     *
+     * @param window       Window of update times to fetch
+     * @param pageConsumer Consumer receiving each page of issues
+     * @return Total number of issues fetched
+     */
+    public int fetchAllIssues(TimeWindow window, Consumer<List<Issue>> pageConsumer) {
+        int totalFetched = fetchIssuePages(window)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .doOnNext(page -> pageConsumer.accept(page.getItems()))
+                .reduce(0, (total, page) -> page.getTotalFetched())
+                .blockOptional()
+                .orElse(0);
+
+        log.info("Completed fetching issues. Total issues fetched: {}", totalFetched);
+        return totalFetched;
+    }
+
+    /**
+     * Streams all issues from the configured GitHub repository.
+     * The next page is only requested once downstream has consumed the current one.
+     *
+     * @return Flux of Issue objects in the order returned by GitHub
+     */
+    public Flux<Issue> streamIssues() {
+        return fetchIssuePages(TimeWindow.ALL).concatMapIterable(Page::getItems);
+    }
+
+    /**
+     * Paginates through the issues of the configured GitHub repository.
+     *
+     * @param window Window of update times to fetch
+     * @return Flux of pages of issues
+     */
+    public Flux<Page<Issue>> fetchIssuePages(TimeWindow window) {
+        return fetchIssuePages(window, null);
+    }
+
+    /**
+     * Paginates through the issues of the configured GitHub repository, continuing a previous crawl.
+     *
+     * @param window     Window of update times to fetch
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @return Flux of pages of issues
+     */
+    public Flux<Page<Issue>> fetchIssuePages(TimeWindow window, ResumePoint resumeFrom) {
+        return fetchIssuePages(window, resumeFrom, issue -> true);
+    }
+
+    /**
+     * Paginates through the issues of the configured GitHub repository, continuing a previous crawl.
+     * In two-phase mode only skeletons are crawled, and the full details are fetched for the issues
+     * accepted by the filter; the other issues are left out of the pages.
+     * The start of the window is applied by GitHub. When the window has an end, issues are crawled
+     * least recently updated first, and the crawl stops at the first page that passes the end.
+     *
+     * @param window         Window of update times to fetch
+     * @param resumeFrom     Position to continue from (null to start at the first page)
+     * @param needsHydration Filter selecting the skeletons to fetch full details for in two-phase mode
+     * @return Flux of pages of issues
+     */
+    public Flux<Page<Issue>> fetchIssuePages(TimeWindow window, ResumePoint resumeFrom, Predicate<Issue> needsHydration) {
+        return Flux.defer(() -> {
+            log.info("Fetching issues for repository {}/{}{}",
+                    gitHubProperties.getRepository().getOwner(),
+                    gitHubProperties.getRepository().getName(),
+                    window.isBounded() ? " updated within " + window : "");
+
+            boolean twoPhase = exportProperties.getTwoPhase().isEnabled();
+            Flux<Page<Issue>> pages = crawlIssuePages(window, resumeFrom, twoPhase);
+            if (window.getUntil() != null) {
+                // Skeletons carry updatedAt, so the end of the window is applied before hydration
+                pages = pages.map(page -> trimToWindow(page, window));
+            }
+            if (twoPhase) {
+                pages = nodeHydrator.hydrate(pages, "issues", loadDocument(ISSUE_NODES_QUERY_FILE, false),
+                        this::extractIssues, Issue::getId, needsHydration);
+            }
+            return completeIssuePages(pages);
+        });
+    }
+
+    /**
+     * Fetches the rest of the nested connections the issues query only returns the first page of.
+     *
+     * @param pages Pages of issues as returned by the issues query
+     * @return Flux of pages of complete issues
+     */
+    Flux<Page<Issue>> completeIssuePages(Flux<Page<Issue>> pages) {
+        return nestedConnectionFetcher.complete(pages, commentsConnection());
+    }
+
+    /**
+     * Describes the comments connection of an issue, which the issues query only returns the first page of.
+     *
+     * @return The comments connection
+     */
+    private NestedConnection<Issue> commentsConnection() {
+        return NestedConnection.<Issue>builder()
+                .name("issue comments")
+                .typeName("Issue")
+                .field("comments")
+                .selection("...IssueCommentFields")
+                .fragments(queryLoader.load(ISSUE_COMMENT_FIELDS_FILE))
+                .cursorsOf(NestedConnection.ownCursor(Issue::getId, Issue::getCommentsEndCursor))
+                .appender(this::appendComments)
+                .build();
+    }
+
+    /**
+     * Adds a page of fetched comments to an issue.
+     *
+     * @param issue        The issue
+     * @param commentNodes JsonNode array of comment nodes
+     */
+    private void appendComments(Issue issue, JsonNode commentNodes) {
+        List<Issue.Comment> comments = issue.getComments() != null ? new ArrayList<>(issue.getComments()) : new ArrayList<>();
+        for (JsonNode commentNode : commentNodes) {
+            try {
+                comments.add(objectMapper.treeToValue(nodeNormalizer.normalizeNode(commentNode), Issue.Comment.class));
+            } catch (JsonProcessingException e) {
+                log.error("Error converting comment node of issue #{}: {}", issue.getNumber(), e.getMessage(), e);
             }
         }
+        issue.setComments(comments);
+    }
 
-        log.info("Completed fetching issues. Total issues fetched: {}", allIssues.size());
-        return allIssues;
+    /**
+     * Paginates through the skeletons of all issues, holding only their id, number and update time.
+     *
+     * @return Flux of pages of issue skeletons
+     */
+    public Flux<Page<Issue>> fetchIssueSkeletonPages() {
+        return crawlIssuePages(TimeWindow.ALL, null, true);
     }
 
     /**
-     * Loads the GraphQL query from a file on the classpath.
+     * Crawls the issues using the configured crawl mode.
      *
-     * @return The query string
+     * @param window     Window of update times to fetch
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @param skeleton   Whether to only fetch the id, number and update time of each issue
+     * @return Flux of pages of issues
      */
-    private String loadQueryFromFile() {
-        try {
-            ClassPathResource resource = new ClassPathResource(ISSUE_QUERY_FILE);
-            byte[] bytes = resource.getInputStream().readAllBytes();
-            return new String(bytes, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            log.error("Failed to load GraphQL query from file: {}", ISSUE_QUERY_FILE, e);
-            throw new RuntimeException("Failed to load GraphQL query", e);
+    private Flux<Page<Issue>> crawlIssuePages(TimeWindow window, ResumePoint resumeFrom, boolean skeleton) {
+        // Alternative crawl modes only apply to full crawls, which need no cursor order
+        ExportProperties.CrawlMode crawlMode = exportProperties.getCrawlMode();
+        boolean fullCrawl = !window.isBounded() && resumeFrom == null;
+        if (fullCrawl && crawlMode == ExportProperties.CrawlMode.PARTITIONED) {
+            return queryFilters.issueSearchQualifier().flatMapMany(qualifier ->
+                    partitionedCrawler.crawl(createSearchQuery(skeleton), qualifier, Issue::getId));
         }
+        if (fullCrawl && crawlMode == ExportProperties.CrawlMode.BIDIRECTIONAL) {
+            return bidirectionalCrawler.crawl(createPageQuery(TimeWindow.ALL, null, skeleton), Issue::getId);
+        }
+        return paginator.paginate(createPageQuery(window, resumeFrom, skeleton));
+    }
+
+    /**
+     * Identifies the crawl of the issues within the given window, so that a checkpoint is only
+     * resumed by a crawl whose cursor it can continue.
+     *
+     * @param window Window of update times to fetch
+     * @return Fingerprint of the repository, query, variables and crawl settings
+     */
+    public String crawlFingerprint(TimeWindow window) {
+        boolean twoPhase = exportProperties.getTwoPhase().isEnabled();
+        // In two-phase mode the cursor comes from the skeleton crawl and the fields from the full query
+        return createPageQuery(window, null, twoPhase).fingerprint(exportProperties.getCrawlMode(), window,
+                loadDocument(ISSUE_QUERY_FILE, false));
+    }
+
+    /**
+     * Creates the paginated query for the issues of the configured GitHub repository.
+     *
+     * @param window     Window of update times to fetch
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @return The issues query
+     */
+    PageQuery<Issue> createPageQuery(TimeWindow window, ResumePoint resumeFrom) {
+        return createPageQuery(window, resumeFrom, false);
+    }
+
+    /**
+     * Creates the paginated query for the issues of the configured GitHub repository.
+     *
+     * @param window     Window of update times to fetch
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @param skeleton   Whether to only fetch the id, number and update time of each issue
+     * @return The issues query
+     */
+    private PageQuery<Issue> createPageQuery(TimeWindow window, ResumePoint resumeFrom, boolean skeleton) {
+        return withPageSize(PageQuery.<Issue>builder(), skeleton)
+                .name("issues")
+                .document(loadDocument(ISSUE_QUERY_FILE, skeleton))
+                .variables((limit, cursor) -> createQueryVariables(limit, cursor, window))
+                .connection(data -> data.path("repository").path("issues"))
+                .field("issues")
+                .mapper(this::toIssue)
+                .maxItems(exportProperties.getPagination().getItemLimit())
+                .stopWhen(window.getUntil() != null ? page -> passesWindow(page, window) : null)
+                .resumeFrom(resumeFrom)
+                .build();
+    }
+
+    /**
+     * Creates the search query for the issues of the configured GitHub repository.
+     * The search string and cursor are supplied per window by the {@link PartitionedCrawler}.
+     *
+     * @param skeleton Whether to only fetch the id, number and update time of each issue
+     * @return The issues search query
+     */
+    private PageQuery<Issue> createSearchQuery(boolean skeleton) {
+        return withPageSize(PageQuery.<Issue>builder(), skeleton)
+                .name("issues")
+                .document(loadDocument(ISSUE_SEARCH_QUERY_FILE, skeleton))
+                .connection(data -> data.path("search"))
+                .field("search")
+                .mapper(this::toIssue)
+                .maxItems(exportProperties.getPagination().getItemLimit())
+                .build();
+    }
+
+    /**
+     * Checks whether a page contains an issue updated after the end of the window.
+     * Windowed pages are ordered by UPDATED_AT ASC, so no later page can contain older issues.
+     *
+     * @param page   The page to check
+     * @param window The window
+     * @return true if the page reaches past the end of the window
+     */
+    private boolean passesWindow(Page<Issue> page, TimeWindow window) {
+        return page.getItems().stream().anyMatch(issue -> window.isAfter(issue.getUpdatedAt()));
+    }
+
+    /**
+     * Removes issues updated after the end of the window from a page.
+     *
+     * @param page   The page to trim
+     * @param window The window
+     * @return The page itself, or a copy without the newer issues that reports no next page
+     */
+    private Page<Issue> trimToWindow(Page<Issue> page, TimeWindow window) {
+        if (!passesWindow(page, window)) {
+            return page;
+        }
+        List<Issue> inWindow = page.getItems().stream()
+                .filter(issue -> !window.isAfter(issue.getUpdatedAt()))
+                .toList();
+        return new Page<>(page.getNumber(), inWindow, page.getEndCursor(), false,
+                page.getTotalCount(), page.getTotalFetched());
+    }
+
+    /**
+     * Applies the configured page size and bounds to a query.
+     * Skeleton crawls start at the skeleton page size, since their pages are small.
+     *
+     * @param builder  The query builder
+     * @param skeleton Whether the query fetches skeletons
+     * @return The builder
+     */
+    private PageQuery.PageQueryBuilder<Issue> withPageSize(PageQuery.PageQueryBuilder<Issue> builder, boolean skeleton) {
+        ExportProperties.PageSize.Bounds bounds = exportProperties.getPageSize().getIssues();
+        int skeletonPageSize = exportProperties.getTwoPhase().getSkeletonPageSize();
+        return builder
+                .pageSize(skeleton ? skeletonPageSize : exportProperties.getBatchSize())
+                .minPageSize(bounds.getMin())
+                .maxPageSize(skeleton ? Math.max(bounds.getMin(), skeletonPageSize) : bounds.getMax());
+    }
+
+    /**
+     * Loads a GraphQL query together with the fragment selecting the issue fields.
+     *
+     * @param queryFile Classpath location of the query
+     * @param skeleton  Whether to select only the id, number and update time instead of all fields
+     * @return The query document
+     */
+    private String loadDocument(String queryFile, boolean skeleton) {
+        return queryLoader.load(queryFile) + "\n" + loadFragments(skeleton);
+    }
+
+    /**
+     * Loads the fragments selecting the issue fields, to be appended to a query using {@code ...IssueFields}.
+     * The fields are those of the configured profile; only the fragments the profile uses are included,
+     * since GitHub rejects documents with unused fragments.
+     *
+     * @param skeleton Whether to select only the id, number and update time instead of all fields
+     * @return The fragment definitions
+     */
+    String loadFragments(boolean skeleton) {
+        if (skeleton) {
+            return queryLoader.load(ISSUE_SKELETON_FIELDS_FILE);
+        }
+        ExportProperties.Profile profile = exportProperties.getProfile();
+        if (profile == ExportProperties.Profile.MINIMAL) {
+            return queryLoader.load(ISSUE_MINIMAL_FIELDS_FILE);
+        }
+        if (profile == ExportProperties.Profile.STANDARD) {
+            return queryLoader.load(ISSUE_STANDARD_FIELDS_FILE) + "\n" + queryLoader.load(ISSUE_COMMENT_FIELDS_FILE);
+        }
+        String fragments = queryLoader.load(ISSUE_FIELDS_FILE) + "\n" + queryLoader.load(ISSUE_COMMENT_FIELDS_FILE);
+        // Timelines streamed by the timeline pipeline are left out of the issue records
+        if (exportProperties.getTimeline().isEnabled()) {
+            return fragments + "\n" + queryLoader.load(ISSUE_TIMELINE_EXCLUDED_FIELDS_FILE);
+        }
+        return fragments + "\n" + queryLoader.load(ISSUE_TIMELINE_FIELDS_FILE)
+                + "\n" + queryLoader.load(ISSUE_TIMELINE_ITEM_FIELDS_FILE);
     }
 
     /**
@@ -127,66 +399,56 @@ public class IssueService {
      *
      * @param limit  Maximum number of issues to fetch in this request
      * @param cursor Pagination cursor (null for first page)
+     * @param window Window of update times to fetch
      * @return Map of query variables
      */
-    private Map<String, Object> createQueryVariables(int limit, String cursor) {
+    private Map<String, Object> createQueryVariables(int limit, String cursor, TimeWindow window) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("owner", gitHubProperties.getRepository().getOwner());
         variables.put("name", gitHubProperties.getRepository().getName());
         variables.put("first", limit);
-        variables.put("states", Arrays.asList("OPEN", "CLOSED")); // Fetch both open and closed issues
+        variables.put("states", queryFilters.issueStates());
         
-        // Add orderBy to sort by most recently updated
+        // Add orderBy to sort by most recently updated. Incremental exports walk oldest first,
+        // so an interrupted crawl never skips changes older than the recorded watermark, and so do
+        // windowed exports, so they can stop at the end of the window.
         Map<String, String> orderBy = new HashMap<>();
         orderBy.put("field", "UPDATED_AT");
-        orderBy.put("direction", "DESC");
+        orderBy.put("direction", exportProperties.isIncremental() || window.getUntil() != null ? "ASC" : "DESC");
         variables.put("orderBy", orderBy);
         
         if (cursor != null && !cursor.isEmpty()) {
             variables.put("after", cursor);
         }
+
+        // Filters, including the update time, are applied by GitHub
+        Map<String, Object> filterBy = queryFilters.issueFilterBy(window.getSince());
+        if (filterBy != null) {
+            variables.put("filterBy", filterBy);
+        }
         
         return variables;
     }
 
     /**
-     * Executes the GraphQL query with the given variables.
-     *
-     * @param query     The GraphQL query
-     * @param variables The query variables
-     * @return Mono of JsonNode containing the response
-     */
-    private Mono<JsonNode> executeGraphQLQuery(String query, Map<String, Object> variables) {
-        return graphQlClient.document(query)
-                .variables(variables)
-                .retrieve("data")
-                .toEntity(JsonNode.class)
-                .doOnError(error -> log.error("GraphQL query execution failed: {}", error.getMessage(), error));
-    }
-
-    /**
-     * Extracts Issue objects from the GraphQL response.
+     * Extracts Issue objects from the nodes of a GraphQL response.
      *
-     * @param response The GraphQL response as JsonNode
+     * @param issueNodes The issue nodes of the response
      * @return List of Issue objects
      */
-    private List<Issue> extractIssuesFromResponse(JsonNode response) {
+    private List<Issue> extractIssues(JsonNode issueNodes) {
         List<Issue> issues = new ArrayList<>();
         
         try {
-            JsonNode issueNodes = response.path("repository").path("issues").path("nodes");
             if (issueNodes.isMissingNode() || !issueNodes.isArray()) {
                 log.error("Invalid response format: issues nodes not found or not an array");
                 return issues;
             }
             
             for (JsonNode issueNode : issueNodes) {
-                try {
-                    // Convert the issue node to our Issue model
-                    Issue issue = convertToIssue(issueNode);
+                Issue issue = toIssue(issueNode);
+                if (issue != null) {
                     issues.add(issue);
-                } catch (Exception e) {
-                    log.error("Error converting issue node to Issue object: {}", e.getMessage(), e);
                 }
             }
         } catch (Exception e) {
@@ -196,6 +458,22 @@ public class IssueService {
         return issues;
     }
 
+    /**
+     * Converts an issue node of a GraphQL response, skipping a node that cannot be converted.
+     *
+     * @param issueNode JsonNode containing issue data
+     * @return Issue object, or null if the node could not be converted
+     */
+    private Issue toIssue(JsonNode issueNode) {
+        try {
+            // Convert the issue node to our Issue model
+            return convertToIssue(issueNode);
+        } catch (Exception e) {
+            log.error("Error converting issue node to Issue object: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Converts a JsonNode representing a GitHub issue to an Issue object.
      *
@@ -204,6 +482,6 @@ public class IssueService {
      */
     private Issue convertToIssue(JsonNode issueNode) throws JsonProcessingException {
         // For complex nested structures, using Jackson's tree-to-value conversion
-        return objectMapper.treeToValue(issueNode, Issue.class);
+        return objectMapper.treeToValue(nodeNormalizer.normalizeIssue(issueNode), Issue.class);
     }
 }
@@ -0,0 +1,72 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Describes a connection nested in each item of a crawl, such as the comments of an issue, which the
+ * main query only returns the first page of. Used by {@link NestedConnectionFetcher} to page through
+ * the rest.
+ *
+ * @param <T> Type of the items holding the connection
+ */
+@Value
+@Builder
+public class NestedConnection<T> {
+
+    /**
+     * Human readable name of the nested items, used for logging (e.g. "issue comments")
+     */
+    String name;
+
+    /**
+     * GraphQL type of the items holding the connection (e.g. "Issue")
+     */
+    String typeName;
+
+    /**
+     * Name of the connection field on that type (e.g. "comments")
+     */
+    String field;
+
+    /**
+     * Selection applied to each node of the connection, typically a fragment spread
+     */
+    String selection;
+
+    /**
+     * Fragment definitions used by the selection, appended to the query document
+     */
+    String fragments;
+
+    /**
+     * Returns the cursor to continue each truncated connection of an item from, by the node id of its
+     * holder; the holder is the item itself or a node nested in it, such as a review thread
+     */
+    Function<T, Map<String, String>> cursorsOf;
+
+    /**
+     * Adds the nodes of a fetched connection page to an item
+     */
+    BiConsumer<T, JsonNode> appender;
+
+    /**
+     * Creates the cursor function for a connection held directly by each item.
+     *
+     * @param idOf     Function returning the node id of an item
+     * @param cursorOf Function returning the cursor to continue from, or null if the item holds all of the connection
+     * @param <T>      Type of the items
+     * @return Function returning the cursor of an item by its id, or no cursor
+     */
+    public static <T> Function<T, Map<String, String>> ownCursor(Function<T, String> idOf, Function<T, String> cursorOf) {
+        return item -> {
+            String cursor = cursorOf.apply(item);
+            return cursor != null && !cursor.isEmpty() ? Map.of(idOf.apply(item), cursor) : Map.of();
+        };
+    }
+}
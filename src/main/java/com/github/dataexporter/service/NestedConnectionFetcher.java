@@ -0,0 +1,217 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Completes connections nested in the items of a crawl that the main query truncated.
+ * The remaining pages of many items are fetched together, one aliased {@code node(id:)} sub-query per
+ * item, until every connection is exhausted. Pages are completed concurrently with a bounded queue
+ * while the main crawl continues, and are emitted in their original order. Progress and rate limit
+ * cost are tracked per connection, separately from the main crawl.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NestedConnectionFetcher {
+
+    private final GraphQlPaginator paginator;
+    private final ExportProperties exportProperties;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Completes the nested connection in every item of the pages.
+     * If the remaining pages of a connection cannot be fetched, the stream fails instead of emitting the
+     * page with truncated items, so the crawl is not reported complete.
+     *
+     * @param pages      Pages of items
+     * @param connection The nested connection to complete
+     * @param <T>        Type of the items
+     * @return Flux of the same pages, with the connection completed
+     */
+    public <T> Flux<Page<T>> complete(Flux<Page<T>> pages, NestedConnection<T> connection) {
+        ExportProperties.NestedConnections config = exportProperties.getNestedConnections();
+        if (!config.isEnabled()) {
+            return pages;
+        }
+        return pages.flatMapSequential(page -> completePage(page, connection), config.getConcurrency(), 1);
+    }
+
+    /**
+     * Gets the progress and cost of the nested connections fetched so far.
+     *
+     * @return Map of counters by connection name
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        stats.forEach((name, connectionStats) -> metrics.put(name, connectionStats.toMap()));
+        return metrics;
+    }
+
+    /**
+     * Completes the nested connection in the items of a single page.
+     *
+     * @param page       The page
+     * @param connection The nested connection to complete
+     * @param <T>        Type of the items
+     * @return Mono of the page, emitted once its items are complete
+     */
+    private <T> Mono<Page<T>> completePage(Page<T> page, NestedConnection<T> connection) {
+        Map<String, T> items = new HashMap<>();
+        Map<String, String> cursors = new LinkedHashMap<>();
+        for (T item : page.getItems()) {
+            connection.getCursorsOf().apply(item).forEach((id, cursor) -> {
+                items.put(id, item);
+                cursors.put(id, cursor);
+            });
+        }
+        if (cursors.isEmpty()) {
+            return Mono.just(page);
+        }
+
+        Stats connectionStats = stats.computeIfAbsent(connection.getName(), name -> new Stats());
+        connectionStats.connections.addAndGet(cursors.size());
+        log.debug("Fetching remaining {} of {} items on page {}", connection.getName(), cursors.size(),
+                page.getNumber());
+        return Mono.just(cursors)
+                .expand(pending -> pending.isEmpty() ? Mono.empty() : fetchRound(pending, items, connection))
+                .then(Mono.fromCallable(() -> {
+                    log.info("Completed {} on page {} ({} requests, {} nodes, {} rate limit points so far)",
+                            connection.getName(), page.getNumber(), connectionStats.requests.get(),
+                            connectionStats.nodes.get(), connectionStats.cost.get());
+                    return page;
+                }))
+                .onErrorMap(e -> new IllegalStateException("Remaining " + connection.getName() + " on page "
+                        + page.getNumber() + " could not be fetched", e));
+    }
+
+    /**
+     * Fetches the next page of every pending connection, batching their holders into aliased requests.
+     *
+     * @param pending    Cursors to continue from, by the id of the node holding the connection
+     * @param items      Items by the id of the node holding the connection
+     * @param connection The nested connection
+     * @param <T>        Type of the items
+     * @return Mono of the cursors of the connections that still have more pages
+     */
+    private <T> Mono<Map<String, String>> fetchRound(Map<String, String> pending, Map<String, T> items,
+                                                     NestedConnection<T> connection) {
+        int batchSize = exportProperties.getNestedConnections().getBatchSize();
+        int pageSize = exportProperties.getNestedConnections().getPageSize();
+        List<String> ids = new ArrayList<>(pending.keySet());
+        List<List<String>> batches = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            batches.add(ids.subList(start, Math.min(ids.size(), start + batchSize)));
+        }
+
+        return Flux.fromIterable(batches)
+                .concatMap(batch -> {
+                    Map<String, Object> variables = new HashMap<>();
+                    for (int i = 0; i < batch.size(); i++) {
+                        variables.put("id" + i, batch.get(i));
+                        variables.put("after" + i, pending.get(batch.get(i)));
+                    }
+                    return paginator.query(connection.getName(), document(connection, batch.size(), pageSize), variables)
+                            .map(data -> appendBatch(data, batch, items, connection));
+                })
+                .<Map<String, String>>reduce(new LinkedHashMap<>(), (next, cursors) -> {
+                    next.putAll(cursors);
+                    return next;
+                });
+    }
+
+    /**
+     * Adds the fetched connection pages of a batch to their items.
+     *
+     * @param data       Response data of the batch
+     * @param batch      Ids of the nodes in the batch, in alias order
+     * @param items      Items by the id of the node holding the connection
+     * @param connection The nested connection
+     * @param <T>        Type of the items
+     * @return Cursors of the connections in the batch that still have more pages
+     */
+    private <T> Map<String, String> appendBatch(JsonNode data, List<String> batch, Map<String, T> items,
+                                                NestedConnection<T> connection) {
+        Stats connectionStats = stats.computeIfAbsent(connection.getName(), name -> new Stats());
+        connectionStats.requests.incrementAndGet();
+        connectionStats.cost.addAndGet(data.path("rateLimit").path("cost").asLong(0));
+
+        Map<String, String> next = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            JsonNode page = data.path("n" + i).path(connection.getField());
+            connectionStats.nodes.addAndGet(page.path("nodes").size());
+            connection.getAppender().accept(items.get(batch.get(i)), page.path("nodes"));
+            JsonNode pageInfo = page.path("pageInfo");
+            if (pageInfo.path("hasNextPage").asBoolean(false) && pageInfo.hasNonNull("endCursor")) {
+                next.put(batch.get(i), pageInfo.get("endCursor").asText());
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Builds the query continuing the connection of several items, one aliased sub-query per item.
+     *
+     * @param connection The nested connection
+     * @param count      Number of items in the request
+     * @param pageSize   Nested items to fetch per item
+     * @return The query document
+     */
+    static String document(NestedConnection<?> connection, int count, int pageSize) {
+        StringBuilder variables = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            variables.append(i == 0 ? "" : ", ").append("$id").append(i).append(": ID!, $after").append(i).append(": String");
+            selections.append("  n").append(i).append(": node(id: $id").append(i).append(") {\n")
+                    .append("    ... on ").append(connection.getTypeName()).append(" {\n")
+                    .append("      ").append(connection.getField())
+                    .append("(first: ").append(pageSize).append(", after: $after").append(i).append(") {\n")
+                    .append("        pageInfo {\n          hasNextPage\n          endCursor\n        }\n")
+                    .append("        nodes {\n          ").append(connection.getSelection()).append("\n        }\n")
+                    .append("      }\n    }\n  }\n");
+        }
+        return "query(" + variables + ") {\n"
+                + "  rateLimit {\n    cost\n    limit\n    remaining\n    resetAt\n  }\n"
+                + selections
+                + "}\n"
+                + (connection.getFragments() != null ? connection.getFragments() : "");
+    }
+
+    /**
+     * Counters of a nested connection.
+     */
+    private static class Stats {
+
+        private final AtomicLong connections = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong nodes = new AtomicLong();
+        private final AtomicLong cost = new AtomicLong();
+
+        /**
+         * Converts the counters to a map.
+         *
+         * @return Map of counter values
+         */
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("truncatedConnections", connections.get());
+            map.put("requests", requests.get());
+            map.put("nodesFetched", nodes.get());
+            map.put("cost", cost.get());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Second phase of a two-phase crawl: replaces the skeleton items of each page with fully detailed
+ * items fetched by id through the GraphQL {@code nodes(ids:)} field.
+ * The ids of a page are fetched in batches by a bounded number of concurrent requests, and the pages
+ * keep their cursor, so a hydrated crawl can be checkpointed and resumed like a single-phase one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NodeHydrator {
+
+    private final GraphQlPaginator paginator;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Hydrates the items of skeleton pages.
+     * Items rejected by the filter are left out of the hydrated pages. If a batch cannot be fetched,
+     * the stream ends before the page it belongs to, so the crawl is seen as incomplete.
+     *
+     * @param skeletons      Pages of skeleton items holding at least their ids
+     * @param name           Human readable name of the items, used for logging
+     * @param document       GraphQL query selecting {@code nodes(ids: $ids)}
+     * @param extractor      Converts the {@code nodes} array of a response into items
+     * @param idOf           Function returning the id of an item
+     * @param needsHydration Filter selecting the items to hydrate
+     * @param <T>            Type of the items
+     * @return Flux of hydrated pages
+     */
+    public <T> Flux<Page<T>> hydrate(Flux<Page<T>> skeletons, String name, String document,
+                                     Function<JsonNode, List<T>> extractor, Function<T, String> idOf,
+                                     Predicate<T> needsHydration) {
+        AtomicInteger skipped = new AtomicInteger();
+        return skeletons
+                // Fetch the next skeleton page while the current one is being hydrated
+                .concatMap(page -> hydratePage(page, name, document, extractor, idOf, needsHydration, skipped), 1)
+                .onErrorResume(e -> {
+                    log.error("Error hydrating {}: {}", name, e.getMessage(), e);
+                    return Flux.empty();
+                })
+                .doOnComplete(() -> {
+                    if (skipped.get() > 0) {
+                        log.info("Skipped hydrating {} unchanged {}", skipped.get(), name);
+                    }
+                });
+    }
+
+    /**
+     * Hydrates the items of a single page.
+     *
+     * @param page           The skeleton page
+     * @param name           Human readable name of the items
+     * @param document       GraphQL query selecting {@code nodes(ids: $ids)}
+     * @param extractor      Converts the {@code nodes} array of a response into items
+     * @param idOf           Function returning the id of an item
+     * @param needsHydration Filter selecting the items to hydrate
+     * @param skipped        Counter of items left out
+     * @param <T>            Type of the items
+     * @return Mono of the hydrated page
+     */
+    private <T> Mono<Page<T>> hydratePage(Page<T> page, String name, String document,
+                                          Function<JsonNode, List<T>> extractor, Function<T, String> idOf,
+                                          Predicate<T> needsHydration, AtomicInteger skipped) {
+        List<String> ids = page.getItems().stream()
+                .filter(needsHydration)
+                .map(idOf)
+                .toList();
+        skipped.addAndGet(page.getItems().size() - ids.size());
+
+        int concurrency = exportProperties.getTwoPhase().getConcurrency();
+        return Flux.fromIterable(batches(ids, exportProperties.getTwoPhase().getBatchSize()))
+                .flatMapSequential(batch -> paginator.query(name + " hydration", document, Map.of("ids", batch))
+                        .map(data -> extractor.apply(data.path("nodes"))), concurrency)
+                .concatMapIterable(items -> items)
+                .collectList()
+                .map(items -> {
+                    log.debug("Hydrated {} of {} {} on page {}", items.size(), page.getItems().size(), name,
+                            page.getNumber());
+                    return new Page<>(page.getNumber(), items, page.getEndCursor(), page.isHasNextPage(),
+                            page.getTotalCount(), page.getTotalFetched());
+                });
+    }
+
+    /**
+     * Splits ids into batches.
+     *
+     * @param ids       The ids
+     * @param batchSize Maximum number of ids per batch
+     * @return The batches, in order
+     */
+    private List<List<String>> batches(List<String> ids, int batchSize) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            batches.add(ids.subList(start, Math.min(ids.size(), start + batchSize)));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.dataexporter.service;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A single page of items fetched from a GitHub GraphQL connection,
+ * together with the pagination state needed to request the next one.
+ *
+ * @param <T> Type of the items in the page
+ */
+@Value
+public class Page<T> {
+
+    /**
+     * The 1-based page number within the crawl
+     */
+    int number;
+
+    /**
+     * Items converted from the connection's nodes
+     */
+    List<T> items;
+
+    /**
+     * Cursor to continue the crawl from: the last item of this page, or the first when paginating backward
+     */
+    String endCursor;
+
+    /**
+     * Whether the connection has more items in the direction of the crawl
+     */
+    boolean hasNextPage;
+
+    /**
+     * Total number of items in the connection, as reported by GitHub
+     */
+    int totalCount;
+
+    /**
+     * Number of items fetched so far, including this page
+     */
+    int totalFetched;
+
+    /**
+     * Checks whether this page ends the crawl, either because the connection has no more items
+     * or because the maximum number of items has been reached.
+     *
+     * @param maxItems Maximum number of items to fetch in total
+     * @return true if no further page needs to be fetched
+     */
+    public boolean isFinal(int maxItems) {
+        return !hasNextPage || totalFetched >= maxItems;
+    }
+
+    /**
+     * Describes how far the crawl has got through the connection.
+     *
+     * @return The number of items fetched against the connection's total count, with the percentage
+     *         when the total is known
+     */
+    public String progress() {
+        if (totalCount <= 0) {
+            return String.valueOf(totalFetched);
+        }
+        return totalFetched + "/" + totalCount + " (" + (100L * totalFetched / totalCount) + "%)";
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.dataexporter.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Merges the pages of several concurrent crawls over the same items into a single stream.
+ * Items that were already emitted are dropped, pages are renumbered and the total is capped at the
+ * maximum. Merged pages carry no cursor, since no single cursor can resume all crawls, and the stream
+ * ends with a final empty page only if all crawls together covered every item.
+ *
+ * @param <T> Type of the items
+ */
+class PageMerger<T> {
+
+    private final Function<T, String> idOf;
+    private final int maxItems;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pageNumber = new AtomicInteger();
+    private final AtomicInteger totalFetched = new AtomicInteger();
+
+    /**
+     * Creates a merger for one crawl.
+     *
+     * @param idOf     Function returning the id of an item
+     * @param maxItems Maximum number of items to emit in total
+     */
+    PageMerger(Function<T, String> idOf, int maxItems) {
+        this.idOf = idOf;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Merges the pages of the crawls.
+     *
+     * @param pages      Pages of all crawls, in any order
+     * @param totalCount Supplies the number of items expected in total
+     * @param complete   Tells, once all pages were received, whether the crawls covered every item
+     * @return Flux of merged pages
+     */
+    Flux<Page<T>> merge(Flux<Page<T>> pages, IntSupplier totalCount, BooleanSupplier complete) {
+        return pages
+                .map(page -> {
+                    List<T> items = page.getItems().stream()
+                            .filter(item -> seen.add(idOf.apply(item)))
+                            .limit(Math.max(0, maxItems - totalFetched.get()))
+                            .toList();
+                    return new Page<>(pageNumber.incrementAndGet(), items, null, true,
+                            totalCount.getAsInt(), totalFetched.addAndGet(items.size()));
+                })
+                .takeUntil(page -> page.getTotalFetched() >= maxItems)
+                .concatWith(Mono.fromCallable(() -> complete.getAsBoolean()
+                        ? new Page<T>(pageNumber.incrementAndGet(), List.of(), null, false,
+                                totalCount.getAsInt(), totalFetched.get())
+                        : null));
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Describes a cursor-paginated GraphQL query for {@link GraphQlPaginator}.
+ *
+ * @param <T> Type of the items produced by the query
+ */
+@Value
+@Builder(toBuilder = true)
+public class PageQuery<T> {
+
+    /**
+     * Human readable name of the items, used for logging (e.g. "issues")
+     */
+    String name;
+
+    /**
+     * The GraphQL document to execute
+     */
+    String document;
+
+    /**
+     * Builds the query variables from the page size and the cursor (null for the first page)
+     */
+    BiFunction<Integer, String, Map<String, Object>> variables;
+
+    /**
+     * Locates the paginated connection within the response data
+     */
+    Function<JsonNode, JsonNode> connection;
+
+    /**
+     * Field name of the paginated connection (e.g. "issues"), whose nodes are converted while the response is read
+     */
+    String field;
+
+    /**
+     * Converts a node of the connection into an item, or returns null to skip a node that cannot be converted
+     */
+    Function<JsonNode, T> mapper;
+
+    /**
+     * Number of items requested per page, or for the first page when the page size adapts
+     */
+    int pageSize;
+
+    /**
+     * Smallest page size the crawl may shrink to (0 to keep the page size fixed)
+     */
+    int minPageSize;
+
+    /**
+     * Largest page size the crawl may grow to (0 to keep the page size fixed)
+     */
+    int maxPageSize;
+
+    /**
+     * Maximum number of items to fetch in total
+     */
+    int maxItems;
+
+    /**
+     * Optional condition that ends the crawl after the page matching it, e.g. when an ordered
+     * connection has passed a point of interest. May be null.
+     */
+    Predicate<Page<T>> stopWhen;
+
+    /**
+     * Optional position to continue a previous crawl from, instead of starting at the first page.
+     * May be null.
+     */
+    ResumePoint resumeFrom;
+
+    /**
+     * Whether the connection is paginated from its end towards its start, using last/before
+     */
+    boolean backward;
+
+    /**
+     * Creates a copy of this query that paginates from the end of the connection towards its start.
+     * The variables built for a forward page are rewritten to use {@code last} and {@code before}.
+     *
+     * @return The backward query
+     */
+    public PageQuery<T> reversed() {
+        BiFunction<Integer, String, Map<String, Object>> forward = variables;
+        return toBuilder()
+                .backward(true)
+                .resumeFrom(null)
+                .variables((limit, cursor) -> {
+                    Map<String, Object> reversed = new HashMap<>(forward.apply(limit, null));
+                    reversed.remove("first");
+                    reversed.remove("after");
+                    reversed.put("last", limit);
+                    if (cursor != null) {
+                        reversed.put("before", cursor);
+                    }
+                    return reversed;
+                })
+                .build();
+    }
+
+    /**
+     * Identifies the crawl this query performs, independent of the position within it.
+     * The fingerprint covers the document and every variable except the page size and cursor,
+     * so it changes with the repository, filters, field profile and sort order.
+     *
+     * @param context Further settings the items of the crawl depend on, e.g. the crawl mode
+     * @return Hex-encoded SHA-256 hash identifying the crawl
+     */
+    public String fingerprint(Object... context) {
+        Map<String, Object> crawlVariables = new HashMap<>(variables.apply(pageSize, null));
+        for (String positional : List.of("first", "last", "after", "before")) {
+            crawlVariables.remove(positional);
+        }
+        StringBuilder input = new StringBuilder(document).append('\n').append(canonical(crawlVariables));
+        for (Object part : context) {
+            input.append('\n').append(part);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Converts a variable value to a string that does not depend on map iteration order.
+     *
+     * @param value The variable value
+     * @return The value with the entries of every map sorted by key
+     */
+    private static String canonical(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            TreeMap<String, String> sorted = new TreeMap<>();
+            map.forEach((key, entry) -> sorted.put(String.valueOf(key), canonical(entry)));
+            return sorted.toString();
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(PageQuery::canonical).toList().toString();
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,257 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Crawls a single repository in parallel by splitting its lifetime into {@code created:} windows
+ * and paginating each window through the GraphQL {@code search} connection.
+ * Search returns at most {@value #SEARCH_RESULT_LIMIT} results per query, so windows holding more
+ * are split in half until each fits. Pages of all windows are merged by a {@link PageMerger}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionedCrawler {
+
+    private final GraphQlPaginator paginator;
+    private final GitHubProperties gitHubProperties;
+    private final ExportProperties exportProperties;
+    private final QueryLoader queryLoader;
+
+    private static final String COUNT_QUERY_FILE = "graphql/count-query.graphql";
+    private static final String SEARCH_COUNT_QUERY_FILE = "graphql/search-count-query.graphql";
+
+    /**
+     * Maximum number of results GitHub returns for a single search.
+     */
+    static final int SEARCH_RESULT_LIMIT = 1000;
+
+    private static final Duration MIN_WINDOW = Duration.ofSeconds(1);
+
+    /**
+     * Crawls all items matching the qualifier, one search per created window.
+     * Pages carry no end cursor, since a cursor of one window cannot resume the whole crawl.
+     *
+     * @param template  Search query to paginate; the variables are supplied per window
+     * @param qualifier Search qualifier selecting the type of items, e.g. "is:issue"
+     * @param idOf      Function returning the id of an item, used to drop duplicates
+     * @param <T>       Type of the items
+     * @return Flux of merged pages
+     */
+    public <T> Flux<Page<T>> crawl(PageQuery<T> template, String qualifier, Function<T, String> idOf) {
+        return Flux.defer(() -> {
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            int partitions = exportProperties.getPartitions().getCount();
+            int concurrency = exportProperties.getPartitions().getConcurrency();
+
+            PageMerger<T> merger = new PageMerger<>(idOf, template.getMaxItems());
+            AtomicInteger windows = new AtomicInteger();
+            AtomicInteger expected = new AtomicInteger();
+            AtomicBoolean complete = new AtomicBoolean(true);
+
+            Flux<Page<T>> pages = repositoryCreatedAt()
+                    .flatMapMany(createdAt -> Flux.fromIterable(initialWindows(createdAt, now, partitions)))
+                    .concatMap(window -> resolve(window, qualifier, expected, complete))
+                    .doOnNext(window -> windows.incrementAndGet())
+                    .doOnComplete(() -> log.info("Crawling {} in {} created windows, {} expected",
+                            template.getName(), windows.get(), expected.get()))
+                    .flatMap(window -> crawlWindow(template, window, qualifier, complete), concurrency);
+            return merger.merge(pages, expected::get, complete::get);
+        });
+    }
+
+    /**
+     * Counts the results of a window and splits it until every part fits in a single search.
+     *
+     * @param window    The window to resolve
+     * @param qualifier Search qualifier selecting the type of items
+     * @param expected  Running total of the results in all resolved windows
+     * @param complete  Flag cleared if a window could not be counted
+     * @return Flux of windows that each fit in a single search, in created order
+     */
+    private Flux<Window> resolve(Window window, String qualifier, AtomicInteger expected, AtomicBoolean complete) {
+        Map<String, Object> variables = Map.of("query", searchQuery(qualifier, window));
+        return paginator.query("search count " + window, queryLoader.load(SEARCH_COUNT_QUERY_FILE), variables)
+                .map(data -> data.path("search").path("issueCount").asInt(0))
+                .flatMapMany(count -> {
+                    if (count == 0) {
+                        return Flux.<Window>empty();
+                    }
+                    if (count > SEARCH_RESULT_LIMIT && window.getDuration().compareTo(MIN_WINDOW) > 0) {
+                        log.debug("Splitting window {} holding {} results", window, count);
+                        Window[] halves = window.split();
+                        return Flux.concat(resolve(halves[0], qualifier, expected, complete),
+                                resolve(halves[1], qualifier, expected, complete));
+                    }
+                    if (count > SEARCH_RESULT_LIMIT) {
+                        log.warn("Window {} holds {} results, only the first {} can be fetched",
+                                window, count, SEARCH_RESULT_LIMIT);
+                    }
+                    expected.addAndGet(count);
+                    return Flux.just(window);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error counting results in window {}: {}", window, e.getMessage(), e);
+                    complete.set(false);
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Paginates the search results of a single window.
+     *
+     * @param template  Search query to paginate
+     * @param window    The window to crawl
+     * @param qualifier Search qualifier selecting the type of items
+     * @param complete  Flag cleared if the window crawl ends early
+     * @param <T>       Type of the items
+     * @return Flux of the window's pages
+     */
+    private <T> Flux<Page<T>> crawlWindow(PageQuery<T> template, Window window, String qualifier,
+                                          AtomicBoolean complete) {
+        String search = searchQuery(qualifier, window);
+        PageQuery<T> query = template.toBuilder()
+                .name(template.getName() + " created " + window)
+                .variables((limit, cursor) -> searchVariables(search, limit, cursor))
+                .maxItems(SEARCH_RESULT_LIMIT)
+                .build();
+
+        AtomicReference<Page<T>> lastPage = new AtomicReference<>();
+        return paginator.paginate(query)
+                .doOnNext(lastPage::set)
+                .doOnComplete(() -> {
+                    if (lastPage.get() == null || !lastPage.get().isFinal(SEARCH_RESULT_LIMIT)) {
+                        log.warn("Crawl of {} ended early", query.getName());
+                        complete.set(false);
+                    }
+                });
+    }
+
+    /**
+     * Splits the lifetime of the repository into equal windows.
+     *
+     * @param createdAt  When the repository was created
+     * @param now        End of the last window
+     * @param partitions Number of windows
+     * @return The windows in created order
+     */
+    private List<Window> initialWindows(Instant createdAt, Instant now, int partitions) {
+        long seconds = Math.max(1, Duration.between(createdAt, now).getSeconds());
+        long step = Math.max(1, (seconds + partitions - 1) / partitions);
+        List<Window> windows = new ArrayList<>();
+        Instant from = createdAt;
+        while (!from.isAfter(now)) {
+            Instant to = from.plusSeconds(step - 1);
+            if (to.isAfter(now)) {
+                to = now;
+            }
+            windows.add(new Window(from, to));
+            from = to.plusSeconds(1);
+        }
+        return windows;
+    }
+
+    /**
+     * Gets the creation time of the configured repository.
+     *
+     * @return Mono of the creation time, truncated to seconds
+     */
+    private Mono<Instant> repositoryCreatedAt() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", gitHubProperties.getRepository().getOwner());
+        variables.put("name", gitHubProperties.getRepository().getName());
+        return paginator.query("repository creation time", queryLoader.load(COUNT_QUERY_FILE), variables)
+                .map(data -> {
+                    JsonNode createdAt = data.path("repository").path("createdAt");
+                    if (!createdAt.isTextual()) {
+                        throw new IllegalStateException("Repository creation time not found");
+                    }
+                    return Instant.parse(createdAt.asText()).truncatedTo(ChronoUnit.SECONDS);
+                });
+    }
+
+    /**
+     * Builds the search string for a window.
+     *
+     * @param qualifier Search qualifier selecting the type of items
+     * @param window    The window
+     * @return The search string
+     */
+    private String searchQuery(String qualifier, Window window) {
+        return String.format("repo:%s/%s %s created:%s..%s sort:created-asc",
+                gitHubProperties.getRepository().getOwner(),
+                gitHubProperties.getRepository().getName(),
+                qualifier, window.getFrom(), window.getTo());
+    }
+
+    /**
+     * Creates the variables of a search page.
+     *
+     * @param search The search string
+     * @param limit  Maximum number of items to fetch in this request
+     * @param cursor Pagination cursor (null for first page)
+     * @return Map of query variables
+     */
+    private Map<String, Object> searchVariables(String search, int limit, String cursor) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("query", search);
+        variables.put("first", limit);
+        if (cursor != null && !cursor.isEmpty()) {
+            variables.put("after", cursor);
+        }
+        return variables;
+    }
+
+    /**
+     * An inclusive range of creation times, with second precision.
+     */
+    @Value
+    static class Window {
+        Instant from;
+        Instant to;
+
+        /**
+         * Gets the length of the window.
+         *
+         * @return The duration between start and end
+         */
+        Duration getDuration() {
+            return Duration.between(from, to);
+        }
+
+        /**
+         * Splits the window into two adjacent halves.
+         *
+         * @return The earlier and the later half
+         */
+        Window[] split() {
+            Instant middle = from.plusSeconds(getDuration().getSeconds() / 2);
+            return new Window[] {new Window(from, middle), new Window(middle.plusSeconds(1), to)};
+        }
+
+        @Override
+        public String toString() {
+            return from + ".." + to;
+        }
+    }
+}
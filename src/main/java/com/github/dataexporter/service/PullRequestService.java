@@ -3,21 +3,21 @@ package com.github.dataexporter.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.dataexporter.config.ExportProperties;
 import com.github.dataexporter.config.GitHubProperties;
 import com.github.dataexporter.model.PullRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.graphql.client.HttpGraphQlClient;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service for fetching GitHub pull requests using the GraphQL API.
@@ -28,13 +28,42 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class PullRequestService {
 
-    private final HttpGraphQlClient graphQlClient;
+    private final GraphQlPaginator paginator;
     private final GitHubProperties gitHubProperties;
     private final ExportProperties exportProperties;
     private final ObjectMapper objectMapper;
+    private final GitHubNodeNormalizer nodeNormalizer;
+    private final PartitionedCrawler partitionedCrawler;
+    private final BidirectionalCrawler bidirectionalCrawler;
+    private final NodeHydrator nodeHydrator;
+    private final NestedConnectionFetcher nestedConnectionFetcher;
+    private final QueryFilters queryFilters;
+    private final QueryLoader queryLoader;
 
     private static final String PULL_REQUEST_QUERY_FILE = "graphql/pull-request-query.graphql";
-    private static final String PULL_REQUEST_STATES_ALL = "[OPEN, CLOSED, MERGED]";
+    private static final String PULL_REQUEST_SEARCH_QUERY_FILE = "graphql/pull-request-search-query.graphql";
+    private static final String PULL_REQUEST_FIELDS_FILE = "graphql/pull-request-fields.graphql";
+    private static final String PULL_REQUEST_MINIMAL_FIELDS_FILE = "graphql/pull-request-minimal-fields.graphql";
+    private static final String PULL_REQUEST_STANDARD_FIELDS_FILE = "graphql/pull-request-standard-fields.graphql";
+    private static final String PULL_REQUEST_REVIEW_THREAD_FIELDS_FILE = "graphql/pull-request-review-thread-fields.graphql";
+    private static final String PULL_REQUEST_REVIEW_COMMENT_FIELDS_FILE = "graphql/pull-request-review-comment-fields.graphql";
+    private static final String PULL_REQUEST_REVIEW_FIELDS_FILE = "graphql/pull-request-review-fields.graphql";
+    private static final String PULL_REQUEST_COMMIT_FIELDS_FILE = "graphql/pull-request-commit-fields.graphql";
+    private static final String PULL_REQUEST_COMMIT_CHECK_FIELDS_FILE = "graphql/pull-request-commit-check-fields.graphql";
+    private static final String PULL_REQUEST_FILE_FIELDS_FILE = "graphql/pull-request-file-fields.graphql";
+    private static final String PULL_REQUEST_CHECK_CONTEXT_FIELDS_FILE = "graphql/pull-request-check-context-fields.graphql";
+    private static final List<String> PULL_REQUEST_FRAGMENT_FILES = List.of(
+            PULL_REQUEST_FIELDS_FILE,
+            PULL_REQUEST_REVIEW_THREAD_FIELDS_FILE,
+            PULL_REQUEST_REVIEW_COMMENT_FIELDS_FILE,
+            PULL_REQUEST_REVIEW_FIELDS_FILE,
+            PULL_REQUEST_FILE_FIELDS_FILE,
+            PULL_REQUEST_CHECK_CONTEXT_FIELDS_FILE);
+    private static final String PULL_REQUEST_TIMELINE_FIELDS_FILE = "graphql/pull-request-timeline-fields.graphql";
+    private static final String PULL_REQUEST_TIMELINE_ITEM_FIELDS_FILE = "graphql/pull-request-timeline-item-fields.graphql";
+    private static final String PULL_REQUEST_TIMELINE_EXCLUDED_FIELDS_FILE = "graphql/pull-request-timeline-excluded-fields.graphql";
+    private static final String PULL_REQUEST_SKELETON_FIELDS_FILE = "graphql/pull-request-skeleton-fields.graphql";
+    private static final String PULL_REQUEST_NODES_QUERY_FILE = "graphql/pull-request-nodes-query.graphql";
 
     /**
      * Fetches all pull requests from the configured GitHub repository.
@@ -43,82 +72,627 @@ public class PullRequestService {
      * @return List of PullRequest objects representing GitHub pull requests
      */
     public List<PullRequest> fetchAllPullRequests() {
-        log.info("Fetching pull requests for repository {}/{}",
-                gitHubProperties.getRepository().getOwner(),
-                gitHubProperties.getRepository().getName());
+        return fetchAllPullRequests(TimeWindow.ALL);
+    }
 
-        String query = loadQueryFromFile();
+    /**
+     * Fetches the pull requests updated within the given window from the configured GitHub repository.
+     *
+     * @param window Window of update times to fetch
+     * @return List of PullRequest objects representing GitHub pull requests
+     */
+    public List<PullRequest> fetchAllPullRequests(TimeWindow window) {
         List<PullRequest> allPullRequests = new ArrayList<>();
-        String cursor = null;
-        boolean hasNextPage = true;
-        AtomicInteger totalFetched = new AtomicInteger(0);
-        int maxItems = exportProperties.getPagination().getMaxItems();
-        int batchSize = exportProperties.getBatchSize();
-
-        while (hasNextPage && totalFetched.get() < maxItems) {
-            int remainingItems = maxItems - totalFetched.get();
-            int currentBatchSize = Math.min(batchSize, remainingItems);
-            
-            Map<String, Object> variables = createQueryVariables(currentBatchSize, cursor);
-            
-            try {
-                JsonNode response = executeGraphQLQuery(query, variables)
-                        .block(Duration.ofSeconds(30));
-                
-                if (response == null) {
-                    log.error("Null response received from GitHub API");
-                    break;
-                }
+        fetchAllPullRequests(window, allPullRequests::addAll);
+        return allPullRequests;
+    }
 
-                List<PullRequest> pullRequests = extractPullRequestsFromResponse(response);
-                if (pullRequests.isEmpty()) {
-                    break;
-                }
-                
-                allPullRequests.addAll(pullRequests);
-                totalFetched.addAndGet(pullRequests.size());
-                
-                JsonNode pageInfo = response.path("data").path("repository").path("pullRequests").path("pageInfo");
-                hasNextPage = pageInfo.path("hasNextPage").asBoolean(false);
-                cursor = pageInfo.path("endCursor").asText(null);
-                
-                log.info("Fetched {} pull requests, total: {}, hasNextPage: {}", 
-                        pullRequests.size(), totalFetched.get(), hasNextPage);
-                
-                // Respect GitHub's rate limits with a small delay between requests
-                if (hasNextPage) {
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        log.warn("Interrupted while waiting between API requests", e);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error fetching pull requests at cursor {}: {}", cursor, e.getMessage(), e);
-                break;
+    /**
+     * Fetches all pull requests from the configured GitHub repository, handing each page
+     * to the given consumer as soon as it has been converted.
+     * The page is not retained afterwards, so memory use is bounded by a single page.
+     *
+     * @param pageConsumer Consumer receiving each page of pull requests
+     * @return Total number of pull requests fetched
+     */
+    public int fetchAllPullRequests(Consumer<List<PullRequest>> pageConsumer) {
+        return fetchAllPullRequests(TimeWindow.ALL, pageConsumer);
+    }
+
+    /**
+     * Fetches the pull requests updated within the given window, handing each page to the consumer.
+     *
+     * @param window       Window of update times to fetch
+     * @param pageConsumer Consumer receiving each page of pull requests
+     * @return Total number of pull requests fetched
+     */
+    public int fetchAllPullRequests(TimeWindow window, Consumer<List<PullRequest>> pageConsumer) {
+        int totalFetched = fetchPullRequestPages(window)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .doOnNext(page -> pageConsumer.accept(page.getItems()))
+                .reduce(0, (total, page) -> page.getTotalFetched())
+                .blockOptional()
+                .orElse(0);
+
+        log.info("Completed fetching pull requests. Total pull requests fetched: {}", totalFetched);
+        return totalFetched;
+    }
+
+    /**
+     * Streams all pull requests from the configured GitHub repository.
+     * The next page is only requested once downstream has consumed the current one.
+     *
+     * @return Flux of PullRequest objects in the order returned by GitHub
+     */
+    public Flux<PullRequest> streamPullRequests() {
+        return fetchPullRequestPages(TimeWindow.ALL).concatMapIterable(Page::getItems);
+    }
+
+    /**
+     * Paginates through the pull requests of the configured GitHub repository, most recently updated first.
+     * When the window has a start, the crawl stops after the first page that reaches a pull request
+     * updated before it, and older pull requests are dropped from that page. The last page of a crawl
+     * that reached the start of the window reports no next page.
+     *
+     * @param window Window of update times to fetch
+     * @return Flux of pages of pull requests
+     */
+    public Flux<Page<PullRequest>> fetchPullRequestPages(TimeWindow window) {
+        return fetchPullRequestPages(window, null);
+    }
+
+    /**
+     * Paginates through the pull requests of the configured GitHub repository, continuing a previous crawl.
+     *
+     * @param window     Window of update times to fetch
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @return Flux of pages of pull requests
+     */
+    public Flux<Page<PullRequest>> fetchPullRequestPages(TimeWindow window, ResumePoint resumeFrom) {
+        return fetchPullRequestPages(window, resumeFrom, pr -> true);
+    }
+
+    /**
+     * Paginates through the pull requests of the configured GitHub repository, continuing a previous crawl.
+     * In two-phase mode only skeletons are crawled, and the full details are fetched for the pull
+     * requests accepted by the filter; the other pull requests are left out of the pages.
+     * When the window has an end, the pull requests updated after it are skipped by crawling skeletons
+     * until the first page that enters the window, and the full crawl continues from there.
+     *
+     * @param window         Window of update times to fetch
+     * @param resumeFrom     Position to continue from (null to start at the first page)
+     * @param needsHydration Filter selecting the skeletons to fetch full details for in two-phase mode
+     * @return Flux of pages of pull requests
+     */
+    public Flux<Page<PullRequest>> fetchPullRequestPages(TimeWindow window, ResumePoint resumeFrom,
+                                                         Predicate<PullRequest> needsHydration) {
+        return Flux.defer(() -> {
+            log.info("Fetching pull requests for repository {}/{}{}",
+                    gitHubProperties.getRepository().getOwner(),
+                    gitHubProperties.getRepository().getName(),
+                    window.isBounded() ? " updated within " + window : "");
+
+            boolean twoPhase = exportProperties.getTwoPhase().isEnabled();
+            Flux<Page<PullRequest>> pages;
+            if (window.getUntil() != null && resumeFrom == null && !twoPhase && !queryFilters.requiresPullRequestSearch()) {
+                pages = skipToWindow(window).flatMapMany(start ->
+                        crawlPullRequestPages(window, start.orElse(null), false));
+            } else {
+                pages = crawlPullRequestPages(window, resumeFrom, twoPhase);
+            }
+            if (window.isBounded()) {
+                // Skeletons carry updatedAt, so the window is applied before hydration
+                pages = pages.map(page -> trimToWindow(page, window));
+            }
+            if (twoPhase) {
+                pages = nodeHydrator.hydrate(pages, "pull requests", loadDocument(PULL_REQUEST_NODES_QUERY_FILE, false),
+                        this::extractPullRequests, PullRequest::getId, needsHydration);
             }
+            return completePullRequestPages(pages);
+        });
+    }
+
+    /**
+     * Fetches the rest of the nested connections the pull requests query only returns the first page of.
+     *
+     * @param pages Pages of pull requests as returned by the pull requests query
+     * @return Flux of pages of complete pull requests
+     */
+    Flux<Page<PullRequest>> completePullRequestPages(Flux<Page<PullRequest>> pages) {
+        // Threads fetched in the first stage may have truncated comments of their own
+        pages = nestedConnectionFetcher.complete(pages, reviewThreadsConnection());
+        pages = nestedConnectionFetcher.complete(pages, reviewThreadCommentsConnection());
+        pages = nestedConnectionFetcher.complete(pages, reviewsConnection());
+        pages = nestedConnectionFetcher.complete(pages, checkContextsConnection());
+        if (exportProperties.getNestedConnections().isDeepFetch()) {
+            pages = nestedConnectionFetcher.complete(pages, commitsConnection());
+            pages = nestedConnectionFetcher.complete(pages, filesConnection());
         }
+        return pages;
+    }
 
-        log.info("Completed fetching pull requests. Total pull requests fetched: {}", allPullRequests.size());
-        return allPullRequests;
+    /**
+     * Describes the commits connection of a pull request, which the pull requests query only returns
+     * the first page of.
+     *
+     * @return The commits connection
+     */
+    private NestedConnection<PullRequest> commitsConnection() {
+        return NestedConnection.<PullRequest>builder()
+                .name("pull request commits")
+                .typeName("PullRequest")
+                .field("commits")
+                .selection("...PullRequestCommitFields")
+                .fragments(queryLoader.load(commitFieldsFile()))
+                .cursorsOf(NestedConnection.ownCursor(PullRequest::getId, PullRequest::getCommitsEndCursor))
+                .appender(this::appendCommits)
+                .build();
     }
 
     /**
-     * Loads the GraphQL query from a file on the classpath.
+     * Describes the changed files connection of a pull request, which the pull requests query only
+     * returns the first page of.
      *
-     * @return The query string
+     * @return The changed files connection
      */
-    private String loadQueryFromFile() {
-        try {
-            ClassPathResource resource = new ClassPathResource(PULL_REQUEST_QUERY_FILE);
-            byte[] bytes = resource.getInputStream().readAllBytes();
-            return new String(bytes, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            log.error("Failed to load GraphQL query from file: {}", PULL_REQUEST_QUERY_FILE, e);
-            throw new RuntimeException("Failed to load GraphQL query", e);
+    private NestedConnection<PullRequest> filesConnection() {
+        return NestedConnection.<PullRequest>builder()
+                .name("pull request files")
+                .typeName("PullRequest")
+                .field("files")
+                .selection("...PullRequestChangedFileFields")
+                .fragments(queryLoader.load(PULL_REQUEST_FILE_FIELDS_FILE))
+                .cursorsOf(NestedConnection.ownCursor(PullRequest::getId, PullRequest::getFilesEndCursor))
+                .appender((pullRequest, fileNodes) -> pullRequest.setFiles(
+                        append(pullRequest, pullRequest.getFiles(), fileNodes, PullRequest.ChangedFile.class)))
+                .build();
+    }
+
+    /**
+     * Describes the review threads connection of a pull request, which the pull requests query only
+     * returns the first page of.
+     *
+     * @return The review threads connection
+     */
+    private NestedConnection<PullRequest> reviewThreadsConnection() {
+        return NestedConnection.<PullRequest>builder()
+                .name("pull request review threads")
+                .typeName("PullRequest")
+                .field("reviewThreads")
+                .selection("...PullRequestReviewThreadFields")
+                .fragments(queryLoader.load(PULL_REQUEST_REVIEW_THREAD_FIELDS_FILE) + "\n"
+                        + queryLoader.load(PULL_REQUEST_REVIEW_COMMENT_FIELDS_FILE))
+                .cursorsOf(NestedConnection.ownCursor(PullRequest::getId, PullRequest::getReviewThreadsEndCursor))
+                .appender(this::appendReviewThreads)
+                .build();
+    }
+
+    /**
+     * Describes the comments connection of a review thread, which only holds the first comments of
+     * each thread.
+     *
+     * @return The review thread comments connection
+     */
+    private NestedConnection<PullRequest> reviewThreadCommentsConnection() {
+        return NestedConnection.<PullRequest>builder()
+                .name("pull request review comments")
+                .typeName("PullRequestReviewThread")
+                .field("comments")
+                .selection("...PullRequestReviewCommentFields")
+                .fragments(queryLoader.load(PULL_REQUEST_REVIEW_COMMENT_FIELDS_FILE))
+                .cursorsOf(pr -> pr.getReviewThreadCommentsEndCursors() != null
+                        ? pr.getReviewThreadCommentsEndCursors()
+                        : Map.of())
+                .appender(this::appendReviewComments)
+                .build();
+    }
+
+    /**
+     * Describes the reviews connection of a pull request, which the pull requests query only returns
+     * the first page of.
+     *
+     * @return The reviews connection
+     */
+    private NestedConnection<PullRequest> reviewsConnection() {
+        return NestedConnection.<PullRequest>builder()
+                .name("pull request reviews")
+                .typeName("PullRequest")
+                .field("reviews")
+                .selection("...PullRequestReviewFields")
+                .fragments(queryLoader.load(PULL_REQUEST_REVIEW_FIELDS_FILE))
+                .cursorsOf(NestedConnection.ownCursor(PullRequest::getId, PullRequest::getReviewsEndCursor))
+                .appender(this::appendReviews)
+                .build();
+    }
+
+    /**
+     * Describes the contexts connection of the status check rollup of a pull request's head commit,
+     * which the pull requests query only returns the first checks of.
+     *
+     * @return The check contexts connection
+     */
+    private NestedConnection<PullRequest> checkContextsConnection() {
+        return NestedConnection.<PullRequest>builder()
+                .name("pull request checks")
+                .typeName("StatusCheckRollup")
+                .field("contexts")
+                .selection("...PullRequestCheckContextFields")
+                .fragments(queryLoader.load(PULL_REQUEST_CHECK_CONTEXT_FIELDS_FILE))
+                .cursorsOf(NestedConnection.ownCursor(PullRequest::getCheckRollupId, PullRequest::getCheckContextsEndCursor))
+                .appender(this::appendCheckContexts)
+                .build();
+    }
+
+    /**
+     * Adds a page of fetched review threads to a pull request, as review comments.
+     * Threads whose comments are truncated are remembered so their remaining comments can be fetched.
+     *
+     * @param pullRequest The pull request
+     * @param threadNodes JsonNode array of review thread nodes
+     */
+    private void appendReviewThreads(PullRequest pullRequest, JsonNode threadNodes) {
+        ArrayNode comments = objectMapper.createArrayNode();
+        ObjectNode cursors = objectMapper.createObjectNode();
+        int commentCount = nodeNormalizer.flattenReviewThreads(threadNodes, comments, cursors);
+        appendReviewComments(pullRequest, comments);
+
+        Map<String, String> threadCursors = pullRequest.getReviewThreadCommentsEndCursors() != null
+                ? new HashMap<>(pullRequest.getReviewThreadCommentsEndCursors())
+                : new HashMap<>();
+        cursors.fields().forEachRemaining(cursor -> threadCursors.put(cursor.getKey(), cursor.getValue().asText()));
+        pullRequest.setReviewThreadCommentsEndCursors(threadCursors);
+        pullRequest.setReviewCommentCount(Objects.requireNonNullElse(pullRequest.getReviewCommentCount(), 0) + commentCount);
+    }
+
+    /**
+     * Adds a page of fetched review comments to a pull request.
+     *
+     * @param pullRequest  The pull request
+     * @param commentNodes JsonNode array of review comment nodes
+     */
+    private void appendReviewComments(PullRequest pullRequest, JsonNode commentNodes) {
+        pullRequest.setReviewComments(append(pullRequest, pullRequest.getReviewComments(), commentNodes,
+                PullRequest.ReviewComment.class));
+    }
+
+    /**
+     * Adds a page of fetched reviews to a pull request.
+     *
+     * @param pullRequest The pull request
+     * @param reviewNodes JsonNode array of review nodes
+     */
+    private void appendReviews(PullRequest pullRequest, JsonNode reviewNodes) {
+        pullRequest.setReviews(append(pullRequest, pullRequest.getReviews(), reviewNodes, PullRequest.Review.class));
+    }
+
+    /**
+     * Adds a page of fetched status check rollup contexts to a pull request, as check runs and status checks.
+     *
+     * @param pullRequest  The pull request
+     * @param contextNodes JsonNode array of rollup context nodes
+     */
+    private void appendCheckContexts(PullRequest pullRequest, JsonNode contextNodes) {
+        ArrayNode checkRuns = objectMapper.createArrayNode();
+        ArrayNode statusChecks = objectMapper.createArrayNode();
+        nodeNormalizer.splitCheckContexts(contextNodes, checkRuns, statusChecks);
+        pullRequest.setCheckRuns(append(pullRequest, pullRequest.getCheckRuns(), checkRuns, PullRequest.CheckRun.class));
+        pullRequest.setStatusChecks(
+                append(pullRequest, pullRequest.getStatusChecks(), statusChecks, PullRequest.StatusCheck.class));
+    }
+
+    /**
+     * Adds a page of fetched commits to a pull request.
+     *
+     * @param pullRequest The pull request
+     * @param commitNodes JsonNode array of pull request commit nodes, each wrapping its commit
+     */
+    private void appendCommits(PullRequest pullRequest, JsonNode commitNodes) {
+        ArrayNode commits = objectMapper.createArrayNode();
+        commitNodes.forEach(node -> commits.add(nodeNormalizer.moveCommitChecks(node.path("commit"))));
+        pullRequest.setCommits(append(pullRequest, pullRequest.getCommits(), commits, PullRequest.Commit.class));
+    }
+
+    /**
+     * Converts fetched nodes and appends them to a list of a pull request.
+     *
+     * @param pullRequest The pull request, used for logging
+     * @param existing    The current list, may be null
+     * @param nodes       JsonNode array of the nodes to append
+     * @param type        Model class of the nodes
+     * @param <T>         Type of the list elements
+     * @return A new list holding the existing elements followed by the converted nodes
+     */
+    private <T> List<T> append(PullRequest pullRequest, List<T> existing, JsonNode nodes, Class<T> type) {
+        List<T> result = existing != null ? new ArrayList<>(existing) : new ArrayList<>();
+        for (JsonNode node : nodes) {
+            try {
+                result.add(objectMapper.treeToValue(nodeNormalizer.normalizeNode(node), type));
+            } catch (JsonProcessingException e) {
+                log.error("Error converting {} node of pull request #{}: {}", type.getSimpleName(),
+                        pullRequest.getNumber(), e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Crawls skeletons, most recently updated first, to find where the pull requests updated within
+     * the window begin. Skeleton pages are far cheaper than full ones, so the pull requests updated
+     * after the window only cost their skeletons.
+     *
+     * @param window Window of update times to fetch, with an end
+     * @return Mono of the position after the last skeleton page updated entirely after the window,
+     *         or empty if the first page already enters it
+     */
+    private Mono<Optional<ResumePoint>> skipToWindow(TimeWindow window) {
+        PageQuery<PullRequest> skeletons = createPageQuery(TimeWindow.ALL, null, true).toBuilder()
+                .name("pull request skeletons")
+                .stopWhen(page -> !isAfterWindow(page, window))
+                .build();
+        return paginator.paginate(skeletons)
+                .takeWhile(page -> isAfterWindow(page, window) && page.getEndCursor() != null)
+                .map(page -> Optional.of(new ResumePoint(page.getEndCursor(), 0, 0)))
+                .last(Optional.empty())
+                .doOnNext(start -> start.ifPresent(point ->
+                        log.info("Skipped pull requests updated after {}", window.getUntil())));
+    }
+
+    /**
+     * Checks whether all pull requests of a page were updated after the end of the window.
+     *
+     * @param page   The page to check
+     * @param window The window
+     * @return true if the page holds no pull request updated within or before the window
+     */
+    private boolean isAfterWindow(Page<PullRequest> page, TimeWindow window) {
+        return page.getItems().stream().allMatch(pr -> window.isAfter(pr.getUpdatedAt()));
+    }
+
+    /**
+     * Paginates through the skeletons of all pull requests, holding only their id, number and update time.
+     *
+     * @return Flux of pages of pull request skeletons
+     */
+    public Flux<Page<PullRequest>> fetchPullRequestSkeletonPages() {
+        return crawlPullRequestPages(TimeWindow.ALL, null, true);
+    }
+
+    /**
+     * Crawls the pull requests using the configured crawl mode.
+     * Filters the pull requests connection cannot apply force a crawl through search, limited to the
+     * update times of the window; such a crawl cannot continue from a cursor and starts over.
+     *
+     * @param window     Stop the crawl at pull requests updated before the start of this window
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @param skeleton   Whether to only fetch the id, number and update time of each pull request
+     * @return Flux of pages of pull requests
+     */
+    private Flux<Page<PullRequest>> crawlPullRequestPages(TimeWindow window, ResumePoint resumeFrom, boolean skeleton) {
+        if (queryFilters.requiresPullRequestSearch()) {
+            String updated = window.isBounded() ? " updated:" + window : "";
+            return queryFilters.pullRequestSearchQualifier().flatMapMany(qualifier ->
+                    partitionedCrawler.crawl(createSearchQuery(skeleton), qualifier + updated, PullRequest::getId))
+                    .map(this::keepSelectedStates);
+        }
+        // Alternative crawl modes only apply to full crawls, which need no cursor order
+        ExportProperties.CrawlMode crawlMode = exportProperties.getCrawlMode();
+        boolean fullCrawl = !window.isBounded() && resumeFrom == null;
+        if (fullCrawl && crawlMode == ExportProperties.CrawlMode.PARTITIONED) {
+            return queryFilters.pullRequestSearchQualifier().flatMapMany(qualifier ->
+                    partitionedCrawler.crawl(createSearchQuery(skeleton), qualifier, PullRequest::getId))
+                    .map(this::keepSelectedStates);
+        }
+        if (fullCrawl && crawlMode == ExportProperties.CrawlMode.BIDIRECTIONAL) {
+            return bidirectionalCrawler.crawl(createPageQuery(TimeWindow.ALL, null, skeleton), PullRequest::getId);
+        }
+        return paginator.paginate(createPageQuery(window, resumeFrom, skeleton));
+    }
+
+    /**
+     * Checks whether a full crawl returns the pull requests most recently updated first.
+     * Only serial crawls over the pull requests connection do; search and the alternative crawl
+     * modes return them in creation order or from both ends.
+     *
+     * @return true if a full crawl is ordered by update time, newest first
+     */
+    public boolean crawlsNewestFirst() {
+        return !queryFilters.requiresPullRequestSearch()
+                && exportProperties.getCrawlMode() == ExportProperties.CrawlMode.SERIAL;
+    }
+
+    /**
+     * Removes pull requests in states that are not exported from a page of search results.
+     * Search cannot select every combination of states, so some pages include closed pull requests.
+     *
+     * @param page The page to filter
+     * @return The page itself, or a copy without the pull requests in other states
+     */
+    private Page<PullRequest> keepSelectedStates(Page<PullRequest> page) {
+        List<String> states = queryFilters.pullRequestStates();
+        if (page.getItems().stream().allMatch(pr -> states.contains(pr.getState()))) {
+            return page;
         }
+        List<PullRequest> selected = page.getItems().stream()
+                .filter(pr -> states.contains(pr.getState()))
+                .toList();
+        return new Page<>(page.getNumber(), selected, page.getEndCursor(), page.isHasNextPage(),
+                page.getTotalCount(), page.getTotalFetched());
+    }
+
+    /**
+     * Identifies the crawl of the pull requests within the given window, so that a checkpoint is only
+     * resumed by a crawl whose cursor it can continue.
+     *
+     * @param window Window of update times to fetch
+     * @return Fingerprint of the repository, query, variables and crawl settings
+     */
+    public String crawlFingerprint(TimeWindow window) {
+        boolean twoPhase = exportProperties.getTwoPhase().isEnabled();
+        // In two-phase mode the cursor comes from the skeleton crawl and the fields from the full query.
+        // The filters decide whether the crawl goes through search, which the query variables do not show
+        return createPageQuery(window, null, twoPhase).fingerprint(exportProperties.getCrawlMode(), window,
+                loadDocument(PULL_REQUEST_QUERY_FILE, false), exportProperties.getFilters());
+    }
+
+    /**
+     * Creates the paginated query for the pull requests of the configured GitHub repository.
+     *
+     * @param window     Stop the crawl at pull requests updated before the start of this window
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @return The pull requests query
+     */
+    PageQuery<PullRequest> createPageQuery(TimeWindow window, ResumePoint resumeFrom) {
+        return createPageQuery(window, resumeFrom, false);
+    }
+
+    /**
+     * Creates the paginated query for the pull requests of the configured GitHub repository.
+     *
+     * @param window     Stop the crawl at pull requests updated before the start of this window
+     * @param resumeFrom Position to continue from (null to start at the first page)
+     * @param skeleton   Whether to only fetch the id, number and update time of each pull request
+     * @return The pull requests query
+     */
+    private PageQuery<PullRequest> createPageQuery(TimeWindow window, ResumePoint resumeFrom, boolean skeleton) {
+        return withPageSize(PageQuery.<PullRequest>builder(), skeleton)
+                .name("pull requests")
+                .document(loadDocument(PULL_REQUEST_QUERY_FILE, skeleton))
+                .variables(this::createQueryVariables)
+                .connection(data -> data.path("repository").path("pullRequests"))
+                .field("pullRequests")
+                .mapper(this::toPullRequest)
+                .maxItems(exportProperties.getPagination().getItemLimit())
+                .stopWhen(window.getSince() != null ? page -> reachesWindowStart(page, window) : null)
+                .resumeFrom(resumeFrom)
+                .build();
+    }
+
+    /**
+     * Creates the search query for the pull requests of the configured GitHub repository.
+     * The search string and cursor are supplied per window by the {@link PartitionedCrawler}.
+     *
+     * @param skeleton Whether to only fetch the id, number and update time of each pull request
+     * @return The pull requests search query
+     */
+    private PageQuery<PullRequest> createSearchQuery(boolean skeleton) {
+        return withPageSize(PageQuery.<PullRequest>builder(), skeleton)
+                .name("pull requests")
+                .document(loadDocument(PULL_REQUEST_SEARCH_QUERY_FILE, skeleton))
+                .connection(data -> data.path("search"))
+                .field("search")
+                .mapper(this::toPullRequest)
+                .maxItems(exportProperties.getPagination().getItemLimit())
+                .build();
+    }
+
+    /**
+     * Applies the configured page size and bounds to a query.
+     * Skeleton crawls start at the skeleton page size, since their pages are small.
+     *
+     * @param builder  The query builder
+     * @param skeleton Whether the query fetches skeletons
+     * @return The builder
+     */
+    private PageQuery.PageQueryBuilder<PullRequest> withPageSize(PageQuery.PageQueryBuilder<PullRequest> builder,
+                                                                 boolean skeleton) {
+        ExportProperties.PageSize.Bounds bounds = exportProperties.getPageSize().getPullRequests();
+        int skeletonPageSize = exportProperties.getTwoPhase().getSkeletonPageSize();
+        return builder
+                .pageSize(skeleton ? skeletonPageSize : exportProperties.getBatchSize())
+                .minPageSize(bounds.getMin())
+                .maxPageSize(skeleton ? Math.max(bounds.getMin(), skeletonPageSize) : bounds.getMax());
+    }
+
+    /**
+     * Checks whether a page contains a pull request updated before the start of the window.
+     * Pages are ordered by UPDATED_AT DESC, so no later page can contain newer pull requests.
+     *
+     * @param page   The page to check
+     * @param window The window
+     * @return true if the page reaches past the start of the window
+     */
+    private boolean reachesWindowStart(Page<PullRequest> page, TimeWindow window) {
+        return page.getItems().stream().anyMatch(pr -> window.isBefore(pr.getUpdatedAt()));
+    }
+
+    /**
+     * Removes pull requests updated outside the window from a page.
+     *
+     * @param page   The page to trim
+     * @param window The window
+     * @return The page itself, or a copy without the pull requests outside the window; the copy reports
+     *         no next page if the page reached past the start of the window
+     */
+    private Page<PullRequest> trimToWindow(Page<PullRequest> page, TimeWindow window) {
+        if (page.getItems().stream().allMatch(pr -> window.contains(pr.getUpdatedAt()))) {
+            return page;
+        }
+        List<PullRequest> inWindow = page.getItems().stream()
+                .filter(pr -> window.contains(pr.getUpdatedAt()))
+                .toList();
+        return new Page<>(page.getNumber(), inWindow, page.getEndCursor(),
+                page.isHasNextPage() && !reachesWindowStart(page, window),
+                page.getTotalCount(), page.getTotalFetched());
+    }
+
+    /**
+     * Loads a GraphQL query together with the fragment selecting the pull request fields.
+     *
+     * @param queryFile Classpath location of the query
+     * @param skeleton  Whether to select only the id, number and update time instead of all fields
+     * @return The query document
+     */
+    private String loadDocument(String queryFile, boolean skeleton) {
+        return queryLoader.load(queryFile) + "\n" + loadFragments(skeleton);
+    }
+
+    /**
+     * Loads the fragments selecting the pull request fields, to be appended to a query using
+     * {@code ...PullRequestFields}. The fields are those of the configured profile; only the fragments
+     * the profile uses are included, since GitHub rejects documents with unused fragments.
+     *
+     * @param skeleton Whether to select only the id, number and update time instead of all fields
+     * @return The fragment definitions
+     */
+    String loadFragments(boolean skeleton) {
+        if (skeleton) {
+            return queryLoader.load(PULL_REQUEST_SKELETON_FIELDS_FILE);
+        }
+        ExportProperties.Profile profile = exportProperties.getProfile();
+        if (profile == ExportProperties.Profile.MINIMAL) {
+            return queryLoader.load(PULL_REQUEST_MINIMAL_FIELDS_FILE);
+        }
+        if (profile == ExportProperties.Profile.STANDARD) {
+            return queryLoader.load(PULL_REQUEST_STANDARD_FIELDS_FILE)
+                    + "\n" + queryLoader.load(PULL_REQUEST_REVIEW_FIELDS_FILE);
+        }
+        StringJoiner fragments = new StringJoiner("\n");
+        for (String fragmentFile : PULL_REQUEST_FRAGMENT_FILES) {
+            fragments.add(queryLoader.load(fragmentFile));
+        }
+        fragments.add(queryLoader.load(commitFieldsFile()));
+        // Timelines streamed by the timeline pipeline are left out of the pull request records
+        if (exportProperties.getTimeline().isEnabled()) {
+            fragments.add(queryLoader.load(PULL_REQUEST_TIMELINE_EXCLUDED_FIELDS_FILE));
+        } else {
+            fragments.add(queryLoader.load(PULL_REQUEST_TIMELINE_FIELDS_FILE))
+                    .add(queryLoader.load(PULL_REQUEST_TIMELINE_ITEM_FIELDS_FILE));
+        }
+        // The check context count is inlined, since the slimmer profiles would leave a variable unused
+        return fragments.toString().replace("$checkContexts", String.valueOf(exportProperties.getCheckContexts()));
+    }
+
+    /**
+     * Gets the fragment file selecting the commit fields for the configured check mode.
+     * Exhaustive mode also selects the status contexts and check suites of every commit, which makes
+     * up most of the cost of a pull request.
+     *
+     * @return Classpath location of the commit fragment
+     */
+    private String commitFieldsFile() {
+        return exportProperties.getCheckMode() == ExportProperties.CheckMode.EXHAUSTIVE
+                ? PULL_REQUEST_COMMIT_CHECK_FIELDS_FILE
+                : PULL_REQUEST_COMMIT_FIELDS_FILE;
     }
 
     /**
@@ -133,7 +707,10 @@ public class PullRequestService {
         variables.put("owner", gitHubProperties.getRepository().getOwner());
         variables.put("name", gitHubProperties.getRepository().getName());
         variables.put("first", limit);
-        variables.put("states", Arrays.asList("OPEN", "CLOSED", "MERGED")); // Fetch all pull request states
+        variables.put("states", queryFilters.pullRequestStates());
+        if (queryFilters.labels() != null) {
+            variables.put("labels", queryFilters.labels());
+        }
         
         // Add orderBy to sort by most recently updated
         Map<String, String> orderBy = new HashMap<>();
@@ -149,43 +726,24 @@ public class PullRequestService {
     }
 
     /**
-     * Executes the GraphQL query with the given variables.
-     *
-     * @param query     The GraphQL query
-     * @param variables The query variables
-     * @return Mono of JsonNode containing the response
-     */
-    private Mono<JsonNode> executeGraphQLQuery(String query, Map<String, Object> variables) {
-        return graphQlClient.document(query)
-                .variables(variables)
-                .retrieve("data")
-                .toEntity(JsonNode.class)
-                .doOnError(error -> log.error("GraphQL query execution failed: {}", error.getMessage(), error));
-    }
-
-    /**
-     * Extracts PullRequest objects from the GraphQL response.
+     * Extracts PullRequest objects from the nodes of a GraphQL response.
      *
-     * @param response The GraphQL response as JsonNode
+     * @param prNodes The pull request nodes of the response
      * @return List of PullRequest objects
      */
-    private List<PullRequest> extractPullRequestsFromResponse(JsonNode response) {
+    private List<PullRequest> extractPullRequests(JsonNode prNodes) {
         List<PullRequest> pullRequests = new ArrayList<>();
         
         try {
-            JsonNode prNodes = response.path("repository").path("pullRequests").path("nodes");
             if (prNodes.isMissingNode() || !prNodes.isArray()) {
                 log.error("Invalid response format: pull request nodes not found or not an array");
                 return pullRequests;
             }
             
             for (JsonNode prNode : prNodes) {
-                try {
-                    // Convert the pull request node to our PullRequest model
-                    PullRequest pullRequest = convertToPullRequest(prNode);
+                PullRequest pullRequest = toPullRequest(prNode);
+                if (pullRequest != null) {
                     pullRequests.add(pullRequest);
-                } catch (Exception e) {
-                    log.error("Error converting pull request node to PullRequest object: {}", e.getMessage(), e);
                 }
             }
         } catch (Exception e) {
@@ -195,6 +753,22 @@ public class PullRequestService {
         return pullRequests;
     }
 
+    /**
+     * Converts a pull request node of a GraphQL response, skipping a node that cannot be converted.
+     *
+     * @param prNode JsonNode containing pull request data
+     * @return PullRequest object, or null if the node could not be converted
+     */
+    private PullRequest toPullRequest(JsonNode prNode) {
+        try {
+            // Convert the pull request node to our PullRequest model
+            return convertToPullRequest(prNode);
+        } catch (Exception e) {
+            log.error("Error converting pull request node to PullRequest object: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Converts a JsonNode representing a GitHub pull request to a PullRequest object.
      *
@@ -203,6 +777,6 @@ public class PullRequestService {
      */
     private PullRequest convertToPullRequest(JsonNode prNode) throws JsonProcessingException {
         // For complex nested structures, using Jackson's tree-to-value conversion
-        return objectMapper.treeToValue(prNode, PullRequest.class);
+        return objectMapper.treeToValue(nodeNormalizer.normalizePullRequest(prNode), PullRequest.class);
     }
 }
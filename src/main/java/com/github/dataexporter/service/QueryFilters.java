@@ -0,0 +1,234 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Translates the configured export filters into GraphQL variables and search qualifiers,
+ * so that GitHub only returns the matching issues and pull requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueryFilters {
+
+    private final ExportProperties exportProperties;
+    private final GitHubProperties gitHubProperties;
+    private final GraphQlPaginator paginator;
+    private final QueryLoader queryLoader;
+
+    private static final String MILESTONE_QUERY_FILE = "graphql/milestone-query.graphql";
+    private static final String ANY = "*";
+    private static final String NONE = "none";
+
+    /**
+     * Gets the issue states to fetch.
+     *
+     * @return List of issue states
+     */
+    public List<String> issueStates() {
+        return exportProperties.getFilters().getIssueStates();
+    }
+
+    /**
+     * Gets the pull request states to fetch.
+     *
+     * @return List of pull request states
+     */
+    public List<String> pullRequestStates() {
+        return exportProperties.getFilters().getPullRequestStates();
+    }
+
+    /**
+     * Gets the labels to filter by.
+     *
+     * @return List of label names, or null if items are not filtered by label
+     */
+    public List<String> labels() {
+        List<String> labels = exportProperties.getFilters().getLabels();
+        return labels == null || labels.isEmpty() ? null : labels;
+    }
+
+    /**
+     * Builds the {@code IssueFilters} input of the issues connection.
+     *
+     * @param since Only fetch issues updated at or after this time (null for all issues)
+     * @return Map of issue filters, or null if no filter applies
+     */
+    public Map<String, Object> issueFilterBy(Instant since) {
+        ExportProperties.Filters filters = exportProperties.getFilters();
+        Map<String, Object> filterBy = new HashMap<>();
+        if (isSet(filters.getAssignee())) {
+            // GitHub selects unassigned issues with an explicit null
+            filterBy.put("assignee", NONE.equalsIgnoreCase(filters.getAssignee()) ? null : filters.getAssignee());
+        }
+        if (isSet(filters.getCreator())) {
+            filterBy.put("createdBy", filters.getCreator());
+        }
+        if (isSet(filters.getMentioned())) {
+            filterBy.put("mentioned", filters.getMentioned());
+        }
+        if (isSet(filters.getMilestone())) {
+            // GitHub selects issues without a milestone with an explicit null, and any milestone with "*"
+            filterBy.put("milestoneNumber", NONE.equalsIgnoreCase(filters.getMilestone()) ? null : filters.getMilestone());
+        }
+        if (labels() != null) {
+            filterBy.put("labels", labels());
+        }
+        if (since != null) {
+            filterBy.put("since", since.toString());
+        }
+        return filterBy.isEmpty() ? null : filterBy;
+    }
+
+    /**
+     * Builds the search qualifiers selecting the matching issues.
+     *
+     * @return Mono of the search qualifiers, starting with {@code is:issue}
+     */
+    public Mono<String> issueSearchQualifier() {
+        StringJoiner qualifier = new StringJoiner(" ").add("is:issue");
+        Set<String> states = Set.copyOf(issueStates());
+        if (states.equals(Set.of("OPEN"))) {
+            qualifier.add("is:open");
+        } else if (states.equals(Set.of("CLOSED"))) {
+            qualifier.add("is:closed");
+        }
+        return addCommonQualifiers(qualifier);
+    }
+
+    /**
+     * Builds the search qualifiers selecting the matching pull requests.
+     * Search cannot select open and merged pull requests without closed ones, so that combination
+     * is left unfiltered by state and has to be filtered once fetched.
+     *
+     * @return Mono of the search qualifiers, starting with {@code is:pr}
+     */
+    public Mono<String> pullRequestSearchQualifier() {
+        StringJoiner qualifier = new StringJoiner(" ").add("is:pr");
+        Set<String> states = Set.copyOf(pullRequestStates());
+        if (states.equals(Set.of("OPEN"))) {
+            qualifier.add("is:open");
+        } else if (states.equals(Set.of("CLOSED"))) {
+            qualifier.add("is:closed is:unmerged");
+        } else if (states.equals(Set.of("MERGED"))) {
+            qualifier.add("is:merged");
+        } else if (states.equals(Set.of("CLOSED", "MERGED"))) {
+            qualifier.add("is:closed");
+        } else if (states.equals(Set.of("OPEN", "CLOSED"))) {
+            qualifier.add("is:unmerged");
+        } else if (states.equals(Set.of("OPEN", "MERGED"))) {
+            log.debug("Search cannot exclude closed unmerged pull requests; they are dropped once fetched");
+        }
+        return addCommonQualifiers(qualifier);
+    }
+
+    /**
+     * Checks whether a filter is set that the pull requests connection cannot apply.
+     * Pull requests have to be crawled through search to honour the assignee, creator, mention
+     * and milestone filters.
+     *
+     * @return true if any filter other than state and label is set
+     */
+    public boolean requiresPullRequestSearch() {
+        return exportProperties.getFilters().requiresPullRequestSearch();
+    }
+
+    /**
+     * Adds the qualifiers shared by issue and pull request searches.
+     * Search selects milestones by title, so a configured milestone number is looked up first.
+     *
+     * @param qualifier The qualifiers built so far
+     * @return Mono of the complete search qualifiers
+     * @throws IllegalStateException (as error signal) if the configured milestone does not exist
+     */
+    private Mono<String> addCommonQualifiers(StringJoiner qualifier) {
+        ExportProperties.Filters filters = exportProperties.getFilters();
+        if (labels() != null) {
+            StringJoiner labels = new StringJoiner(",", "label:", "");
+            labels().forEach(label -> labels.add("\"" + label + "\""));
+            qualifier.add(labels.toString());
+        }
+        if (isSet(filters.getAssignee())) {
+            qualifier.add(presenceQualifier("assignee", filters.getAssignee()));
+        }
+        if (isSet(filters.getCreator())) {
+            qualifier.add("author:" + filters.getCreator());
+        }
+        if (isSet(filters.getMentioned())) {
+            qualifier.add("mentions:" + filters.getMentioned());
+        }
+        String milestone = filters.getMilestone();
+        if (!isSet(milestone)) {
+            return Mono.just(qualifier.toString());
+        }
+        if (ANY.equals(milestone) || NONE.equalsIgnoreCase(milestone)) {
+            qualifier.add(presenceQualifier("milestone", milestone));
+            return Mono.just(qualifier.toString());
+        }
+        return milestoneTitle(milestone)
+                .map(title -> qualifier.add("milestone:\"" + title + "\"").toString());
+    }
+
+    /**
+     * Looks up the title of a milestone of the configured repository.
+     *
+     * @param number The milestone number
+     * @return Mono of the milestone title
+     * @throws IllegalStateException (as error signal) if the repository has no such milestone
+     */
+    private Mono<String> milestoneTitle(String number) {
+        return Mono.defer(() -> {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("owner", gitHubProperties.getRepository().getOwner());
+            variables.put("name", gitHubProperties.getRepository().getName());
+            variables.put("number", Integer.parseInt(number.trim()));
+            return paginator.query("milestone #" + number, queryLoader.load(MILESTONE_QUERY_FILE), variables);
+        }).map(data -> {
+            JsonNode title = data.path("repository").path("milestone").path("title");
+            if (!title.isTextual()) {
+                throw new IllegalStateException("Milestone #" + number + " not found");
+            }
+            return title.asText();
+        });
+    }
+
+    /**
+     * Builds a qualifier for a field that may be required to be set, to be empty, or to have a value.
+     *
+     * @param field The search field (assignee, milestone)
+     * @param value "*" for any value, "none" for no value, or the value itself
+     * @return The search qualifier
+     */
+    private String presenceQualifier(String field, String value) {
+        if (ANY.equals(value)) {
+            return "-no:" + field;
+        }
+        if (NONE.equalsIgnoreCase(value)) {
+            return "no:" + field;
+        }
+        return field + ":" + value;
+    }
+
+    /**
+     * Checks whether an optional filter is set.
+     *
+     * @param value The filter value
+     * @return true if the value is neither null nor blank
+     */
+    private boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.dataexporter.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads GraphQL documents and fragments from the classpath for the services that build queries.
+ */
+@Component
+@Slf4j
+public class QueryLoader {
+
+    /**
+     * Loads a GraphQL query from a file on the classpath.
+     *
+     * @param queryFile Classpath location of the query
+     * @return The query string
+     */
+    public String load(String queryFile) {
+        try {
+            ClassPathResource resource = new ClassPathResource(queryFile);
+            byte[] bytes = resource.getInputStream().readAllBytes();
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("Failed to load GraphQL query from file: {}", queryFile, e);
+            throw new RuntimeException("Failed to load GraphQL query", e);
+        }
+    }
+}
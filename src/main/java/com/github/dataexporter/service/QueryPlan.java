@@ -0,0 +1,112 @@
+package com.github.dataexporter.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Pre-flight plan for crawling one connection, based on GitHub's dry run cost of candidate page sizes.
+ */
+@Value
+@Builder
+public class QueryPlan {
+
+    /**
+     * Human readable name of the items, e.g. "issues"
+     */
+    String name;
+
+    /**
+     * The recommended page size
+     */
+    int pageSize;
+
+    /**
+     * Rate limit cost of a page at the recommended size
+     */
+    int costPerPage;
+
+    /**
+     * Estimated number of nodes a page at the recommended size may return
+     */
+    long nodesPerPage;
+
+    /**
+     * Total number of items in the connection
+     */
+    int totalCount;
+
+    /**
+     * Number of items the crawl will fetch, after applying the configured maximum
+     */
+    int itemsToFetch;
+
+    /**
+     * Number of pages needed at the recommended size
+     */
+    int pages;
+
+    /**
+     * Estimated rate limit cost of the whole crawl
+     */
+    long estimatedCost;
+
+    /**
+     * Rate limit points remaining when the plan was made
+     */
+    int remainingBudget;
+
+    /**
+     * When the rate limit budget resets
+     */
+    Instant resetAt;
+
+    /**
+     * Whether the crawl fits in the remaining budget
+     */
+    boolean fitsInBudget;
+
+    /**
+     * Estimated duration of the crawl in seconds, including waits for rate limit resets
+     */
+    long estimatedSeconds;
+
+    /**
+     * All page sizes that were evaluated
+     */
+    List<Candidate> candidates;
+
+    /**
+     * Dry run result for one candidate page size.
+     */
+    @Value
+    public static class Candidate {
+
+        /**
+         * The page size
+         */
+        int pageSize;
+
+        /**
+         * Rate limit cost of a page
+         */
+        int cost;
+
+        /**
+         * Estimated number of nodes a page may return
+         */
+        long nodes;
+
+        /**
+         * Items fetched per rate limit point
+         */
+        double itemsPerPoint;
+
+        /**
+         * Whether a page stays under GitHub's node limit
+         */
+        boolean withinNodeLimit;
+    }
+}
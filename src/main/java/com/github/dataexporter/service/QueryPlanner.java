@@ -0,0 +1,335 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plans crawls before they start.
+ * The issue and pull request queries are sent as dry runs for a few candidate page sizes, and the size
+ * yielding the most items per rate limit point while staying under GitHub's node limit is recommended.
+ * Combined with the connections' total counts, this tells whether a crawl fits in the remaining budget.
+ * Plans are advisory: crawls still start at the configured page size and adapt it as they go.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QueryPlanner {
+
+    private final GraphQlPaginator paginator;
+    private final IssueService issueService;
+    private final PullRequestService pullRequestService;
+    private final GitHubProperties gitHubProperties;
+    private final ExportProperties exportProperties;
+    private final QueryFilters queryFilters;
+    private final QueryLoader queryLoader;
+
+    private static final String COUNT_QUERY_FILE = "graphql/count-query.graphql";
+
+    /**
+     * Maximum number of nodes GitHub allows a single query to return.
+     */
+    static final long NODE_LIMIT = 500_000;
+
+    private static final Pattern PAGE_ARGUMENT = Pattern.compile("\\b(?:first|last)\\s*:\\s*(\\$?\\w+)");
+    private static final Pattern FRAGMENT_DEFINITION = Pattern.compile("\\bfragment\\s+(\\w+)\\s+on\\s+(\\w+)\\s*\\{");
+    private static final Pattern FRAGMENT_SPREAD = Pattern.compile("\\.\\.\\.\\s*(?!on\\b)([A-Za-z_]\\w*)");
+    private static final int MAX_FRAGMENT_DEPTH = 10;
+
+    /**
+     * Plans the issues and pull requests crawls.
+     *
+     * @return Plans keyed by "issues" and "pullRequests", or null if the repository could not be queried
+     */
+    public Map<String, QueryPlan> plan() {
+        try {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("owner", gitHubProperties.getRepository().getOwner());
+            variables.put("name", gitHubProperties.getRepository().getName());
+            // Count only the items the configured filters select
+            variables.put("issueStates", queryFilters.issueStates());
+            variables.put("issueFilterBy", queryFilters.issueFilterBy(null));
+            variables.put("pullRequestStates", queryFilters.pullRequestStates());
+            variables.put("pullRequestLabels", queryFilters.labels());
+            JsonNode counts = paginator.query("item counts", queryLoader.load(COUNT_QUERY_FILE), variables).block();
+            if (counts == null) {
+                return null;
+            }
+
+            JsonNode repository = counts.path("repository");
+            JsonNode rateLimit = counts.path("rateLimit");
+            Map<String, QueryPlan> plans = new LinkedHashMap<>();
+            plans.put("issues", planQuery(issueService.createPageQuery(TimeWindow.ALL, null),
+                    repository.path("issues").path("totalCount").asInt(0), rateLimit));
+            plans.put("pullRequests", planQuery(pullRequestService.createPageQuery(TimeWindow.ALL, null),
+                    repository.path("pullRequests").path("totalCount").asInt(0), rateLimit));
+
+            long totalCost = plans.values().stream().mapToLong(QueryPlan::getEstimatedCost).sum();
+            int remaining = rateLimit.path("remaining").asInt(0);
+            if (totalCost > remaining) {
+                log.warn("Planned crawls cost an estimated {} points but only {} remain until {}",
+                        totalCost, remaining, rateLimit.path("resetAt").asText());
+            }
+            return plans;
+        } catch (Exception e) {
+            log.error("Failed to plan crawls: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Plans a single crawl from dry runs of its query.
+     *
+     * @param query      The query to plan
+     * @param totalCount Total number of items in the connection
+     * @param rateLimit  The current rate limit status
+     * @param <T>        Type of the items produced by the query
+     * @return The plan
+     */
+    private <T> QueryPlan planQuery(PageQuery<T> query, int totalCount, JsonNode rateLimit) {
+        List<QueryPlan.Candidate> candidates = new ArrayList<>();
+        for (int pageSize : candidatePageSizes(query)) {
+            Map<String, Object> variables = new HashMap<>(query.getVariables().apply(pageSize, null));
+            variables.put("dryRun", true);
+            try {
+                JsonNode data = paginator.query(query.getName() + " dry run", query.getDocument(), variables).block();
+                int cost = Math.max(1, data != null ? data.path("rateLimit").path("cost").asInt(1) : 1);
+                long nodes = estimateNodes(query.getDocument(), variables);
+                candidates.add(new QueryPlan.Candidate(pageSize, cost, nodes, (double) pageSize / cost,
+                        nodes <= NODE_LIMIT));
+            } catch (Exception e) {
+                log.warn("Dry run of {} with page size {} failed: {}", query.getName(), pageSize, e.getMessage());
+            }
+        }
+
+        QueryPlan.Candidate recommended = candidates.stream()
+                .filter(QueryPlan.Candidate::isWithinNodeLimit)
+                .max(Comparator.comparingDouble(QueryPlan.Candidate::getItemsPerPoint)
+                        .thenComparingInt(QueryPlan.Candidate::getPageSize))
+                .orElseGet(() -> {
+                    int pageSize = query.getPageSize();
+                    return new QueryPlan.Candidate(pageSize, 1, 0, pageSize, true);
+                });
+
+        int itemsToFetch = Math.min(totalCount, query.getMaxItems());
+        int pages = Math.max(1, (itemsToFetch + recommended.getPageSize() - 1) / recommended.getPageSize());
+        long estimatedCost = (long) pages * recommended.getCost();
+        int remaining = rateLimit.path("remaining").asInt(0);
+        int limit = Math.max(1, rateLimit.path("limit").asInt(5000));
+        Instant resetAt = rateLimit.hasNonNull("resetAt")
+                ? Instant.parse(rateLimit.get("resetAt").asText())
+                : Instant.now().plus(Duration.ofHours(1));
+
+        // Pages take roughly the configured latency each, plus a wait for every reset the crawl runs into
+        Duration duration = exportProperties.getPlanner().getPageLatency().multipliedBy(pages);
+        if (estimatedCost > remaining) {
+            long windows = (estimatedCost - remaining + limit - 1) / limit;
+            Duration untilReset = Duration.between(Instant.now(), resetAt);
+            duration = duration.plus(untilReset.isNegative() ? Duration.ZERO : untilReset).plusHours(windows - 1);
+        }
+
+        QueryPlan plan = QueryPlan.builder()
+                .name(query.getName())
+                .pageSize(recommended.getPageSize())
+                .costPerPage(recommended.getCost())
+                .nodesPerPage(recommended.getNodes())
+                .totalCount(totalCount)
+                .itemsToFetch(itemsToFetch)
+                .pages(pages)
+                .estimatedCost(estimatedCost)
+                .remainingBudget(remaining)
+                .resetAt(resetAt)
+                .fitsInBudget(estimatedCost <= remaining)
+                .estimatedSeconds(duration.getSeconds())
+                .candidates(candidates)
+                .build();
+
+        log.info("Advisory plan for {}: {} items in {} pages of {} at {} points each, "
+                        + "estimated cost {} of {} remaining, ~{}s",
+                plan.getName(), itemsToFetch, pages, plan.getPageSize(), plan.getCostPerPage(),
+                estimatedCost, remaining, plan.getEstimatedSeconds());
+        return plan;
+    }
+
+    /**
+     * Gets the configured candidate page sizes that lie within the query's bounds.
+     *
+     * @param query The query being planned
+     * @return Candidate page sizes
+     */
+    private List<Integer> candidatePageSizes(PageQuery<?> query) {
+        int min = query.getMinPageSize() > 0 ? query.getMinPageSize() : 1;
+        int max = query.getMaxPageSize() > 0 ? query.getMaxPageSize() : 100;
+        return exportProperties.getPlanner().getCandidatePageSizes().stream()
+                .filter(size -> size >= min && size <= max)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Estimates the maximum number of nodes a query may return, the way GitHub enforces its node limit:
+     * each connection contributes its {@code first} or {@code last} argument multiplied by those of
+     * all enclosing connections.
+     *
+     * @param document  The GraphQL query
+     * @param variables The query variables, used to resolve page size variables
+     * @return The estimated number of nodes
+     */
+    static long estimateNodes(String document, Map<String, Object> variables) {
+        document = inlineFragments(document);
+        Deque<Long> scopes = new ArrayDeque<>();
+        long pending = 0;
+        long total = 0;
+
+        // Skip the operation's variable definitions
+        int i = document.indexOf('{');
+        while (i >= 0 && i < document.length()) {
+            char c = document.charAt(i);
+            if (c == '#') {
+                int end = document.indexOf('\n', i);
+                i = end < 0 ? document.length() : end;
+            } else if (c == '"') {
+                int end = document.indexOf('"', i + 1);
+                i = end < 0 ? document.length() : end;
+            } else if (c == '(') {
+                int end = document.indexOf(')', i);
+                if (end < 0) {
+                    break;
+                }
+                pending = pageArgument(document.substring(i + 1, end), variables);
+                i = end;
+            } else if (c == '{') {
+                long parent = scopes.isEmpty() ? 1 : scopes.peek();
+                long multiplier = pending > 0 ? parent * pending : parent;
+                if (pending > 0) {
+                    total += multiplier;
+                }
+                scopes.push(multiplier);
+                pending = 0;
+            } else if (c == '}') {
+                if (!scopes.isEmpty()) {
+                    scopes.pop();
+                }
+            } else if (Character.isLetter(c) || c == '_') {
+                // A field without a selection set after its arguments is not a connection
+                pending = 0;
+                while (i + 1 < document.length()
+                        && (Character.isLetterOrDigit(document.charAt(i + 1)) || document.charAt(i + 1) == '_')) {
+                    i++;
+                }
+            }
+            i++;
+        }
+        return total;
+    }
+
+    /**
+     * Replaces named fragment spreads with equivalent inline fragments and drops the fragment definitions,
+     * so that the operation can be measured on its own.
+     *
+     * @param document The GraphQL document
+     * @return The operation with all known fragments inlined
+     */
+    static String inlineFragments(String document) {
+        Map<String, String> fragments = new HashMap<>();
+        StringBuilder operation = new StringBuilder();
+        Matcher definition = FRAGMENT_DEFINITION.matcher(document);
+        int last = 0;
+        while (definition.find(last)) {
+            int end = closingBrace(document, definition.end() - 1);
+            fragments.put(definition.group(1),
+                    "... on " + definition.group(2) + " " + document.substring(definition.end() - 1, end + 1));
+            operation.append(document, last, definition.start());
+            last = end + 1;
+        }
+        operation.append(document.substring(last));
+
+        // Fragments may spread other fragments, so expand until nothing changes
+        String result = operation.toString();
+        for (int depth = 0; depth < MAX_FRAGMENT_DEPTH; depth++) {
+            Matcher spread = FRAGMENT_SPREAD.matcher(result);
+            StringBuilder expanded = new StringBuilder();
+            boolean changed = false;
+            while (spread.find()) {
+                String fragment = fragments.get(spread.group(1));
+                changed |= fragment != null;
+                spread.appendReplacement(expanded, Matcher.quoteReplacement(fragment != null ? fragment : spread.group()));
+            }
+            spread.appendTail(expanded);
+            result = expanded.toString();
+            if (!changed) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the brace closing the selection set opened at the given position.
+     *
+     * @param document The GraphQL document
+     * @param open     Position of the opening brace
+     * @return Position of the closing brace, or the end of the document if it is unbalanced
+     */
+    private static int closingBrace(String document, int open) {
+        int depth = 0;
+        for (int i = open; i < document.length(); i++) {
+            char c = document.charAt(i);
+            if (c == '#') {
+                int end = document.indexOf('\n', i);
+                i = end < 0 ? document.length() : end;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return document.length() - 1;
+    }
+
+    /**
+     * Resolves the page size argument of a field.
+     *
+     * @param arguments The field's arguments
+     * @param variables The query variables
+     * @return The value of first or last, or 0 if the field has neither set
+     */
+    private static long pageArgument(String arguments, Map<String, Object> variables) {
+        // A connection may declare both first and last, of which only the one set for the crawl applies
+        Matcher matcher = PAGE_ARGUMENT.matcher(arguments);
+        while (matcher.find()) {
+            String value = matcher.group(1);
+            long size = 0;
+            if (value.startsWith("$")) {
+                Object variable = variables.get(value.substring(1));
+                size = variable instanceof Number number ? number.longValue() : 0;
+            } else {
+                try {
+                    size = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring page argument {}", value);
+                }
+            }
+            if (size > 0) {
+                return size;
+            }
+        }
+        return 0;
+    }
+}
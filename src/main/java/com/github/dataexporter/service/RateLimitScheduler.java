@@ -0,0 +1,183 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.dataexporter.config.GitHubProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide scheduler that paces GitHub GraphQL requests against the rate limit budget.
+ * The budget is tracked from the {@code rateLimit} field of query responses and from the
+ * {@code x-ratelimit-*} response headers. While more than half of the budget remains, requests
+ * are only spaced by a small minimum interval; below that, the remaining points are spread
+ * evenly until the window resets, so the budget is used fully without running into a 403.
+ */
+@Component
+@Slf4j
+public class RateLimitScheduler {
+
+    private static final Duration MIN_INTERVAL = Duration.ofMillis(100);
+    private static final Duration RESET_MARGIN = Duration.ofSeconds(1);
+
+    private final GitHubProperties.Api.RateLimit properties;
+    private final Clock clock;
+
+    private int limit;
+    private int remaining;
+    private int lastCost = 1;
+    private Instant resetAt;
+    private Instant nextSlot;
+
+    @Autowired
+    public RateLimitScheduler(GitHubProperties gitHubProperties) {
+        this(gitHubProperties, Clock.systemUTC());
+    }
+
+    RateLimitScheduler(GitHubProperties gitHubProperties, Clock clock) {
+        this.properties = gitHubProperties.getApi().getRateLimit();
+        this.clock = clock;
+        this.limit = properties.getMaxRequests();
+        this.remaining = limit;
+        this.resetAt = clock.instant().plusSeconds(properties.getPerHour());
+        this.nextSlot = clock.instant();
+    }
+
+    /**
+     * Waits for the next request slot.
+     * The slot is reserved when the returned Mono is subscribed to.
+     *
+     * @return Mono completing when the request may be sent
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            Duration delay = reserve();
+            return delay.isZero() ? Mono.empty() : Mono.delay(delay).then();
+        });
+    }
+
+    /**
+     * Reserves the next request slot, charging the estimated cost against the local budget.
+     *
+     * @return How long the caller must wait before sending the request
+     */
+    synchronized Duration reserve() {
+        if (!properties.isEnabled()) {
+            return Duration.ZERO;
+        }
+
+        Instant now = clock.instant();
+        if (!resetAt.isAfter(now)) {
+            // The window has rolled over without us observing it; assume a full budget
+            remaining = limit;
+            resetAt = now.plusSeconds(properties.getPerHour());
+        }
+
+        Instant start = nextSlot.isAfter(now) ? nextSlot : now;
+        if (remaining < lastCost) {
+            start = resetAt.plus(RESET_MARGIN);
+            log.warn("Rate limit budget exhausted ({} remaining), waiting until {}", remaining, start);
+            remaining = limit;
+            resetAt = start.plusSeconds(properties.getPerHour());
+        }
+
+        nextSlot = start.plus(interval(start));
+        remaining -= lastCost;
+        return Duration.between(now, start);
+    }
+
+    /**
+     * Computes the spacing to the following request.
+     *
+     * @param start When the current request is sent
+     * @return The interval to keep before the next request
+     */
+    private Duration interval(Instant start) {
+        if (remaining > limit / 2) {
+            return MIN_INTERVAL;
+        }
+        long requestsLeft = Math.max(1, remaining / Math.max(1, lastCost));
+        Duration paced = Duration.between(start, resetAt).dividedBy(requestsLeft);
+        return paced.compareTo(MIN_INTERVAL) > 0 ? paced : MIN_INTERVAL;
+    }
+
+    /**
+     * Updates the budget from the {@code rateLimit { cost remaining resetAt limit }} field of a response.
+     *
+     * @param rateLimit The rateLimit node of the response data, may be missing
+     */
+    public synchronized void recordRateLimit(JsonNode rateLimit) {
+        if (rateLimit == null || rateLimit.isMissingNode() || rateLimit.isNull()) {
+            return;
+        }
+        if (rateLimit.hasNonNull("cost")) {
+            lastCost = Math.max(1, rateLimit.get("cost").asInt());
+        }
+        if (rateLimit.hasNonNull("limit")) {
+            limit = rateLimit.get("limit").asInt();
+        }
+        if (rateLimit.hasNonNull("remaining")) {
+            remaining = rateLimit.get("remaining").asInt();
+        }
+        if (rateLimit.hasNonNull("resetAt")) {
+            resetAt = Instant.parse(rateLimit.get("resetAt").asText());
+        }
+        log.debug("Rate limit: cost {}, remaining {}/{}, resets at {}", lastCost, remaining, limit, resetAt);
+    }
+
+    /**
+     * Updates the budget from the {@code x-ratelimit-*} headers of a response.
+     *
+     * @param headers The response headers
+     */
+    public synchronized void recordHeaders(HttpHeaders headers) {
+        String limitHeader = headers.getFirst("x-ratelimit-limit");
+        String remainingHeader = headers.getFirst("x-ratelimit-remaining");
+        String resetHeader = headers.getFirst("x-ratelimit-reset");
+        try {
+            if (limitHeader != null) {
+                limit = Integer.parseInt(limitHeader);
+            }
+            if (remainingHeader != null) {
+                remaining = Integer.parseInt(remainingHeader);
+            }
+            if (resetHeader != null) {
+                resetAt = Instant.ofEpochSecond(Long.parseLong(resetHeader));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed rate limit headers: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the time at which the current rate limit window resets.
+     *
+     * @return The reset time
+     */
+    public synchronized Instant getResetAt() {
+        return resetAt;
+    }
+
+    /**
+     * Gets the current view of the rate limit budget.
+     *
+     * @return Map describing the budget
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("limit", limit);
+        status.put("remaining", remaining);
+        status.put("lastCost", lastCost);
+        status.put("resetAt", resetAt.toString());
+        return status;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.dataexporter.service;
+
+import lombok.Value;
+
+/**
+ * Position in a cursor-paginated crawl from which pagination can continue.
+ */
+@Value
+public class ResumePoint {
+
+    /**
+     * End cursor of the last page that was durably processed
+     */
+    String cursor;
+
+    /**
+     * Number of the last page that was durably processed
+     */
+    int pageNumber;
+
+    /**
+     * Number of items fetched up to and including that page
+     */
+    int totalFetched;
+}
@@ -0,0 +1,230 @@
+package com.github.dataexporter.service;
+
+import com.github.dataexporter.config.GitHubProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry policy for GitHub GraphQL requests.
+ * Failures are classified as transient (timeouts, connection errors, 5xx responses, rate limiting)
+ * or permanent (authentication, bad requests, invalid queries). Transient failures are retried with
+ * capped exponential backoff and equal jitter, or after the delay GitHub asks for via {@code Retry-After}.
+ * Because the retried request is the same one, pagination continues from the same cursor.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetryPolicy {
+
+    private final GitHubProperties gitHubProperties;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong permanentFailures = new AtomicLong();
+    private final AtomicLong backoffMillis = new AtomicLong();
+
+    /**
+     * Applies the retry policy to a request.
+     * The request is resubscribed on each retry, so it must be lazy.
+     *
+     * @param request     The request to retry
+     * @param description Description of the request, used for logging
+     * @param <T>         Type of the response
+     * @return The request with retries applied
+     */
+    public <T> Mono<T> withRetries(Mono<T> request, String description) {
+        GitHubProperties.Api.Retry properties = gitHubProperties.getApi().getRetry();
+        if (!properties.isEnabled()) {
+            return request;
+        }
+
+        return request.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            long attempt = signal.totalRetriesInARow() + 1;
+            if (!isTransient(failure)) {
+                permanentFailures.incrementAndGet();
+                return Mono.error(failure);
+            }
+            if (attempt > properties.getMaxRetries()) {
+                exhausted.incrementAndGet();
+                log.error("Giving up on {} after {} retries: {}", description, attempt - 1, failure.getMessage());
+                return Mono.error(failure);
+            }
+
+            Duration delay = retryAfter(failure).orElseGet(() -> backoff(attempt));
+            retries.incrementAndGet();
+            backoffMillis.addAndGet(delay.toMillis());
+            log.warn("Transient failure on {} ({}), retry {}/{} in {} ms",
+                    description, failure.getMessage(), attempt, properties.getMaxRetries(), delay.toMillis());
+            return Mono.delay(delay);
+        })));
+    }
+
+    /**
+     * Classifies a failure as transient or permanent.
+     *
+     * @param failure The failure
+     * @return true if retrying the same request may succeed
+     */
+    public boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException response) {
+                int status = response.getStatusCode().value();
+                return status >= 500 || status == 429 || (status == 403 && isRateLimited(response));
+            }
+            if (cause instanceof RateLimitedException
+                    || cause instanceof TimeoutException
+                    || cause instanceof WebClientRequestException
+                    || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a failure means GitHub could not serve the request in time,
+     * which a smaller request is more likely to avoid.
+     *
+     * @param failure The failure
+     * @return true for timeouts and 502, 503 and 504 responses
+     */
+    public boolean isOverload(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException response) {
+                int status = response.getStatusCode().value();
+                return status == 502 || status == 503 || status == 504;
+            }
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the capped exponential backoff with equal jitter for an attempt: a random delay between
+     * half and all of the capped backoff, so retries are spread out but never fire right away.
+     *
+     * @param attempt The 1-based retry attempt
+     * @return Delay before the retry
+     */
+    Duration backoff(long attempt) {
+        GitHubProperties.Api.Retry properties = gitHubProperties.getApi().getRetry();
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long exponential = initial << Math.min(attempt - 1, 30);
+        long capped = exponential <= 0 ? max : Math.min(exponential, max);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(capped / 2, capped + 1));
+    }
+
+    /**
+     * Gets the delay requested by GitHub for a failed request, if any.
+     * Uses the Retry-After header, or the rate limit reset time when the budget is exhausted.
+     *
+     * @param failure The failure
+     * @return The requested delay, capped at one hour
+     */
+    private Optional<Duration> retryAfter(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RateLimitedException rateLimited) {
+                return Optional.of(untilReset(rateLimited.getResetAt()));
+            }
+            if (cause instanceof WebClientResponseException response) {
+                HttpHeaders headers = response.getHeaders();
+                try {
+                    String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+                    if (retryAfter != null) {
+                        return Optional.of(Duration.ofSeconds(Math.min(Long.parseLong(retryAfter.trim()), 3600)));
+                    }
+                    if ("0".equals(headers.getFirst("x-ratelimit-remaining"))
+                            && headers.getFirst("x-ratelimit-reset") != null) {
+                        return Optional.of(untilReset(
+                                Instant.ofEpochSecond(Long.parseLong(headers.getFirst("x-ratelimit-reset")))));
+                    }
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring malformed retry headers: {}", e.getMessage());
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Computes the delay until a rate limit reset, with a one second margin.
+     *
+     * @param resetAt When the rate limit resets
+     * @return The delay, capped at one hour
+     */
+    private Duration untilReset(Instant resetAt) {
+        Duration delay = Duration.between(Instant.now(), resetAt).plusSeconds(1);
+        if (delay.isNegative()) {
+            return Duration.ofSeconds(1);
+        }
+        return delay.compareTo(Duration.ofHours(1)) > 0 ? Duration.ofHours(1) : delay;
+    }
+
+    /**
+     * Checks whether a 403 response is GitHub's primary or secondary rate limit rather than a permission error.
+     *
+     * @param response The error response
+     * @return true if the response signals rate limiting
+     */
+    private boolean isRateLimited(WebClientResponseException response) {
+        HttpHeaders headers = response.getHeaders();
+        return headers.getFirst(HttpHeaders.RETRY_AFTER) != null
+                || "0".equals(headers.getFirst("x-ratelimit-remaining"))
+                || response.getResponseBodyAsString().toLowerCase(Locale.ROOT).contains("rate limit");
+    }
+
+    /**
+     * Gets the retry metrics collected since startup.
+     *
+     * @return Map of metric names to values
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("retries", retries.get());
+        metrics.put("retriesExhausted", exhausted.get());
+        metrics.put("permanentFailures", permanentFailures.get());
+        metrics.put("backoffMillis", backoffMillis.get());
+        return metrics;
+    }
+
+    /**
+     * Signals a GraphQL response rejected because the rate limit budget is exhausted.
+     */
+    public static class RateLimitedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Instant resetAt;
+
+        public RateLimitedException(String message, Instant resetAt) {
+            super(message);
+            this.resetAt = resetAt;
+        }
+
+        public Instant getResetAt() {
+            return resetAt;
+        }
+    }
+}
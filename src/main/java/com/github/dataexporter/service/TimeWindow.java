@@ -0,0 +1,119 @@
+package com.github.dataexporter.service;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Range of update times an export is limited to. Either bound may be open.
+ */
+@Value
+public class TimeWindow {
+
+    /**
+     * Window without bounds, selecting all items.
+     */
+    public static final TimeWindow ALL = new TimeWindow(null, null);
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * Only items updated at or after this time are selected (null for no lower bound)
+     */
+    Instant since;
+
+    /**
+     * Only items updated at or before this time are selected (null for no upper bound)
+     */
+    Instant until;
+
+    /**
+     * Creates a window with only a lower bound.
+     *
+     * @param since Lower bound of the update time (null for no lower bound)
+     * @return The window
+     */
+    public static TimeWindow since(Instant since) {
+        return new TimeWindow(since, null);
+    }
+
+    /**
+     * Checks whether the window has any bound.
+     *
+     * @return true if items are limited by update time
+     */
+    public boolean isBounded() {
+        return since != null || until != null;
+    }
+
+    /**
+     * Checks whether the window cannot contain any item because it starts after it ends.
+     *
+     * @return true if both bounds are set and the lower bound is after the upper bound
+     */
+    public boolean isEmpty() {
+        return since != null && until != null && since.isAfter(until);
+    }
+
+    /**
+     * Checks whether an item was updated before the window starts.
+     *
+     * @param updatedAt Update time of the item, may be null
+     * @return true if the update time is known and earlier than the lower bound
+     */
+    public boolean isBefore(ZonedDateTime updatedAt) {
+        return since != null && updatedAt != null && updatedAt.toInstant().isBefore(since);
+    }
+
+    /**
+     * Checks whether an item was updated after the window ends.
+     *
+     * @param updatedAt Update time of the item, may be null
+     * @return true if the update time is known and later than the upper bound
+     */
+    public boolean isAfter(ZonedDateTime updatedAt) {
+        return until != null && updatedAt != null && updatedAt.toInstant().isAfter(until);
+    }
+
+    /**
+     * Checks whether an item was updated within the window.
+     *
+     * @param updatedAt Update time of the item, may be null
+     * @return true unless the update time is known and outside the window
+     */
+    public boolean contains(ZonedDateTime updatedAt) {
+        return !isBefore(updatedAt) && !isAfter(updatedAt);
+    }
+
+    /**
+     * Gets the file a windowed export is written to, so that it never replaces the full export
+     * (or the incremental snapshot) at the given path.
+     * The bounds are appended to the file name, e.g. {@code issues-20240101T000000Z-max.json}.
+     *
+     * @param filePath Path of the full export file
+     * @return The path itself for an unbounded window, otherwise a sibling named after the window
+     */
+    public Path fileFor(Path filePath) {
+        if (!isBounded()) {
+            return filePath;
+        }
+        String fileName = filePath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String base = extension > 0 ? fileName.substring(0, extension) : fileName;
+        String suffix = extension > 0 ? fileName.substring(extension) : "";
+        return filePath.resolveSibling(base
+                + "-" + (since != null ? FILE_NAME_FORMAT.format(since) : "min")
+                + "-" + (until != null ? FILE_NAME_FORMAT.format(until) : "max")
+                + suffix);
+    }
+
+    @Override
+    public String toString() {
+        return (since != null ? since.toString() : "*") + ".." + (until != null ? until.toString() : "*");
+    }
+}
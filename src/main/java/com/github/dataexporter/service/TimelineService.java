@@ -0,0 +1,169 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.model.TimelineEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service for fetching the timelines of GitHub issues and pull requests using the GraphQL API.
+ * Each timeline is paginated on its own, and many timelines are crawled at the same time under
+ * the shared rate limit budget. Timeline items are streamed rather than attached to their issue or
+ * pull request, so long timelines never inflate the records held in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService {
+
+    private final GraphQlPaginator paginator;
+    private final ExportProperties exportProperties;
+    private final ObjectMapper objectMapper;
+    private final QueryLoader queryLoader;
+
+    private static final String ISSUE_TIMELINE_QUERY_FILE = "graphql/issue-timeline-query.graphql";
+    private static final String ISSUE_TIMELINE_ITEM_FIELDS_FILE = "graphql/issue-timeline-item-fields.graphql";
+    private static final String PULL_REQUEST_TIMELINE_QUERY_FILE = "graphql/pull-request-timeline-query.graphql";
+    private static final String PULL_REQUEST_TIMELINE_ITEM_FIELDS_FILE = "graphql/pull-request-timeline-item-fields.graphql";
+
+    /**
+     * Streams the timeline items of the given issues.
+     *
+     * @param issues Pages of issues, holding at least their ids and numbers
+     * @return Flux of timeline entries, grouped by issue only as far as concurrency allows
+     */
+    public Flux<TimelineEntry> streamIssueTimelines(Flux<Page<Issue>> issues) {
+        String document = queryLoader.load(ISSUE_TIMELINE_QUERY_FILE) + "\n"
+                + queryLoader.load(ISSUE_TIMELINE_ITEM_FIELDS_FILE);
+        List<String> itemTypes = exportProperties.getTimeline().getIssueItemTypes();
+        return issues
+                .concatMapIterable(Page::getItems)
+                .flatMap(issue -> fetchTimeline("issue", issue.getId(), issue.getNumber(), document, itemTypes),
+                        exportProperties.getTimeline().getConcurrency());
+    }
+
+    /**
+     * Streams the timeline items of the given pull requests.
+     *
+     * @param pullRequests Pages of pull requests, holding at least their ids and numbers
+     * @return Flux of timeline entries, grouped by pull request only as far as concurrency allows
+     */
+    public Flux<TimelineEntry> streamPullRequestTimelines(Flux<Page<PullRequest>> pullRequests) {
+        String document = queryLoader.load(PULL_REQUEST_TIMELINE_QUERY_FILE) + "\n"
+                + queryLoader.load(PULL_REQUEST_TIMELINE_ITEM_FIELDS_FILE);
+        List<String> itemTypes = exportProperties.getTimeline().getPullRequestItemTypes();
+        return pullRequests
+                .concatMapIterable(Page::getItems)
+                .flatMap(pr -> fetchTimeline("pullRequest", pr.getId(), pr.getNumber(), document, itemTypes),
+                        exportProperties.getTimeline().getConcurrency());
+    }
+
+    /**
+     * Paginates through the timeline of a single issue or pull request.
+     * The paginator ends a crawl quietly when a request fails for good, so a timeline whose last
+     * page is not final is reported as an error rather than exported truncated.
+     *
+     * @param kind      Kind of the item (issue, pullRequest)
+     * @param id        Node id of the item
+     * @param number    Number of the item
+     * @param document  The timeline query
+     * @param itemTypes Timeline item types to fetch
+     * @return Flux of timeline entries in timeline order
+     * @throws IllegalStateException (as error signal) if the timeline could not be fetched to its end
+     */
+    private Flux<TimelineEntry> fetchTimeline(String kind, String id, Integer number, String document,
+                                              List<String> itemTypes) {
+        PageQuery<TimelineEntry> query = PageQuery.<TimelineEntry>builder()
+                .name(kind + " #" + number + " timeline")
+                .document(document)
+                .variables((limit, cursor) -> {
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("id", id);
+                    variables.put("first", limit);
+                    variables.put("itemTypes", itemTypes);
+                    if (cursor != null && !cursor.isEmpty()) {
+                        variables.put("after", cursor);
+                    }
+                    return variables;
+                })
+                .connection(data -> data.path("node").path("timelineItems"))
+                .field("timelineItems")
+                .mapper(node -> toEntry(kind, number, node))
+                .pageSize(exportProperties.getTimeline().getPageSize())
+                .maxItems(Integer.MAX_VALUE)
+                .build();
+        return Flux.defer(() -> {
+            AtomicReference<Page<TimelineEntry>> lastPage = new AtomicReference<>();
+            return paginator.paginate(query)
+                    .doOnNext(lastPage::set)
+                    .concatMapIterable(Page::getItems)
+                    .concatWith(Mono.defer(() -> requireComplete(lastPage.get(), kind, number)));
+        });
+    }
+
+    /**
+     * Checks that a timeline crawl reached the end of the timeline.
+     *
+     * @param lastPage Last page of the crawl, or null if no page was fetched
+     * @param kind     Kind of the item the timeline belongs to
+     * @param number   Number of the item the timeline belongs to
+     * @return Empty Mono if the crawl is complete, otherwise an error
+     */
+    private Mono<TimelineEntry> requireComplete(Page<TimelineEntry> lastPage, String kind, Integer number) {
+        if (lastPage != null && lastPage.isFinal(Integer.MAX_VALUE)) {
+            return Mono.empty();
+        }
+        return Mono.error(new IllegalStateException("Timeline of " + kind + " #" + number + " ended early after page "
+                + (lastPage != null ? lastPage.getNumber() : 0)));
+    }
+
+    /**
+     * Converts a timeline item node into a timeline entry.
+     * The fields every timeline item has are mapped directly, the type specific ones are kept in the data map.
+     *
+     * @param kind   Kind of the item the timeline belongs to
+     * @param number Number of the item the timeline belongs to
+     * @param node   JsonNode of the timeline item, which is only read once and may be modified
+     * @return The timeline entry, or null if the node could not be converted
+     */
+    private TimelineEntry toEntry(String kind, Integer number, JsonNode node) {
+        if (!(node instanceof ObjectNode fields)) {
+            return null;
+        }
+        try {
+            JsonNode type = fields.remove("__typename");
+            JsonNode itemId = fields.remove("id");
+            JsonNode createdAt = fields.remove("createdAt");
+            JsonNode actor = fields.remove("actor");
+            return TimelineEntry.builder()
+                    .kind(kind)
+                    .number(number)
+                    .id(itemId != null ? itemId.asText() : null)
+                    .type(type != null ? type.asText() : null)
+                    .createdAt(createdAt != null && !createdAt.isNull()
+                            ? objectMapper.convertValue(createdAt, ZonedDateTime.class)
+                            : null)
+                    .actor(actor != null ? actor.path("login").asText(null) : null)
+                    .data(objectMapper.convertValue(fields, new TypeReference<Map<String, Object>>() {}))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error converting timeline item of {} #{}: {}", kind, number, e.getMessage(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.dataexporter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptivePageSizeTest {
+
+    @Test
+    void onOverload_shouldHalvePageSizeDownToMinimum() {
+        // Arrange
+        AdaptivePageSize pageSize = new AdaptivePageSize("pull requests", 100, 20, 100, Duration.ofSeconds(5), 5);
+
+        // Act
+        pageSize.onOverload();
+        int halved = pageSize.current();
+        pageSize.onOverload();
+        pageSize.onOverload();
+
+        // Assert
+        assertEquals(50, halved);
+        assertEquals(20, pageSize.current());
+    }
+
+    @Test
+    void onSuccess_shouldOnlyGrowWhenPagesAreFastAndCheap() {
+        // Arrange
+        AdaptivePageSize pageSize = new AdaptivePageSize("issues", 40, 10, 100, Duration.ofSeconds(5), 5);
+
+        // Act
+        pageSize.onSuccess(Duration.ofSeconds(8), 1);
+        int afterSlowPage = pageSize.current();
+        pageSize.onSuccess(Duration.ofSeconds(1), 12);
+        int afterCostlyPage = pageSize.current();
+        pageSize.onSuccess(Duration.ofSeconds(1), 1);
+        pageSize.onSuccess(Duration.ofSeconds(1), 1);
+        pageSize.onSuccess(Duration.ofSeconds(1), 1);
+
+        // Assert
+        assertEquals(40, afterSlowPage);
+        assertEquals(40, afterCostlyPage);
+        assertEquals(100, pageSize.current());
+    }
+}
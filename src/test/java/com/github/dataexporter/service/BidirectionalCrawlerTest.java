@@ -0,0 +1,142 @@
+package com.github.dataexporter.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BidirectionalCrawlerTest {
+
+    private static final int TOTAL = 10;
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    private BidirectionalCrawler crawler;
+
+    @BeforeEach
+    void setUp() {
+        crawler = new BidirectionalCrawler(paginator);
+    }
+
+    @Test
+    void crawl_shouldStopBothDirectionsWhenTheyMeetInTheMiddle() {
+        // Arrange: the backward crawl's second page overlaps the forward crawl at item 6
+        List<Page<String>> forward = List.of(
+                page(1, List.of("1", "2", "3"), 3),
+                page(2, List.of("4", "5", "6"), 6));
+        List<Page<String>> backward = List.of(
+                page(1, List.of("10", "9", "8"), 3),
+                page(2, List.of("7", "6", "5"), 6),
+                page(3, List.of("4", "3", "2"), 9));
+        stubPaginator(forward, backward);
+
+        // Act
+        List<Page<String>> pages = crawler.crawl(query(), Function.identity()).collectList().block();
+
+        // Assert: the overlap is dropped, the backward crawl stops at the meeting page, and the crawl is complete
+        List<String> items = pages.stream().flatMap(page -> page.getItems().stream()).toList();
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "10", "9", "8", "7"), items);
+        Page<String> last = pages.get(pages.size() - 1);
+        assertFalse(last.isHasNextPage());
+        assertEquals(TOTAL, last.getTotalFetched());
+        assertEquals(5, pages.size());
+    }
+
+    @Test
+    void crawl_shouldMeetWhenBothDirectionsTogetherFetchedTheTotalCount() {
+        // Arrange: the crawls split the connection exactly, without an overlapping item
+        stubPaginator(
+                List.of(page(1, List.of("1", "2", "3", "4", "5"), 5)),
+                List.of(page(1, List.of("10", "9", "8", "7", "6"), 5)));
+
+        // Act
+        List<Page<String>> pages = crawler.crawl(query(), Function.identity()).collectList().block();
+
+        // Assert
+        Page<String> last = pages.get(pages.size() - 1);
+        assertFalse(last.isHasNextPage());
+        assertEquals(TOTAL, last.getTotalFetched());
+    }
+
+    @Test
+    void crawl_shouldNotReportCompletionWhenTheCrawlsEndBeforeMeeting() {
+        // Arrange: both directions end early, e.g. after failed requests, leaving a gap in the middle
+        stubPaginator(
+                List.of(page(1, List.of("1", "2", "3"), 3)),
+                List.of(page(1, List.of("10", "9", "8"), 3)));
+
+        // Act
+        List<Page<String>> pages = crawler.crawl(query(), Function.identity()).collectList().block();
+
+        // Assert
+        assertEquals(2, pages.size());
+        assertTrue(pages.stream().allMatch(Page::isHasNextPage));
+        assertEquals(6, pages.get(1).getTotalFetched());
+    }
+
+    @Test
+    void crawl_shouldCapTheItemsOfBothDirectionsTogether() {
+        // Arrange
+        List<PageQuery<String>> sides = new ArrayList<>();
+        when(paginator.<String>paginate(any())).thenAnswer(invocation -> {
+            PageQuery<String> query = invocation.getArgument(0);
+            sides.add(query);
+            return Flux.just(query.isBackward()
+                    ? page(1, List.of("10", "9", "8"), 3)
+                    : page(1, List.of("1", "2", "3"), 3));
+        });
+
+        // Act
+        List<Page<String>> pages = crawler.crawl(query().toBuilder().maxItems(4).build(), Function.identity())
+                .collectList()
+                .block();
+
+        // Assert: the limit applies to the merged count, not to each direction
+        List<String> items = pages.stream().flatMap(page -> page.getItems().stream()).toList();
+        assertEquals(List.of("1", "2", "3", "10"), items);
+        assertTrue(pages.get(pages.size() - 1).isFinal(4));
+        assertTrue(sides.stream().allMatch(side -> side.getMaxItems() == Integer.MAX_VALUE));
+    }
+
+    // Ends each direction after the page its stop condition matches, as the paginator does
+    private void stubPaginator(List<Page<String>> forward, List<Page<String>> backward) {
+        when(paginator.<String>paginate(any())).thenAnswer(invocation -> {
+            PageQuery<String> query = invocation.getArgument(0);
+            List<Page<String>> pages = query.isBackward() ? backward : forward;
+            return Flux.fromIterable(pages).takeUntil(query.getStopWhen());
+        });
+    }
+
+    private PageQuery<String> query() {
+        return PageQuery.<String>builder()
+                .name("items")
+                .document("query { items { nodes { id } } }")
+                .variables((limit, cursor) -> {
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("first", limit);
+                    variables.put("after", cursor);
+                    return variables;
+                })
+                .pageSize(3)
+                .maxItems(1000)
+                .build();
+    }
+
+    private Page<String> page(int number, List<String> items, int totalFetched) {
+        return new Page<>(number, items, "cursor" + number, true, TOTAL, totalFetched);
+    }
+}
@@ -0,0 +1,176 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CombinedCrawlerTest {
+
+    private static final List<String> ISSUES = List.of("I_1", "I_2", "I_3");
+    private static final List<String> PULL_REQUESTS = List.of("PR_1", "PR_2", "PR_3", "PR_4", "PR_5");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GraphQlResponseDecoder decoder = new GraphQlResponseDecoder(objectMapper);
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    @Mock
+    private IssueService issueService;
+
+    @Mock
+    private PullRequestService pullRequestService;
+
+    private CombinedCrawler crawler;
+    private List<Map<String, Object>> requests;
+
+    @BeforeEach
+    void setUp() {
+        GitHubProperties gitHubProperties = new GitHubProperties();
+        gitHubProperties.getRepository().setOwner("octo-org");
+        gitHubProperties.getRepository().setName("octo-repo");
+        crawler = new CombinedCrawler(paginator, issueService, pullRequestService, gitHubProperties,
+                new ExportProperties(), new QueryLoader());
+        requests = new ArrayList<>();
+
+        when(issueService.createPageQuery(eq(TimeWindow.ALL), isNull()))
+                .thenReturn(query("issues", "issues", id -> Issue.builder().id(id).build()));
+        when(pullRequestService.createPageQuery(eq(TimeWindow.ALL), isNull()))
+                .thenReturn(query("pull requests", "pullRequests", id -> PullRequest.builder().id(id).build()));
+        when(issueService.loadFragments(false)).thenReturn("");
+        when(pullRequestService.loadFragments(false)).thenReturn("");
+        when(issueService.completeIssuePages(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(pullRequestService.completePullRequestPages(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void crawl_shouldKeepPaginatingPullRequestsAfterIssuesAreExhausted() {
+        // Arrange
+        when(paginator.query(anyString(), anyString(), any(), any()))
+                .thenAnswer(invocation -> respond(invocation.getArgument(2), invocation.getArgument(3)));
+
+        // Act
+        List<CombinedPage> pages = crawler.crawl().collectList().block();
+
+        // Assert: each connection continues from its own cursor
+        assertEquals(3, pages.size());
+        assertEquals(List.of("I_1", "I_2"), ids(pages.get(0).getIssues(), Issue::getId));
+        assertEquals(List.of("I_3"), ids(pages.get(1).getIssues(), Issue::getId));
+        assertEquals(List.of("PR_3", "PR_4"), ids(pages.get(1).getPullRequests(), PullRequest::getId));
+        assertEquals("I_2", requests.get(1).get("issuesAfter"));
+        assertEquals("PR_2", requests.get(1).get("pullRequestsAfter"));
+
+        // The exhausted issues connection is left out of the last request
+        CombinedPage last = pages.get(2);
+        assertNull(last.getIssues());
+        assertEquals(List.of("PR_5"), ids(last.getPullRequests(), PullRequest::getId));
+        assertFalse(last.getPullRequests().isHasNextPage());
+        assertEquals(Boolean.FALSE, requests.get(2).get("includeIssues"));
+        assertFalse(requests.get(2).containsKey("issuesFirst"));
+        assertEquals("PR_4", requests.get(2).get("pullRequestsAfter"));
+        assertEquals("octo-org", requests.get(2).get("owner"));
+    }
+
+    @Test
+    void crawl_shouldEndWithoutFinalPagesWhenARequestFails() {
+        // Arrange
+        when(paginator.query(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(2);
+            return "PR_2".equals(variables.get("pullRequestsAfter"))
+                    ? Mono.error(new IllegalStateException("Bad gateway"))
+                    : respond(variables, invocation.getArgument(3));
+        });
+
+        // Act
+        List<CombinedPage> pages = crawler.crawl().collectList().block();
+
+        // Assert: the crawl stops quietly, and its last pages report more items
+        assertEquals(1, pages.size());
+        assertTrue(pages.get(0).getIssues().isHasNextPage());
+        assertTrue(pages.get(0).getPullRequests().isHasNextPage());
+    }
+
+    // Serves two items per page of each included connection, continuing after the cursor
+    private Mono<GraphQlResponse> respond(Map<String, Object> variables, Map<String, Function<JsonNode, ?>> mappers)
+            throws Exception {
+        synchronized (requests) {
+            requests.add(variables);
+        }
+        ObjectNode data = objectMapper.createObjectNode();
+        ObjectNode repository = data.putObject("repository");
+        if (Boolean.TRUE.equals(variables.get("includeIssues"))) {
+            repository.set("issues", connection(ISSUES, (String) variables.get("issuesAfter"),
+                    (Integer) variables.get("issuesFirst")));
+        }
+        if (Boolean.TRUE.equals(variables.get("includePullRequests"))) {
+            repository.set("pullRequests", connection(PULL_REQUESTS, (String) variables.get("pullRequestsAfter"),
+                    (Integer) variables.get("pullRequestsFirst")));
+        }
+        byte[] body = objectMapper.writeValueAsBytes(objectMapper.createObjectNode().set("data", data));
+        return decoder.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)), mappers);
+    }
+
+    private ObjectNode connection(List<String> ids, String after, int first) {
+        int start = after == null ? 0 : ids.indexOf(after) + 1;
+        int end = Math.min(ids.size(), start + first);
+        ObjectNode connection = objectMapper.createObjectNode();
+        connection.put("totalCount", ids.size());
+        connection.putObject("pageInfo")
+                .put("hasNextPage", end < ids.size())
+                .put("endCursor", ids.get(end - 1));
+        ArrayNode nodes = connection.putArray("nodes");
+        ids.subList(start, end).forEach(id -> nodes.addObject().put("id", id));
+        return connection;
+    }
+
+    private <T> PageQuery<T> query(String name, String field, Function<String, T> itemOf) {
+        return PageQuery.<T>builder()
+                .name(name)
+                .document("")
+                .variables((limit, cursor) -> {
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("owner", "octo-org");
+                    variables.put("name", "octo-repo");
+                    variables.put("first", limit);
+                    variables.put("after", cursor);
+                    return variables;
+                })
+                .connection(data -> data.path("repository").path(field))
+                .field(field)
+                .mapper(node -> itemOf.apply(node.path("id").asText()))
+                .pageSize(2)
+                .maxItems(1000)
+                .build();
+    }
+
+    private <T> List<String> ids(Page<T> page, Function<T, String> idOf) {
+        return page.getItems().stream().map(idOf).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.dataexporter.service;
+
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.export.CombinedExporter;
+import com.github.dataexporter.export.ExportDispatcher;
+import com.github.dataexporter.export.ExportResult;
+import com.github.dataexporter.export.IncrementalExporter;
+import com.github.dataexporter.export.JsonExporter;
+import com.github.dataexporter.export.StreamingExporter;
+import com.github.dataexporter.export.TimelineExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportDispatcherTest {
+
+    @Mock
+    private IssueService issueService;
+
+    @Mock
+    private PullRequestService pullRequestService;
+
+    @Mock
+    private JsonExporter jsonExporter;
+
+    @Mock
+    private IncrementalExporter incrementalExporter;
+
+    @Mock
+    private StreamingExporter streamingExporter;
+
+    @Mock
+    private CombinedExporter combinedExporter;
+
+    @Mock
+    private TimelineExporter timelineExporter;
+
+    @Mock
+    private QueryFilters queryFilters;
+
+    private ExportProperties properties;
+    private ExportDispatcher exportDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExportProperties();
+        exportDispatcher = new ExportDispatcher(issueService, pullRequestService, jsonExporter, incrementalExporter,
+                streamingExporter, combinedExporter, timelineExporter, queryFilters, properties);
+    }
+
+    @Test
+    void isCombinedExport_shouldOnlyApplyToFullUnfilteredCrawls() {
+        // Arrange
+        properties.setCombinedQuery(true);
+
+        // Act & Assert
+        assertTrue(exportDispatcher.isCombinedExport(TimeWindow.ALL));
+        assertFalse(exportDispatcher.isCombinedExport(TimeWindow.since(Instant.parse("2024-01-01T00:00:00Z"))));
+        when(queryFilters.requiresPullRequestSearch()).thenReturn(true);
+        assertFalse(exportDispatcher.isCombinedExport(TimeWindow.ALL));
+    }
+
+    @Test
+    void exportCombined_shouldFailTheConnectionThatFoundNothing() throws Exception {
+        // Arrange
+        ExportResult issues = new ExportResult(Path.of("issues.json"), 3);
+        when(combinedExporter.exportIssuesAndPullRequests())
+                .thenReturn(List.of(issues, new ExportResult(Path.of("pull_requests.json"), 0)));
+
+        // Act
+        List<ExportResult> results = exportDispatcher.exportCombined();
+
+        // Assert
+        assertEquals(issues, results.get(0));
+        assertNull(results.get(1));
+    }
+
+    @Test
+    void exportPullRequests_shouldUseTheIncrementalExporterUnlessTheWindowIsBounded() throws Exception {
+        // Arrange
+        properties.setIncremental(true);
+        ExportResult merged = new ExportResult(Path.of("pull_requests.json"), 2);
+        TimeWindow window = TimeWindow.since(Instant.parse("2024-01-01T00:00:00Z"));
+        ExportResult windowed = new ExportResult(window.fileFor(properties.getPullRequestsFilePath()), 1);
+        when(incrementalExporter.exportPullRequests()).thenReturn(merged);
+        when(streamingExporter.exportPullRequests(window)).thenReturn(windowed);
+
+        // Act & Assert
+        assertEquals(merged, exportDispatcher.exportPullRequests(TimeWindow.ALL));
+        assertEquals(windowed, exportDispatcher.exportPullRequests(window));
+    }
+}
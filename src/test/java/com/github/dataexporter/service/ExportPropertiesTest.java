@@ -0,0 +1,98 @@
+package com.github.dataexporter.service;
+
+import com.github.dataexporter.config.ExportProperties;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportPropertiesTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void getItemLimit_shouldOnlyCapUnboundedExportsWhenConfigured() {
+        // Arrange
+        ExportProperties.Pagination pagination = new ExportProperties.Pagination();
+
+        // Act & Assert
+        assertEquals(ExportProperties.Pagination.DEFAULT_MAX_ITEMS, pagination.getItemLimit());
+        pagination.setUnbounded(true);
+        assertEquals(Integer.MAX_VALUE, pagination.getItemLimit());
+        pagination.setMaxItems(50000);
+        assertEquals(50000, pagination.getItemLimit());
+    }
+
+    @Test
+    void unboundedExports_shouldAlwaysStream() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.setStreaming(false);
+
+        // Act & Assert
+        assertFalse(properties.isStreamingExport());
+        properties.getPagination().setUnbounded(true);
+        assertTrue(properties.isStreamingExport());
+    }
+
+    @Test
+    void validation_shouldRejectUnboundedModeWithGrowingMemory() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getPagination().setUnbounded(true);
+
+        // Act & Assert
+        assertTrue(validator.validate(properties).isEmpty());
+        properties.setCrawlMode(ExportProperties.CrawlMode.PARTITIONED);
+        Set<ConstraintViolation<ExportProperties>> violations = validator.validate(properties);
+        assertEquals(1, violations.size());
+        properties.setCrawlMode(ExportProperties.CrawlMode.SERIAL);
+        properties.setIncremental(true);
+        assertFalse(validator.validate(properties).isEmpty());
+    }
+
+    @Test
+    void validation_shouldRejectCombinedQueriesThatAreExpectedToResume() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.setCombinedQuery(true);
+
+        // Act & Assert: resume is enabled by default, but a combined crawl keeps no checkpoint
+        Set<ConstraintViolation<ExportProperties>> violations = validator.validate(properties);
+        assertEquals(1, violations.size());
+        assertEquals("Combined queries require resume.enabled=false", violations.iterator().next().getMessage());
+        properties.getResume().setEnabled(false);
+        assertTrue(validator.validate(properties).isEmpty());
+    }
+
+    @Test
+    void validation_shouldRejectUnboundedModeWithSearchOnlyPullRequestFilters() {
+        // Arrange: an assignee filter sends pull requests through search, which de-duplicates by id
+        ExportProperties properties = new ExportProperties();
+        properties.getPagination().setUnbounded(true);
+        properties.getFilters().setLabels(List.of("bug"));
+
+        // Act & Assert
+        assertTrue(validator.validate(properties).isEmpty());
+        properties.getFilters().setAssignee("octocat");
+        Set<ConstraintViolation<ExportProperties>> violations = validator.validate(properties);
+        assertEquals(1, violations.size());
+        properties.getPagination().setUnbounded(false);
+        assertTrue(validator.validate(properties).isEmpty());
+    }
+
+    @Test
+    void validation_shouldRejectNonPositiveCap() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getPagination().setMaxItems(0);
+
+        // Act & Assert
+        assertFalse(validator.validate(properties).isEmpty());
+    }
+}
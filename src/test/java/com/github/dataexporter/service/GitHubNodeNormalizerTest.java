@@ -0,0 +1,99 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GitHubNodeNormalizerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GitHubNodeNormalizer normalizer = new GitHubNodeNormalizer();
+
+    @Test
+    void normalizeIssue_shouldCountReactionsFromReactionGroups() throws Exception {
+        // Arrange
+        JsonNode issue = objectMapper.readTree("""
+                {
+                  "id": "I_1",
+                  "reactionGroups": [
+                    {"content": "THUMBS_UP", "reactors": {"totalCount": 42}},
+                    {"content": "HEART", "reactors": {"totalCount": 3}},
+                    {"content": "ROCKET", "reactors": {"totalCount": 0}}
+                  ],
+                  "comments": {
+                    "totalCount": 1,
+                    "nodes": [
+                      {"id": "C_1", "reactionGroups": [{"content": "EYES", "reactors": {"totalCount": 7}}]}
+                    ]
+                  }
+                }
+                """);
+
+        // Act
+        JsonNode normalized = normalizer.normalizeIssue(issue);
+
+        // Assert
+        JsonNode reactions = normalized.path("reactions");
+        assertFalse(normalized.has("reactionGroups"));
+        assertEquals(45, reactions.path("totalCount").asInt());
+        assertEquals(42, reactions.path("thumbsUp").asInt());
+        assertEquals(3, reactions.path("heart").asInt());
+        assertEquals(0, reactions.path("rocket").asInt());
+        assertEquals(7, normalized.path("comments").path(0).path("reactions").path("eyes").asInt());
+        assertEquals(1, normalized.path("commentCount").asInt());
+    }
+
+    @Test
+    void normalizePullRequest_shouldKeepOnlyChecksStateWhenContextsAreNotSelected() throws Exception {
+        // Arrange
+        JsonNode pullRequest = objectMapper.readTree("""
+                {
+                  "id": "PR_1",
+                  "headCommit": {"nodes": [{"commit": {"oid": "abc", "statusCheckRollup": {"state": "SUCCESS"}}}]}
+                }
+                """);
+
+        // Act
+        JsonNode normalized = normalizer.normalizePullRequest(pullRequest);
+
+        // Assert
+        assertEquals("SUCCESS", normalized.path("checksState").asText());
+        assertFalse(normalized.has("checkRuns"));
+        assertFalse(normalized.has("statusChecks"));
+        assertFalse(normalized.has("headCommit"));
+    }
+
+    @Test
+    void normalizePullRequest_shouldKeepCursorOfTruncatedCheckRollup() throws Exception {
+        // Arrange
+        JsonNode pullRequest = objectMapper.readTree("""
+                {
+                  "id": "PR_1",
+                  "headCommit": {"nodes": [{"commit": {"oid": "abc", "statusCheckRollup": {
+                    "id": "SCR_1",
+                    "state": "FAILURE",
+                    "contexts": {
+                      "totalCount": 3,
+                      "pageInfo": {"hasNextPage": true, "endCursor": "cursor2"},
+                      "nodes": [
+                        {"__typename": "CheckRun", "id": "CR_1", "name": "build"},
+                        {"__typename": "StatusContext", "id": "SC_1", "context": "ci/legacy"}
+                      ]
+                    }
+                  }}}]}
+                }
+                """);
+
+        // Act
+        JsonNode normalized = normalizer.normalizePullRequest(pullRequest);
+
+        // Assert
+        assertEquals("build", normalized.path("checkRuns").path(0).path("name").asText());
+        assertEquals("ci/legacy", normalized.path("statusChecks").path(0).path("context").asText());
+        assertFalse(normalized.path("checkRuns").path(0).has("__typename"));
+        assertEquals("SCR_1", normalized.path("checkRollupId").asText());
+        assertEquals("cursor2", normalized.path("checkContextsEndCursor").asText());
+    }
+}
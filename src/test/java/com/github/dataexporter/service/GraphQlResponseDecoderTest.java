@@ -0,0 +1,101 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphQlResponseDecoderTest {
+
+    private final GraphQlResponseDecoder decoder = new GraphQlResponseDecoder(new ObjectMapper());
+
+    @Test
+    void decode_shouldConvertConnectionNodesSplitAcrossBuffers() {
+        // Arrange
+        String body = "{\"data\":{\"repository\":{\"issues\":{\"totalCount\":3,"
+                + "\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"c2\"},\"nodes\":["
+                + "{\"number\":1,\"title\":\"café\",\"labels\":{\"nodes\":[{\"name\":\"bug\"}]}},"
+                + "{\"number\":2,\"title\":\"skip\"}]}},\"rateLimit\":{\"cost\":1}}}";
+        Map<String, Function<JsonNode, ?>> mappers = Map.of("issues", node -> "skip".equals(node.path("title").asText())
+                ? null
+                : node.path("title").asText() + "/" + node.path("labels").path("nodes").get(0).path("name").asText());
+
+        // Act
+        GraphQlResponse response = decoder.decode(chunks(body, 7), mappers).block();
+
+        // Assert: the nodes become items, the rest of the response stays a tree
+        assertEquals(List.of("café/bug"), response.items("issues"));
+        JsonNode issues = response.getData().path("repository").path("issues");
+        assertEquals(3, issues.path("totalCount").asInt());
+        assertEquals("c2", issues.path("pageInfo").path("endCursor").asText());
+        assertTrue(issues.path("nodes").isEmpty());
+        assertEquals(1, response.getData().path("rateLimit").path("cost").asInt());
+    }
+
+    @Test
+    void decode_shouldKeepNodesWithoutMapperInTheTree() {
+        // Arrange
+        String body = "{\"data\":{\"nodes\":[{\"id\":\"I_1\"},{\"id\":\"I_2\"}]}}";
+
+        // Act
+        GraphQlResponse response = decoder.decode(chunks(body, 5), Map.of()).block();
+
+        // Assert
+        assertEquals(2, response.getData().path("nodes").size());
+        assertEquals("I_2", response.getData().path("nodes").get(1).path("id").asText());
+        assertTrue(response.items("issues").isEmpty());
+    }
+
+    @Test
+    void decode_shouldNotBeLimitedByCodecBufferSize() {
+        // Arrange
+        StringBuilder body = new StringBuilder("{\"data\":{\"search\":{\"nodes\":[");
+        for (int i = 0; i < 5000; i++) {
+            body.append(i > 0 ? "," : "").append("{\"number\":").append(i)
+                    .append(",\"body\":\"").append("x".repeat(100)).append("\"}");
+        }
+        body.append("]}}}");
+        Map<String, Function<JsonNode, ?>> mappers = Map.of("search", node -> node.path("number").asInt());
+
+        // Act
+        GraphQlResponse response = decoder.decode(chunks(body.toString(), 8192), mappers).block();
+
+        // Assert
+        assertTrue(body.length() > 256 * 1024);
+        List<Integer> numbers = response.items("search");
+        assertEquals(5000, numbers.size());
+        assertEquals(4999, numbers.get(4999));
+    }
+
+    @Test
+    void decode_shouldFailOnTruncatedBody() {
+        // Arrange
+        Flux<DataBuffer> body = chunks("{\"data\":{\"nodes\":[{\"number\":1", 4);
+
+        // Act & Assert
+        assertThrows(DecodingException.class, () -> decoder.decode(body, Map.of()).block());
+    }
+
+    private Flux<DataBuffer> chunks(String body, int size) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            int length = Math.min(size, bytes.length - offset);
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(length);
+            buffer.write(bytes, offset, length);
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.export.ExportResult;
+import com.github.dataexporter.export.ExportStateStore;
+import com.github.dataexporter.export.IncrementalExporter;
+import com.github.dataexporter.export.JsonExporter;
+import com.github.dataexporter.model.PullRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IncrementalExporterTest {
+
+    private static final Instant PREVIOUS_WATERMARK = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private IssueService issueService;
+
+    @Mock
+    private PullRequestService pullRequestService;
+
+    @Mock
+    private JsonExporter jsonExporter;
+
+    @Mock
+    private ExportStateStore stateStore;
+
+    @TempDir
+    Path tempDir;
+
+    private ExportProperties properties;
+    private IncrementalExporter incrementalExporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ExportProperties();
+        properties.setDirectory(tempDir.toString());
+        Files.writeString(properties.getPullRequestsFilePath(), "[]");
+        incrementalExporter = new IncrementalExporter(issueService, pullRequestService, jsonExporter, stateStore,
+                properties);
+
+        lenient().when(stateStore.getWatermark(ExportStateStore.PULL_REQUESTS))
+                .thenReturn(Optional.of(PREVIOUS_WATERMARK));
+        lenient().when(jsonExporter.mergeIntoJson(anyList(), any(), any()))
+                .thenReturn(properties.getPullRequestsFilePath());
+    }
+
+    @Test
+    void exportPullRequests_shouldKeepWatermarkWhenCrawlStopsAtItemLimit() throws Exception {
+        // Arrange: the item limit was reached while newer pull requests than the watermark remain
+        Page<PullRequest> capped = new Page<>(10, List.of(pullRequest("2024-03-01T00:00:00Z")), "cursor",
+                true, 5000, 1000);
+        when(pullRequestService.fetchPullRequestPages(any(TimeWindow.class), isNull(), any()))
+                .thenReturn(Flux.just(capped));
+
+        // Act
+        ExportResult result = incrementalExporter.exportPullRequests();
+
+        // Assert
+        assertEquals(1, result.getItemCount());
+        verify(stateStore, never()).updateWatermark(anyString(), any());
+    }
+
+    @Test
+    void exportPullRequests_shouldAdvanceWatermarkWhenCrawlReachesPreviousWatermark() throws Exception {
+        // Arrange: the window trim reports no next page once the previous watermark is reached
+        Page<PullRequest> last = new Page<>(2, List.of(pullRequest("2024-03-01T00:00:00Z")), "cursor",
+                false, 5000, 150);
+        when(pullRequestService.fetchPullRequestPages(any(TimeWindow.class), isNull(), any()))
+                .thenReturn(Flux.just(last));
+
+        // Act
+        incrementalExporter.exportPullRequests();
+
+        // Assert
+        verify(stateStore).updateWatermark(eq(ExportStateStore.PULL_REQUESTS), eq(Instant.parse("2024-03-01T00:00:00Z")));
+    }
+
+    @Test
+    void exportPullRequests_shouldStartWatermarkAtNewestPullRequestOfCappedFirstRun() throws Exception {
+        // Arrange: no snapshot yet, and the full crawl stops at the item limit
+        Files.delete(properties.getPullRequestsFilePath());
+        when(jsonExporter.openPullRequestsWriter())
+                .thenAnswer(invocation -> realJsonExporter().openPullRequestsWriter());
+        when(pullRequestService.crawlsNewestFirst()).thenReturn(true);
+        Page<PullRequest> capped = new Page<>(10, List.of(pullRequest("2024-03-01T00:00:00Z")), "cursor",
+                true, 5000, 1000);
+        when(pullRequestService.fetchPullRequestPages(TimeWindow.ALL)).thenReturn(Flux.just(capped));
+
+        // Act
+        ExportResult result = incrementalExporter.exportPullRequests();
+
+        // Assert: the snapshot holds the newest pull requests, so later runs continue from the newest one
+        assertEquals(1, result.getItemCount());
+        verify(stateStore).updateWatermark(ExportStateStore.PULL_REQUESTS, Instant.parse("2024-03-01T00:00:00Z"));
+    }
+
+    @Test
+    void exportPullRequests_shouldNotStartWatermarkWhenCappedFirstRunIsNotNewestFirst() throws Exception {
+        // Arrange: a partitioned crawl stops at the item limit in creation order
+        Files.delete(properties.getPullRequestsFilePath());
+        when(jsonExporter.openPullRequestsWriter())
+                .thenAnswer(invocation -> realJsonExporter().openPullRequestsWriter());
+        when(pullRequestService.crawlsNewestFirst()).thenReturn(false);
+        Page<PullRequest> capped = new Page<>(10, List.of(pullRequest("2024-03-01T00:00:00Z")), null,
+                true, 5000, 1000);
+        when(pullRequestService.fetchPullRequestPages(TimeWindow.ALL)).thenReturn(Flux.just(capped));
+
+        // Act
+        incrementalExporter.exportPullRequests();
+
+        // Assert
+        verify(stateStore, never()).updateWatermark(anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportPullRequests_shouldOnlyHydratePullRequestsChangedSinceTheSnapshot() throws Exception {
+        // Arrange
+        properties.getTwoPhase().setEnabled(true);
+        properties.getTwoPhase().setSkipUnchanged(true);
+        when(jsonExporter.readUpdatedAt(properties.getPullRequestsFilePath()))
+                .thenReturn(Map.of("PR_2024-01-01T00:00:00Z", PREVIOUS_WATERMARK));
+        ArgumentCaptor<Predicate<PullRequest>> needsHydration = ArgumentCaptor.forClass(Predicate.class);
+        when(pullRequestService.fetchPullRequestPages(any(TimeWindow.class), isNull(), needsHydration.capture()))
+                .thenReturn(Flux.empty());
+
+        // Act
+        incrementalExporter.exportPullRequests();
+
+        // Assert: the pull request updated exactly at the watermark is already in the snapshot
+        Predicate<PullRequest> filter = needsHydration.getValue();
+        assertFalse(filter.test(pullRequest("2024-01-01T00:00:00Z")));
+        assertTrue(filter.test(pullRequest("2024-03-01T00:00:00Z")));
+        PullRequest updatedAgain = PullRequest.builder().id("PR_2024-01-01T00:00:00Z")
+                .updatedAt(ZonedDateTime.parse("2024-01-02T00:00:00Z")).build();
+        assertTrue(filter.test(updatedAgain));
+    }
+
+    private JsonExporter realJsonExporter() {
+        return new JsonExporter(properties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private PullRequest pullRequest(String updatedAt) {
+        return PullRequest.builder().id("PR_" + updatedAt).updatedAt(ZonedDateTime.parse(updatedAt)).build();
+    }
+}
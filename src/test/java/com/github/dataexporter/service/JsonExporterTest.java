@@ -1,8 +1,10 @@
 package com.github.dataexporter.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.export.JsonArrayWriter;
 import com.github.dataexporter.export.JsonExporter;
 import com.github.dataexporter.model.Issue;
 import com.github.dataexporter.model.PullRequest;
@@ -165,6 +167,77 @@ public class JsonExporterTest {
         assertEquals(Path.of(dirPath), result);
     }
 
+    @Test
+    void openJsonArrayWriter_shouldStreamPagesAsJsonArray() throws IOException {
+        // Arrange
+        ObjectMapper realMapper = new ObjectMapper().findAndRegisterModules();
+        JsonExporter streamingExporter = new JsonExporter(exportProperties, realMapper);
+        Path filePath = tempDir.resolve("streamed").resolve("issues.json");
+
+        // Act
+        try (JsonArrayWriter<Issue> writer = streamingExporter.openJsonArrayWriter(filePath)) {
+            writer.writeAll(createTestIssues(2));
+            writer.writeAll(createTestIssues(3));
+            assertEquals(5, writer.getItemCount());
+        }
+
+        // Assert
+        JsonNode written = realMapper.readTree(filePath.toFile());
+        assertTrue(written.isArray());
+        assertEquals(5, written.size());
+        assertEquals("issue-0", written.get(2).path("id").asText());
+    }
+
+    @Test
+    void resumeJsonArrayWriter_shouldAppendAfterCheckpointedOffset() throws IOException {
+        // Arrange
+        ObjectMapper realMapper = new ObjectMapper().findAndRegisterModules();
+        JsonExporter streamingExporter = new JsonExporter(exportProperties, realMapper);
+        Path filePath = tempDir.resolve("issues.json");
+        long offset;
+        try (JsonArrayWriter<Issue> writer = streamingExporter.openJsonArrayWriter(filePath)) {
+            writer.writeAll(createTestIssues(2));
+            offset = writer.getByteOffset();
+        }
+
+        // Act
+        try (JsonArrayWriter<Issue> writer = streamingExporter.resumeJsonArrayWriter(filePath, offset, 2)) {
+            writer.writeAll(createTestIssues(1));
+            assertEquals(3, writer.getItemCount());
+        }
+
+        // Assert
+        JsonNode written = realMapper.readTree(filePath.toFile());
+        assertEquals(3, written.size());
+        assertEquals("issue-1", written.get(1).path("id").asText());
+        assertEquals("issue-0", written.get(2).path("id").asText());
+    }
+
+    @Test
+    void mergeIntoJson_shouldReplaceChangedItemsAndKeepTheRest() throws IOException {
+        // Arrange
+        ObjectMapper realMapper = new ObjectMapper().findAndRegisterModules();
+        JsonExporter streamingExporter = new JsonExporter(exportProperties, realMapper);
+        Path filePath = tempDir.resolve("issues.json");
+        streamingExporter.exportToJson(createTestIssues(3), filePath);
+
+        Issue changed = createTestIssues(2).get(1);
+        changed.setTitle("Changed title");
+        Issue added = Issue.builder().id("issue-new").number(99).title("New issue").build();
+
+        // Act
+        Path result = streamingExporter.mergeIntoJson(List.of(added, changed), Issue::getId, filePath);
+
+        // Assert
+        assertEquals(filePath, result);
+        JsonNode merged = realMapper.readTree(filePath.toFile());
+        assertEquals(4, merged.size());
+        assertEquals("issue-new", merged.get(0).path("id").asText());
+        assertEquals("Changed title", merged.get(1).path("title").asText());
+        assertEquals("issue-0", merged.get(2).path("id").asText());
+        assertEquals("issue-2", merged.get(3).path("id").asText());
+    }
+
     // Helper methods to create test data
     private List<Issue> createTestIssues(int count) {
         List<Issue> issues = new ArrayList<>();
@@ -0,0 +1,92 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NestedConnectionFetcherTest {
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    @Test
+    void document_shouldContinueEachItemInAnAliasedSubQuery() {
+        // Arrange
+        NestedConnection<Object> connection = NestedConnection.builder()
+                .typeName("Issue")
+                .field("comments")
+                .selection("...IssueCommentFields")
+                .fragments("fragment IssueCommentFields on IssueComment {\n  id\n}\n")
+                .build();
+
+        // Act
+        String document = NestedConnectionFetcher.document(connection, 2, 50);
+
+        // Assert
+        assertTrue(document.startsWith("query($id0: ID!, $after0: String, $id1: ID!, $after1: String) {"));
+        assertTrue(document.contains("n0: node(id: $id0)"));
+        assertTrue(document.contains("n1: node(id: $id1)"));
+        assertTrue(document.contains("comments(first: 50, after: $after1)"));
+        assertTrue(document.endsWith("fragment IssueCommentFields on IssueComment {\n  id\n}\n"));
+        // 2 items * 50 comments
+        assertEquals(2 * 50, QueryPlanner.estimateNodes(document, Map.of()));
+    }
+
+    @Test
+    void complete_shouldFailInsteadOfEmittingTruncatedItems() {
+        // Arrange: the follow-up node(id:) query for the comments of I_2 fails
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(paginator.query(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(2);
+            if ("I_2".equals(variables.get("id0"))) {
+                return Mono.error(new IllegalStateException("Bad gateway"));
+            }
+            ObjectNode data = objectMapper.createObjectNode();
+            ObjectNode comments = data.putObject("n0").putObject("comments");
+            comments.putObject("pageInfo").put("hasNextPage", false);
+            comments.putArray("nodes").addObject().put("id", "C_" + variables.get("id0"));
+            return Mono.just(data);
+        });
+        NestedConnectionFetcher fetcher = new NestedConnectionFetcher(paginator, new ExportProperties());
+        List<String> fetched = new ArrayList<>();
+        NestedConnection<Issue> connection = NestedConnection.<Issue>builder()
+                .name("issue comments")
+                .typeName("Issue")
+                .field("comments")
+                .selection("id")
+                .cursorsOf(NestedConnection.ownCursor(Issue::getId, issue -> "cursor"))
+                .appender((issue, nodes) -> nodes.forEach(node -> fetched.add(node.path("id").asText())))
+                .build();
+        Flux<Page<Issue>> pages = Flux.just(
+                new Page<>(1, List.of(Issue.builder().id("I_1").build()), "cursor1", true, 2, 1),
+                new Page<>(2, List.of(Issue.builder().id("I_2").build()), "cursor2", false, 2, 2));
+        List<Page<Issue>> emitted = new ArrayList<>();
+
+        // Act
+        Exception error = assertThrows(IllegalStateException.class,
+                () -> fetcher.complete(pages, connection).doOnNext(emitted::add).blockLast());
+
+        // Assert: the final page is never emitted, so the crawl is not seen as complete
+        assertEquals(List.of("C_I_1"), fetched);
+        assertEquals(1, emitted.size());
+        assertTrue(emitted.get(0).isHasNextPage());
+        assertTrue(error.getMessage().contains("issue comments on page 2"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NodeHydratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    private NodeHydrator nodeHydrator;
+    private List<List<String>> requestedBatches;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.getTwoPhase().setBatchSize(2);
+        properties.getTwoPhase().setConcurrency(2);
+        nodeHydrator = new NodeHydrator(paginator, properties);
+        requestedBatches = new ArrayList<>();
+    }
+
+    @Test
+    void hydrate_shouldReplaceSkeletonsWithFullItemsInOrder() {
+        // Arrange
+        stubNodesQuery();
+        Page<Issue> skeletons = new Page<>(1, List.of(skeleton("I_1"), skeleton("I_2"), skeleton("I_3")),
+                "cursor1", true, 10, 3);
+
+        // Act
+        List<Page<Issue>> pages = hydrate(Flux.just(skeletons), issue -> true);
+
+        // Assert: the ids are fetched in batches, and the page keeps its position in the crawl
+        assertEquals(List.of(List.of("I_1", "I_2"), List.of("I_3")), requestedBatches);
+        Page<Issue> page = pages.get(0);
+        assertEquals(List.of("Title of I_1", "Title of I_2", "Title of I_3"),
+                page.getItems().stream().map(Issue::getTitle).toList());
+        assertEquals("cursor1", page.getEndCursor());
+        assertTrue(page.isHasNextPage());
+        assertEquals(3, page.getTotalFetched());
+    }
+
+    @Test
+    void hydrate_shouldLeaveOutItemsRejectedByTheFilter() {
+        // Arrange: I_2 is unchanged since the snapshot, and the second page holds only unchanged items
+        stubNodesQuery();
+        Flux<Page<Issue>> skeletons = Flux.just(
+                new Page<>(1, List.of(skeleton("I_1"), skeleton("I_2")), "cursor1", true, 3, 2),
+                new Page<>(2, List.of(skeleton("I_3")), "cursor2", false, 3, 3));
+
+        // Act
+        List<Page<Issue>> pages = hydrate(skeletons, issue -> issue.getId().equals("I_1"));
+
+        // Assert
+        assertEquals(List.of(List.of("I_1")), requestedBatches);
+        assertEquals(List.of("I_1"), pages.get(0).getItems().stream().map(Issue::getId).toList());
+        assertTrue(pages.get(1).getItems().isEmpty());
+        assertEquals("cursor2", pages.get(1).getEndCursor());
+        assertFalse(pages.get(1).isHasNextPage());
+    }
+
+    @Test
+    void hydrate_shouldEndBeforeThePageOfAFailedBatch() {
+        // Arrange
+        when(paginator.query(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Map<String, Object> variables = invocation.getArgument(2);
+            return ((List<?>) variables.get("ids")).contains("I_3")
+                    ? Mono.error(new IllegalStateException("Bad gateway"))
+                    : Mono.just(nodes(variables));
+        });
+        Flux<Page<Issue>> skeletons = Flux.just(
+                new Page<>(1, List.of(skeleton("I_1")), "cursor1", true, 3, 1),
+                new Page<>(2, List.of(skeleton("I_2"), skeleton("I_3")), "cursor2", false, 3, 3));
+
+        // Act
+        List<Page<Issue>> pages = hydrate(skeletons, issue -> true);
+
+        // Assert: the crawl is seen as incomplete, since no final page was emitted
+        assertEquals(1, pages.size());
+        assertEquals("cursor1", pages.get(0).getEndCursor());
+    }
+
+    private List<Page<Issue>> hydrate(Flux<Page<Issue>> skeletons, Predicate<Issue> needsHydration) {
+        return nodeHydrator.hydrate(skeletons, "issues", "query($ids: [ID!]!) { nodes(ids: $ids) { id } }",
+                        this::extractIssues, Issue::getId, needsHydration)
+                .collectList()
+                .block();
+    }
+
+    private void stubNodesQuery() {
+        when(paginator.query(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> Mono.just(nodes(invocation.getArgument(2))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonNode nodes(Map<String, Object> variables) {
+        List<String> ids = (List<String>) variables.get("ids");
+        synchronized (requestedBatches) {
+            requestedBatches.add(ids);
+        }
+        ObjectNode data = objectMapper.createObjectNode();
+        ArrayNode nodes = data.putArray("nodes");
+        ids.forEach(id -> nodes.addObject().put("id", id).put("title", "Title of " + id));
+        return data;
+    }
+
+    private List<Issue> extractIssues(JsonNode nodes) {
+        List<Issue> issues = new ArrayList<>();
+        nodes.forEach(node -> issues.add(Issue.builder()
+                .id(node.path("id").asText())
+                .title(node.path("title").asText())
+                .build()));
+        return issues;
+    }
+
+    private Issue skeleton(String id) {
+        return Issue.builder().id(id).build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.dataexporter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageQueryTest {
+
+    @Test
+    void fingerprint_shouldIgnorePositionButNotFilters() {
+        // Arrange
+        PageQuery<Object> query = query(List.of("bug"));
+
+        // Act
+        String fingerprint = query.fingerprint("SERIAL");
+
+        // Assert
+        assertEquals(fingerprint, query.toBuilder().pageSize(10).build().fingerprint("SERIAL"));
+        assertEquals(fingerprint, query(List.of("bug")).fingerprint("SERIAL"));
+        assertNotEquals(fingerprint, query(List.of("enhancement")).fingerprint("SERIAL"));
+        assertNotEquals(fingerprint, query.fingerprint("PARTITIONED"));
+    }
+
+    private PageQuery<Object> query(List<String> labels) {
+        return PageQuery.builder()
+                .name("issues")
+                .document("query { repository { issues { nodes { id } } } }")
+                .variables((limit, cursor) -> {
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("owner", "octocat");
+                    variables.put("name", "hello-world");
+                    variables.put("first", limit);
+                    variables.put("after", cursor);
+                    variables.put("filterBy", Map.of("labels", labels, "since", "2024-01-01T00:00:00Z"));
+                    return variables;
+                })
+                .pageSize(50)
+                .build();
+    }
+}
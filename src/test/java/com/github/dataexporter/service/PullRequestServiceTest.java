@@ -0,0 +1,101 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import com.github.dataexporter.model.PullRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PullRequestServiceTest {
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    @Mock
+    private GitHubNodeNormalizer nodeNormalizer;
+
+    @Mock
+    private PartitionedCrawler partitionedCrawler;
+
+    @Mock
+    private BidirectionalCrawler bidirectionalCrawler;
+
+    @Mock
+    private NodeHydrator nodeHydrator;
+
+    @Mock
+    private NestedConnectionFetcher nestedConnectionFetcher;
+
+    private ExportProperties exportProperties;
+    private PullRequestService pullRequestService;
+
+    @BeforeEach
+    void setUp() {
+        GitHubProperties gitHubProperties = new GitHubProperties();
+        gitHubProperties.getRepository().setOwner("octo-org");
+        gitHubProperties.getRepository().setName("octo-repo");
+        exportProperties = new ExportProperties();
+        QueryFilters queryFilters = new QueryFilters(exportProperties, gitHubProperties, paginator, new QueryLoader());
+        pullRequestService = new PullRequestService(paginator, gitHubProperties, exportProperties, new ObjectMapper(),
+                nodeNormalizer, partitionedCrawler, bidirectionalCrawler, nodeHydrator, nestedConnectionFetcher,
+                queryFilters, new QueryLoader());
+
+        when(nestedConnectionFetcher.complete(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void fetchPullRequestPages_shouldSearchWhenConnectionCannotApplyFilters() {
+        // Arrange: a serial crawl of open and merged pull requests assigned to a user
+        exportProperties.getFilters().setAssignee("octocat");
+        exportProperties.getFilters().setPullRequestStates(List.of("OPEN", "MERGED"));
+        TimeWindow window = TimeWindow.since(Instant.parse("2024-01-01T00:00:00Z"));
+        Page<PullRequest> searchPage = new Page<>(1, List.of(
+                pullRequest("PR_1", "OPEN"), pullRequest("PR_2", "CLOSED"), pullRequest("PR_3", "MERGED")),
+                null, false, 3, 3);
+        when(partitionedCrawler.<PullRequest>crawl(any(), eq("is:pr assignee:octocat updated:2024-01-01T00:00:00Z..*"),
+                any())).thenReturn(Flux.just(searchPage));
+
+        // Act
+        List<Page<PullRequest>> pages = pullRequestService.fetchPullRequestPages(window).collectList().block();
+
+        // Assert: search applied the assignee, and the closed pull request search could not exclude is dropped
+        assertEquals(1, pages.size());
+        assertEquals(List.of("PR_1", "PR_3"), pages.get(0).getItems().stream().map(PullRequest::getId).toList());
+        assertFalse(pages.get(0).isHasNextPage());
+        verify(paginator, never()).paginate(any());
+    }
+
+    @Test
+    void fetchPullRequestPages_shouldPaginateConnectionForStateAndLabelFilters() {
+        // Arrange
+        exportProperties.getFilters().setLabels(List.of("bug"));
+        when(paginator.<PullRequest>paginate(any())).thenReturn(Flux.empty());
+
+        // Act
+        pullRequestService.fetchPullRequestPages(TimeWindow.ALL).collectList().block();
+
+        // Assert
+        verify(paginator).paginate(any());
+        verifyNoInteractions(partitionedCrawler);
+    }
+
+    private PullRequest pullRequest(String id, String state) {
+        return PullRequest.builder().id(id).state(state).updatedAt(ZonedDateTime.parse("2024-02-01T00:00:00Z"))
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.config.GitHubProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QueryFiltersTest {
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    private GitHubProperties gitHubProperties;
+
+    @BeforeEach
+    void setUp() {
+        gitHubProperties = new GitHubProperties();
+        gitHubProperties.getRepository().setOwner("octo-org");
+        gitHubProperties.getRepository().setName("octo-repo");
+    }
+
+    @Test
+    void issueFilterBy_shouldPushConfiguredFiltersAndSince() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setLabels(List.of("bug"));
+        properties.getFilters().setAssignee("none");
+        properties.getFilters().setCreator("octocat");
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+
+        // Act
+        Map<String, Object> filterBy = queryFilters.issueFilterBy(Instant.parse("2024-01-01T00:00:00Z"));
+
+        // Assert
+        assertEquals(List.of("bug"), filterBy.get("labels"));
+        assertTrue(filterBy.containsKey("assignee"));
+        assertNull(filterBy.get("assignee"));
+        assertEquals("octocat", filterBy.get("createdBy"));
+        assertEquals("2024-01-01T00:00:00Z", filterBy.get("since"));
+        assertFalse(filterBy.containsKey("mentioned"));
+    }
+
+    @Test
+    void issueFilterBy_shouldBeNullWithoutFilters() {
+        // Arrange
+        QueryFilters queryFilters = new QueryFilters(new ExportProperties(), gitHubProperties, paginator,
+                new QueryLoader());
+
+        // Act & Assert
+        assertNull(queryFilters.issueFilterBy(null));
+    }
+
+    @Test
+    void pullRequestSearchQualifier_shouldTranslateStatesAndFilters() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setPullRequestStates(List.of("MERGED", "CLOSED"));
+        properties.getFilters().setLabels(List.of("bug", "good first issue"));
+        properties.getFilters().setAssignee("*");
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+
+        // Act
+        String qualifier = queryFilters.pullRequestSearchQualifier().block();
+
+        // Assert
+        assertEquals("is:pr is:closed label:\"bug\",\"good first issue\" -no:assignee", qualifier);
+    }
+
+    @Test
+    void issueFilterBy_shouldSendNullForIssuesWithoutMilestone() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setMilestone("none");
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+
+        // Act
+        Map<String, Object> filterBy = queryFilters.issueFilterBy(null);
+
+        // Assert
+        assertTrue(filterBy.containsKey("milestoneNumber"));
+        assertNull(filterBy.get("milestoneNumber"));
+    }
+
+    @Test
+    void issueFilterBy_shouldPassMilestoneNumberAndWildcard() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setMilestone("12");
+        QueryFilters byNumber = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+        ExportProperties anyProperties = new ExportProperties();
+        anyProperties.getFilters().setMilestone("*");
+        QueryFilters anyMilestone = new QueryFilters(anyProperties, gitHubProperties, paginator, new QueryLoader());
+
+        // Act & Assert
+        assertEquals("12", byNumber.issueFilterBy(null).get("milestoneNumber"));
+        assertEquals("*", anyMilestone.issueFilterBy(null).get("milestoneNumber"));
+        assertEquals("is:issue -no:milestone", anyMilestone.issueSearchQualifier().block());
+    }
+
+    @Test
+    void issueSearchQualifier_shouldSelectIssuesWithoutMilestone() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setMilestone("none");
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+
+        // Act & Assert
+        assertEquals("is:issue no:milestone", queryFilters.issueSearchQualifier().block());
+    }
+
+    @Test
+    void pullRequestSearchQualifier_shouldSelectMilestoneByItsTitle() throws Exception {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setMilestone("12");
+        properties.getFilters().setMentioned("octocat");
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+        when(paginator.query(anyString(), anyString(), argThat(variables -> Integer.valueOf(12).equals(variables.get("number")))))
+                .thenReturn(Mono.just(new ObjectMapper().readTree("{\"repository\":{\"milestone\":{\"title\":\"v1.0\"}}}")));
+
+        // Act
+        String qualifier = queryFilters.pullRequestSearchQualifier().block();
+
+        // Assert
+        assertTrue(queryFilters.requiresPullRequestSearch());
+        assertEquals("is:pr mentions:octocat milestone:\"v1.0\"", qualifier);
+    }
+
+    @Test
+    void issueSearchQualifier_shouldFailForUnknownMilestone() throws Exception {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setMilestone("99");
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+        when(paginator.query(anyString(), anyString(), argThat(variables -> true)))
+                .thenReturn(Mono.just(new ObjectMapper().readTree("{\"repository\":{\"milestone\":null}}")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> queryFilters.issueSearchQualifier().block());
+    }
+
+    @Test
+    void requiresPullRequestSearch_shouldBeFalseForStateAndLabelFilters() {
+        // Arrange
+        ExportProperties properties = new ExportProperties();
+        properties.getFilters().setLabels(List.of("bug"));
+        properties.getFilters().setPullRequestStates(List.of("MERGED"));
+        QueryFilters queryFilters = new QueryFilters(properties, gitHubProperties, paginator, new QueryLoader());
+
+        // Act & Assert
+        assertFalse(queryFilters.requiresPullRequestSearch());
+    }
+}
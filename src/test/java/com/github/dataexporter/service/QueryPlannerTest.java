@@ -0,0 +1,66 @@
+package com.github.dataexporter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryPlannerTest {
+
+    @Test
+    void estimateNodes_shouldMultiplyNestedConnectionSizes() {
+        // Arrange
+        String document = """
+                query($owner: String!, $name: String!, $first: Int, $dryRun: Boolean = false) {
+                  rateLimit(dryRun: $dryRun) { cost }
+                  repository(owner: $owner, name: $name) {
+                    issues(first: $first, orderBy: {field: UPDATED_AT, direction: DESC}) {
+                      nodes {
+                        title
+                        labels(first: 20) { nodes { name } }
+                        comments(first: 10) {
+                          nodes {
+                            body
+                            reactions(first: 5) { nodes { content } }
+                          }
+                        }
+                      }
+                    }
+                  }
+                }
+                """;
+
+        // Act
+        long nodes = QueryPlanner.estimateNodes(document, Map.of("first", 50));
+
+        // Assert: 50 issues + 50 * 20 labels + 50 * 10 comments + 50 * 10 * 5 reactions
+        assertEquals(50 + 1000 + 500 + 2500, nodes);
+    }
+
+    @Test
+    void estimateNodes_shouldExpandFragmentSpreads() {
+        // Arrange
+        String document = """
+                query($first: Int) {
+                  search(query: "repo:o/n", type: ISSUE, first: $first) {
+                    nodes {
+                      ... on Issue {
+                        ...IssueFields
+                      }
+                    }
+                  }
+                }
+                fragment IssueFields on Issue {
+                  # Labels
+                  labels(first: 20) { nodes { name } }
+                }
+                """;
+
+        // Act
+        long nodes = QueryPlanner.estimateNodes(document, Map.of("first", 10));
+
+        // Assert
+        assertEquals(10 + 200, nodes);
+    }
+}
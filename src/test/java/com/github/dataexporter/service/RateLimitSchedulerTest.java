@@ -0,0 +1,80 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.GitHubProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private GitHubProperties gitHubProperties;
+    private RateLimitScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        gitHubProperties = new GitHubProperties();
+        scheduler = new RateLimitScheduler(gitHubProperties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void reserve_shouldOnlyApplyMinimumSpacingWhileBudgetIsHigh() {
+        // Act
+        Duration first = scheduler.reserve();
+        Duration second = scheduler.reserve();
+
+        // Assert
+        assertEquals(Duration.ZERO, first);
+        assertEquals(Duration.ofMillis(100), second);
+    }
+
+    @Test
+    void reserve_shouldSpreadRemainingBudgetUntilReset() throws Exception {
+        // Arrange
+        scheduler.recordRateLimit(new ObjectMapper().readTree(
+                "{\"cost\": 1, \"limit\": 5000, \"remaining\": 100, \"resetAt\": \"2024-01-01T00:10:00Z\"}"));
+
+        // Act
+        scheduler.reserve();
+        Duration second = scheduler.reserve();
+
+        // Assert
+        assertEquals(Duration.ofSeconds(6), second);
+    }
+
+    @Test
+    void reserve_shouldWaitForResetWhenBudgetIsExhausted() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("x-ratelimit-limit", "5000");
+        headers.add("x-ratelimit-remaining", "0");
+        headers.add("x-ratelimit-reset", String.valueOf(NOW.plusSeconds(60).getEpochSecond()));
+        scheduler.recordHeaders(headers);
+
+        // Act
+        Duration delay = scheduler.reserve();
+
+        // Assert
+        assertEquals(Duration.ofSeconds(61), delay);
+    }
+
+    @Test
+    void reserve_shouldNotDelayWhenDisabled() {
+        // Arrange
+        gitHubProperties.getApi().getRateLimit().setEnabled(false);
+        scheduler = new RateLimitScheduler(gitHubProperties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // Act & Assert
+        assertEquals(Duration.ZERO, scheduler.reserve());
+        assertEquals(Duration.ZERO, scheduler.reserve());
+    }
+}
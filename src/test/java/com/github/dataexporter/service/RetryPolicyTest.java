@@ -0,0 +1,94 @@
+package com.github.dataexporter.service;
+
+import com.github.dataexporter.config.GitHubProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+
+    private GitHubProperties gitHubProperties;
+    private RetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        gitHubProperties = new GitHubProperties();
+        gitHubProperties.getApi().getRetry().setInitialBackoff(Duration.ofMillis(1));
+        gitHubProperties.getApi().getRetry().setMaxBackoff(Duration.ofMillis(5));
+        retryPolicy = new RetryPolicy(gitHubProperties);
+    }
+
+    @Test
+    void withRetries_shouldResendRequestAfterTransientFailures() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> attempts.incrementAndGet() <= 2
+                ? Mono.error(error(HttpStatus.BAD_GATEWAY, new HttpHeaders(), ""))
+                : Mono.just("page"));
+
+        // Act
+        String result = retryPolicy.withRetries(request, "test").block();
+
+        // Assert
+        assertEquals("page", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2L, retryPolicy.getMetrics().get("retries"));
+    }
+
+    @Test
+    void withRetries_shouldNotRetryPermanentFailures() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(error(HttpStatus.UNAUTHORIZED, new HttpHeaders(), "Bad credentials"));
+        });
+
+        // Act & Assert
+        assertThrows(WebClientResponseException.class, () -> retryPolicy.withRetries(request, "test").block());
+        assertEquals(1, attempts.get());
+        assertEquals(1L, retryPolicy.getMetrics().get("permanentFailures"));
+    }
+
+    @Test
+    void isTransient_shouldDistinguishSecondaryRateLimitFromForbidden() {
+        // Arrange
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.add(HttpHeaders.RETRY_AFTER, "1");
+
+        // Act & Assert
+        assertTrue(retryPolicy.isTransient(new RuntimeException(error(HttpStatus.FORBIDDEN, retryAfter, ""))));
+        assertTrue(retryPolicy.isTransient(error(HttpStatus.FORBIDDEN, new HttpHeaders(),
+                "You have exceeded a secondary rate limit")));
+        assertFalse(retryPolicy.isTransient(error(HttpStatus.FORBIDDEN, new HttpHeaders(), "Resource not accessible")));
+    }
+
+    @Test
+    void backoff_shouldStayBetweenHalfAndAllOfTheCappedDelay() {
+        // Arrange
+        gitHubProperties.getApi().getRetry().setInitialBackoff(Duration.ofMillis(100));
+        gitHubProperties.getApi().getRetry().setMaxBackoff(Duration.ofMillis(1000));
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            long third = retryPolicy.backoff(3).toMillis();
+            long capped = retryPolicy.backoff(10).toMillis();
+            assertTrue(third >= 200 && third <= 400, "attempt 3 waited " + third + "ms");
+            assertTrue(capped >= 500 && capped <= 1000, "attempt 10 waited " + capped + "ms");
+        }
+    }
+
+    private WebClientResponseException error(HttpStatus status, HttpHeaders headers, String body) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), headers,
+                body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.export.CheckpointStore;
+import com.github.dataexporter.export.CrawlCheckpoint;
+import com.github.dataexporter.export.ExportResult;
+import com.github.dataexporter.export.JsonExporter;
+import com.github.dataexporter.export.StreamingExporter;
+import com.github.dataexporter.model.Issue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StreamingExporterTest {
+
+    @Mock
+    private IssueService issueService;
+
+    @Mock
+    private PullRequestService pullRequestService;
+
+    @TempDir
+    Path tempDir;
+
+    private ExportProperties properties;
+    private CheckpointStore checkpointStore;
+    private StreamingExporter streamingExporter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        properties = new ExportProperties();
+        properties.setDirectory(tempDir.toString());
+        checkpointStore = new CheckpointStore(objectMapper);
+        streamingExporter = new StreamingExporter(issueService, pullRequestService,
+                new JsonExporter(properties, objectMapper), checkpointStore, properties);
+    }
+
+    @Test
+    void exportIssues_shouldDiscardCheckpointOfADifferentCrawl() throws Exception {
+        // Arrange: a checkpoint left behind by a crawl with other filters
+        Path filePath = properties.getIssuesFilePath();
+        Files.writeString(filePath, "[{\"id\":\"I_other\"}");
+        checkpointStore.save(filePath, new CrawlCheckpoint("other-crawl", "cursor", 1, 1, 17, Instant.now()));
+        when(issueService.crawlFingerprint(TimeWindow.ALL)).thenReturn("this-crawl");
+        when(issueService.fetchIssuePages(eq(TimeWindow.ALL), isNull())).thenReturn(Flux.just(
+                new Page<>(1, List.of(Issue.builder().id("I_1").build()), "end", false, 1, 1)));
+
+        // Act
+        ExportResult result = streamingExporter.exportIssues();
+
+        // Assert
+        assertEquals(1, result.getItemCount());
+        verify(issueService, never()).fetchIssuePages(any(TimeWindow.class), any(ResumePoint.class));
+        String exported = Files.readString(filePath);
+        assertTrue(exported.contains("I_1"));
+        assertFalse(exported.contains("I_other"));
+        assertTrue(checkpointStore.load(filePath).isEmpty());
+    }
+
+    @Test
+    void exportIssues_shouldResumeFromTheCheckpointAfterAFailedCrawl() throws Exception {
+        // Arrange: the first attempt fails after one page, e.g. when nested comments could not be fetched
+        when(issueService.crawlFingerprint(TimeWindow.ALL)).thenReturn("this-crawl");
+        when(issueService.fetchIssuePages(eq(TimeWindow.ALL), isNull())).thenReturn(Flux.concat(
+                Flux.just(new Page<>(1, List.of(Issue.builder().id("I_1").build()), "cursor1", true, 2, 1)),
+                Flux.error(new IllegalStateException("Remaining issue comments on page 2 could not be fetched"))));
+        when(issueService.fetchIssuePages(eq(TimeWindow.ALL), any(ResumePoint.class))).thenReturn(Flux.just(
+                new Page<>(2, List.of(Issue.builder().id("I_2").build()), "cursor2", false, 2, 2)));
+
+        // Act
+        ExportResult result = streamingExporter.exportIssues();
+
+        // Assert
+        assertEquals(2, result.getItemCount());
+        verify(issueService).fetchIssuePages(TimeWindow.ALL, new ResumePoint("cursor1", 1, 1));
+        String exported = Files.readString(properties.getIssuesFilePath());
+        assertTrue(exported.contains("I_1") && exported.contains("I_2"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.dataexporter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeWindowTest {
+
+    @Test
+    void contains_shouldIncludeBoundsAndExcludeOutsideTimes() {
+        // Arrange
+        TimeWindow window = new TimeWindow(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z"));
+
+        // Act & Assert
+        assertTrue(window.contains(ZonedDateTime.parse("2024-01-01T00:00:00Z")));
+        assertTrue(window.contains(ZonedDateTime.parse("2024-02-01T00:00:00Z")));
+        assertTrue(window.isBefore(ZonedDateTime.parse("2023-12-31T23:59:59Z")));
+        assertTrue(window.isAfter(ZonedDateTime.parse("2024-02-01T00:00:01Z")));
+        assertTrue(window.contains(null));
+        assertFalse(window.isEmpty());
+    }
+
+    @Test
+    void openBounds_shouldSelectEverything() {
+        // Arrange
+        TimeWindow window = TimeWindow.ALL;
+
+        // Act & Assert
+        assertFalse(window.isBounded());
+        assertFalse(window.isBefore(ZonedDateTime.parse("1970-01-01T00:00:00Z")));
+        assertFalse(window.isAfter(ZonedDateTime.parse("2100-01-01T00:00:00Z")));
+        assertEquals("*..*", window.toString());
+    }
+
+    @Test
+    void isEmpty_shouldDetectWindowEndingBeforeItStarts() {
+        // Arrange
+        TimeWindow window = new TimeWindow(Instant.parse("2024-02-01T00:00:00Z"), Instant.parse("2024-01-01T00:00:00Z"));
+
+        // Act & Assert
+        assertTrue(window.isEmpty());
+    }
+
+    @Test
+    void fileFor_shouldKeepWindowedExportsOutOfTheFullExportFile() {
+        // Arrange
+        Path filePath = Path.of("exports", "issues.json");
+        TimeWindow window = TimeWindow.since(Instant.parse("2024-07-01T00:00:00Z"));
+
+        // Act & Assert
+        assertEquals(Path.of("exports", "issues-20240701T000000Z-max.json"), window.fileFor(filePath));
+        assertEquals(filePath, TimeWindow.ALL.fileFor(filePath));
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.export.ExportResult;
+import com.github.dataexporter.export.JsonExporter;
+import com.github.dataexporter.export.TimelineExporter;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.PullRequest;
+import com.github.dataexporter.model.TimelineEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimelineExporterTest {
+
+    @Mock
+    private IssueService issueService;
+
+    @Mock
+    private PullRequestService pullRequestService;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @TempDir
+    Path tempDir;
+
+    private TimelineExporter timelineExporter;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.setDirectory(tempDir.toString());
+        timelineExporter = new TimelineExporter(issueService, pullRequestService, timelineService,
+                new JsonExporter(properties, new ObjectMapper().findAndRegisterModules()), properties);
+
+        // Drains the skeleton pages without fetching any timeline
+        when(timelineService.streamIssueTimelines(any()))
+                .thenAnswer(invocation -> invocation.<Flux<Page<Issue>>>getArgument(0)
+                        .thenMany(Flux.<TimelineEntry>empty()));
+        when(timelineService.streamPullRequestTimelines(any()))
+                .thenAnswer(invocation -> invocation.<Flux<Page<PullRequest>>>getArgument(0)
+                        .thenMany(Flux.<TimelineEntry>empty()));
+    }
+
+    @Test
+    void exportTimelines_shouldCompleteWhenBothSkeletonCrawlsAreFinal() throws Exception {
+        // Arrange
+        when(issueService.fetchIssueSkeletonPages()).thenReturn(Flux.just(
+                new Page<>(1, List.of(Issue.builder().id("I_1").number(1).build()), "cursor1", false, 1, 1)));
+        when(pullRequestService.fetchPullRequestSkeletonPages()).thenReturn(Flux.just(
+                new Page<>(1, List.of(), null, false, 0, 0)));
+
+        // Act
+        ExportResult result = timelineExporter.exportTimelines();
+
+        // Assert
+        assertEquals(0, result.getItemCount());
+    }
+
+    @Test
+    void exportTimelines_shouldFailWhenTheSkeletonCrawlEndsEarly() {
+        // Arrange: the issue crawl ends after a page that reports more issues, e.g. after a failed request
+        when(issueService.fetchIssueSkeletonPages()).thenReturn(Flux.just(
+                new Page<>(1, List.of(Issue.builder().id("I_1").number(1).build()), "cursor1", true, 2, 1)));
+
+        // Act
+        Exception error = assertThrows(IllegalStateException.class, () -> timelineExporter.exportTimelines());
+
+        // Assert
+        assertEquals("Crawl of issues ended early after page 1", error.getMessage());
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.dataexporter.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dataexporter.config.ExportProperties;
+import com.github.dataexporter.model.Issue;
+import com.github.dataexporter.model.TimelineEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimelineServiceTest {
+
+    @Mock
+    private GraphQlPaginator paginator;
+
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        timelineService = new TimelineService(paginator, new ExportProperties(), new ObjectMapper(), new QueryLoader());
+    }
+
+    @Test
+    void streamIssueTimelines_shouldEmitEveryEntryOfCompleteTimelines() {
+        // Arrange
+        when(paginator.<TimelineEntry>paginate(any())).thenReturn(Flux.just(
+                new Page<>(1, List.of(entry("E_1")), "c1", true, 2, 1),
+                new Page<>(2, List.of(entry("E_2")), "c2", false, 2, 2)));
+
+        // Act
+        List<TimelineEntry> entries = timelineService.streamIssueTimelines(issues()).collectList().block();
+
+        // Assert
+        assertEquals(List.of("E_1", "E_2"), entries.stream().map(TimelineEntry::getId).toList());
+    }
+
+    @Test
+    void streamIssueTimelines_shouldFailWhenATimelineEndsEarly() {
+        // Arrange: the paginator ends the crawl quietly after a failed request
+        when(paginator.<TimelineEntry>paginate(any())).thenReturn(Flux.just(
+                new Page<>(1, List.of(entry("E_1")), "c1", true, 2, 1)));
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> timelineService.streamIssueTimelines(issues()).blockLast());
+        assertTrue(error.getMessage().contains("issue #7"));
+    }
+
+    private Flux<Page<Issue>> issues() {
+        return Flux.just(new Page<>(1, List.of(Issue.builder().id("I_7").number(7).build()), null, false, 1, 1));
+    }
+
+    private TimelineEntry entry(String id) {
+        return TimelineEntry.builder().kind("issue").number(7).id(id).build();
+    }
+}